@@ -0,0 +1,50 @@
+#!/bin/sh
+# Runs the benchmarks against the plugin as of two commits and compares throughput and allocation.
+#
+#   benchmarks/compare.sh <base> <head> [JMH options, e.g. a benchmark regex]
+#
+# Each commit is checked out into a temporary worktree, installed into the local repository (leaving the
+# head commit installed) and measured with its own benchmarks, so a benchmark that calls an API only one
+# side has still compiles. Results are matched by benchmark name only: a benchmark whose fixtures or code
+# differ between the commits measures different work. A commit without a benchmarks module falls back to
+# the working tree's benchmarks, and the comparison stops if those do not compile against it. Results are
+# kept in benchmarks/target/compare as base.json and head.json.
+set -e
+
+if [ $# -lt 2 ]; then
+    echo "usage: $0 <base> <head> [JMH options]" >&2
+    exit 2
+fi
+base=$(git rev-parse --verify "$1^{commit}")
+head=$(git rev-parse --verify "$2^{commit}")
+shift 2
+
+repo=$(git rev-parse --show-toplevel)
+results="$repo/benchmarks/target/compare"
+work=$(mktemp -d)
+trap 'git -C "$repo" worktree prune; rm -rf "$work"' EXIT
+mkdir -p "$results"
+
+for side in base head; do
+    if [ "$side" = base ]; then commit=$base; else commit=$head; fi
+    echo "== $side: $(git -C "$repo" log -1 --format='%h %s' "$commit")"
+    git -C "$repo" worktree add --detach "$work/$side" "$commit" >/dev/null
+    (cd "$work/$side" && mvn -B -q -DskipTests install)
+    if [ -f "$work/$side/benchmarks/pom.xml" ]; then
+        (cd "$work/$side/benchmarks" && mvn -B -q package -Duberjar.name="benchmarks-$side")
+        mkdir -p "$repo/benchmarks/target"
+        cp "$work/$side/benchmarks/target/benchmarks-$side.jar" "$repo/benchmarks/target/"
+    else
+        echo "$side has no benchmarks; using those of the working tree" >&2
+        if ! (cd "$repo/benchmarks" && mvn -B -q package -Duberjar.name="benchmarks-$side"); then
+            echo "the working tree's benchmarks do not compile against $side" >&2
+            exit 1
+        fi
+    fi
+    java -jar "$repo/benchmarks/target/benchmarks-$side.jar" \
+        -bm thrpt -tu s -prof gc -rf json -rff "$results/$side.json" "$@"
+    git -C "$repo" worktree remove --force "$work/$side"
+done
+
+java -cp "$repo/benchmarks/target/benchmarks-head.jar" com.github.maven.plugin.oss.CompareResults \
+    "$results/base.json" "$results/head.json"
@@ -0,0 +1,168 @@
+package com.github.maven.plugin.oss;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Compares two JMH result files written with {@code -rf json}: the score of every benchmark in both, with
+ * the change from the first to the second, and their normalized allocation if they ran with {@code -prof gc}.
+ * A change is marked with {@code *} when the score intervals of the two runs do not overlap.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar com.github.maven.plugin.oss.CompareResults base.json head.json}
+ */
+public final class CompareResults {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private CompareResults() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: CompareResults <base.json> <head.json>");
+            System.exit(2);
+        }
+        final Map<String, Result> base = read(args[0]);
+        final Map<String, Result> head = read(args[1]);
+
+        System.out.printf("%-100s %5s %14s %14s %-9s %9s %14s %14s%n",
+            "Benchmark", "Mode", "Base", "Head", "Units", "Change", "Base B/op", "Head B/op");
+        for (final Map.Entry<String, Result> entry : head.entrySet()) {
+            final Result after = entry.getValue();
+            final Result before = base.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-100s %5s %14s %14.3f %-9s %9s %14s %14s%n", entry.getKey(), after.mode,
+                    "-", after.score.score, after.score.unit, "new", "-", allocation(after));
+                continue;
+            }
+
+            // positive means better: more throughput, less time
+            final double change = "thrpt".equals(after.mode)
+                ? after.score.score / before.score.score - 1
+                : before.score.score / after.score.score - 1;
+            System.out.printf("%-100s %5s %14.3f %14.3f %-9s %+8.1f%%%s %14s %14s%n", entry.getKey(), after.mode,
+                before.score.score, after.score.score, after.score.unit, 100 * change,
+                before.score.overlaps(after.score) ? " " : "*", allocation(before), allocation(after));
+        }
+        System.out.printf("%nChange is positive when the head is faster; * marks changes beyond the score errors.%n");
+    }
+
+    private static String allocation(final Result result) {
+        return result.allocation == null ? "-" : String.format("%.1f", result.allocation.score);
+    }
+
+    /**
+     * @return the results by benchmark and parameters, in file order
+     */
+    private static Map<String, Result> read(final String file) throws IOException {
+        final Map<String, Result> results = new LinkedHashMap<>();
+        try (Reader in = Files.newBufferedReader(Paths.get(file), UTF_8)) {
+            final JsonReader json = new JsonReader(in);
+            json.beginArray();
+            while (json.hasNext()) {
+                final Result result = readResult(json);
+                results.put(result.name, result);
+            }
+            json.endArray();
+        }
+        return results;
+    }
+
+    private static Result readResult(final JsonReader json) throws IOException {
+        final Result result = new Result();
+        String benchmark = null;
+        final StringJoiner params = new StringJoiner(", ", " (", ")").setEmptyValue("");
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "benchmark":
+                    benchmark = json.nextString();
+                    break;
+                case "mode":
+                    result.mode = json.nextString();
+                    break;
+                case "params":
+                    json.beginObject();
+                    while (json.hasNext()) {
+                        params.add(json.nextName() + "=" + json.nextString());
+                    }
+                    json.endObject();
+                    break;
+                case "primaryMetric":
+                    result.score = readMetric(json);
+                    break;
+                case "secondaryMetrics":
+                    json.beginObject();
+                    while (json.hasNext()) {
+                        if (ALLOCATION.equals(json.nextName())) {
+                            result.allocation = readMetric(json);
+                        } else {
+                            json.skipValue();
+                        }
+                    }
+                    json.endObject();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+
+        result.name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1) + params;
+        return result;
+    }
+
+    private static Metric readMetric(final JsonReader json) throws IOException {
+        final Metric metric = new Metric();
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "score":
+                    metric.score = number(json);
+                    break;
+                case "scoreError":
+                    metric.error = number(json);
+                    break;
+                case "scoreUnit":
+                    metric.unit = json.nextString();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        return metric;
+    }
+
+    private static double number(final JsonReader json) throws IOException {
+        // JMH writes NaN and infinities as strings
+        return json.peek() == JsonReader.Token.STRING ? Double.parseDouble(json.nextString()) : json.nextDouble();
+    }
+
+    private static final class Result {
+        private String name;
+        private String mode;
+        private Metric score;
+        private Metric allocation;
+    }
+
+    private static final class Metric {
+        private double score = Double.NaN;
+        private double error = Double.NaN; // a single measurement has none
+        private String unit  = "";
+
+        boolean overlaps(final Metric other) {
+            final double error = Double.isNaN(this.error) ? 0 : this.error;
+            final double otherError = Double.isNaN(other.error) ? 0 : other.error;
+            return score - error <= other.score + otherError && other.score - otherError <= score + error;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.maven.plugin.oss;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Class-name-to-dependency lookups: the {@code HashMap} computeDependencyUsage used to build versus
+ * {@link DependencyIndex}. The retained size of both structures is printed once per trial.
+ * <p>
+ * The lookup keys are reused across invocations, so {@code HashMap} lookups profit from cached
+ * {@code String} hash codes that freshly parsed import names do not have.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DependencyIndexBenchmark {
+
+    private static final int LOOKUPS = 4096;
+
+    @Param({"100000", "1000000"})
+    private int classes;
+
+    private Map<String, Object>     map;
+    private DependencyIndex<Object> index;
+    private String[]                names;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Object[] artifacts = new Object[200];
+        for (int i = 0; i < artifacts.length; i++) {
+            artifacts[i] = "artifact-" + i;
+        }
+
+        map = new HashMap<>();
+        index = new DependencyIndex<>();
+        for (int i = 0; i < classes; i++) {
+            final String className = SyntheticNames.className(i);
+            final Object artifact = artifacts[i % artifacts.length];
+            map.putIfAbsent(className, artifact);
+            index.add(className, artifact);
+        }
+        index.trimToSize();
+
+        final Random random = new Random(42);
+        names = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            // three in four lookups hit, the rest are JDK or project classes
+            names[i] = random.nextInt(4) == 0 ? "java.util.List" + i : SyntheticNames.className(random.nextInt(classes));
+        }
+
+        System.out.printf("%nfootprint (%d classes): HashMap %,d bytes, DependencyIndex %,d bytes%n",
+            classes, GraphLayout.parseInstance(map).totalSize(), GraphLayout.parseInstance(index).totalSize());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void hashMapLookup(final Blackhole blackhole) {
+        for (final String name : names) {
+            blackhole.consume(map.get(name));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void dependencyIndexLookup(final Blackhole blackhole) {
+        for (final String name : names) {
+            blackhole.consume(index.findClass(name));
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.github.maven.plugin.oss;
+
+import static java.util.stream.Collectors.toList;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The dependency usage analysis of {@link Utility} end to end and by step, on a generated reactor:
+ * {@code modules} JAR modules of {@code files} source files each, all depending on {@code jars} generated
+ * JARs of {@code classesPerJar} classes. Sources import every 25th class of the JARs and a few JDK classes.
+ * No class index is kept, so every invocation reads the JARs. {@code computeReactorUsage} analyzes every
+ * module; {@code computeUnchangedReactorUsage} reuses the stored usage of the unchanged modules.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DependencyUsageBenchmark {
+
+    @Param({"4"})
+    private int modules;
+
+    @Param({"200"})
+    private int files;
+
+    @Param({"20"})
+    private int jars;
+
+    @Param({"500", "5000"})
+    private int classesPerJar;
+
+    private Path               root;
+    private ForkJoinPool       pool;
+    private AnalysisContext    context;
+    private AnalysisContext    incremental;
+    private MavenProject       topProject;
+    private List<MavenProject> projects;
+    private List<Artifact>     artifacts;
+    private ClassFilter        filter;
+
+    private final ImportParser parser = new ScanningImportParser(new JavaParserImportParser());
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("dependency-usage-benchmark");
+
+        artifacts = new ArrayList<>(jars);
+        final List<String> imported = new ArrayList<>(Arrays.asList("java.util.List", "java.util.Map", "java.io.File"));
+        for (int j = 0; j < jars; j++) {
+            final DefaultArtifact artifact = new DefaultArtifact(
+                "bench.dependency", "dependency" + j, "1.0", Artifact.SCOPE_COMPILE, "jar", null, new DefaultArtifactHandler("jar"));
+            artifact.setFile(Fixtures.jar(root.resolve("repository/dependency" + j + "-1.0.jar"), j * classesPerJar, classesPerJar));
+            artifacts.add(artifact);
+            final String[] classNames = Fixtures.classNames(j * classesPerJar, classesPerJar);
+            for (int i = 0; i < classNames.length; i += 25) {
+                imported.add(classNames[i]);
+            }
+        }
+        final String[] dependencyClasses = imported.toArray(new String[0]);
+
+        topProject = project("reactor", "pom");
+        projects = new ArrayList<>();
+        projects.add(topProject);
+        final Set<Artifact> dependencies = new LinkedHashSet<>(artifacts);
+        for (int m = 0; m < modules; m++) {
+            final MavenProject project = project("module" + m, "jar");
+            final Path sourceRoot = root.resolve("module" + m + "/src/main/java");
+            Fixtures.sourceTree(sourceRoot, files, dependencyClasses);
+            project.addCompileSourceRoot(sourceRoot.toString());
+            project.setArtifacts(dependencies);
+            projects.add(project);
+        }
+
+        pool = Utility.newAnalysisPool(0);
+        context = new AnalysisContext(null, null, pool);
+        context.setImportParser(parser, "scanner");
+        context.setClassIndex(new ClassIndex(null));
+        // old enough for the module manifests to be trusted
+        final long modified = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(1);
+        try (Stream<Path> walk = Files.walk(root)) {
+            walk.forEach(path -> path.toFile().setLastModified(modified));
+        }
+        incremental = new AnalysisContext(null, null, pool);
+        incremental.setImportParser(parser, "scanner");
+        incremental.setClassIndex(new ClassIndex(null));
+        Utility.computeDependencyUsage(topProject, projects, incremental);
+
+        filter = ClassFilter.of(projects.subList(1, projects.size())
+            .stream()
+            .map(project -> Utility.retrieveImportedClasses(project, parser).collect(toList()))
+            .collect(toList()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        Fixtures.delete(root);
+    }
+
+    @Benchmark
+    public List<JavaImport> retrieveImportedClasses() {
+        return Utility.retrieveImportedClasses(projects.get(1), parser).collect(toList());
+    }
+
+    @Benchmark
+    public void retrieveFullyQualifiedClasses(final Blackhole blackhole) {
+        for (final Artifact artifact : artifacts) {
+            blackhole.consume(Utility.retrieveFullyQualifiedClasses(artifact));
+        }
+    }
+
+    @Benchmark
+    public void retrieveFilteredClasses(final Blackhole blackhole) {
+        for (final Artifact artifact : artifacts) {
+            blackhole.consume(Utility.retrieveFullyQualifiedClasses(artifact, context.getClassIndex(), filter));
+        }
+    }
+
+    @Benchmark
+    public Map<Artifact, Long> computeProjectUsage() {
+        return Utility.computeDependencyUsage(projects.get(1), context);
+    }
+
+    @Benchmark
+    public Map<?, Long> computeReactorUsage() {
+        context.setModuleUsage(new ModuleUsageCache(null));
+        return Utility.computeDependencyUsage(topProject, projects, context);
+    }
+
+    @Benchmark
+    public Map<?, Long> computeUnchangedReactorUsage() {
+        return Utility.computeDependencyUsage(topProject, projects, incremental);
+    }
+
+    private MavenProject project(final String artifactId, final String packaging) {
+        final Model model = new Model();
+        model.setGroupId("bench");
+        model.setArtifactId(artifactId);
+        model.setVersion("1.0");
+        model.setPackaging(packaging);
+        model.setBuild(new Build());
+        // not compiled, so bytecode analysis would fall back to the sources as well
+        model.getBuild().setOutputDirectory(root.resolve(artifactId + "/target/classes").toString());
+        return new MavenProject(model);
+    }
+}
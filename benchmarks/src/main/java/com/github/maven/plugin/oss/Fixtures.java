@@ -0,0 +1,198 @@
+package com.github.maven.plugin.oss;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Synthetic inputs of a configurable size: source trees, dependency JARs, and GitHub and Jira issue pages
+ * grown from recorded ones. Everything is deterministic, so runs on different commits see the same input.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * Writes {@code files} classes to packages {@code bench.p0} to {@code bench.p19} under {@code root}, each
+     * importing up to eight of {@code dependencyClasses}.
+     */
+    static List<File> sourceTree(final Path root, final int files, final String[] dependencyClasses) throws IOException {
+        final List<File> sources = new ArrayList<>(files);
+        for (int i = 0; i < files; i++) {
+            final Path file = root.resolve("bench/p" + (i % 20) + "/C" + i + ".java");
+            Files.createDirectories(file.getParent());
+            Files.write(file, source(i, dependencyClasses).getBytes(UTF_8));
+            sources.add(file.toFile());
+        }
+        return sources;
+    }
+
+    static String source(final int i, final String[] dependencyClasses) {
+        final StringBuilder source = new StringBuilder();
+        source.append("package bench.p").append(i % 20).append(";\n\n");
+        final List<String> used = new ArrayList<>();
+        for (int k = 0; k < 8; k++) {
+            final String className = dependencyClasses[(i + k * 7) % dependencyClasses.length];
+            if (!used.contains(className)) {
+                used.add(className);
+                source.append("import ").append(className).append(";\n");
+            }
+        }
+
+        source.append("\n/**\n * Generated class ").append(i).append(".\n */\npublic class C").append(i).append(" {\n\n");
+        for (int k = 0; k < used.size(); k++) {
+            final String simpleName = used.get(k).substring(used.get(k).lastIndexOf('.') + 1);
+            source.append("    private ").append(simpleName).append(" field").append(k).append(";\n");
+        }
+        for (int m = 0; m < 10; m++) {
+            source.append("\n    public String method").append(m).append("(final int value) {\n")
+                .append("        final StringBuilder text = new StringBuilder(\"method").append(m).append("\");\n")
+                .append("        for (int j = 0; j < value; j++) {\n")
+                .append("            text.append(j).append(',');\n")
+                .append("        }\n")
+                .append("        return text.toString();\n")
+                .append("    }\n");
+        }
+        return source.append("}\n").toString();
+    }
+
+    /**
+     * Writes a JAR of the classes {@link SyntheticNames#className(int)} names for {@code first} to
+     * {@code first + classes - 1}, each a minimal but valid class file.
+     */
+    static File jar(final Path file, final int first, final int classes) throws IOException {
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        Files.createDirectories(file.getParent());
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(file), manifest)) {
+            for (int i = first; i < first + classes; i++) {
+                final String binaryName = binaryName(SyntheticNames.className(i));
+                out.putNextEntry(new JarEntry(binaryName + ".class"));
+                out.write(classFile(binaryName));
+                out.closeEntry();
+            }
+        }
+        return file.toFile();
+    }
+
+    /**
+     * @return the names of the classes {@link #jar(Path, int, int)} writes, as they are imported
+     */
+    static String[] classNames(final int first, final int classes) {
+        final String[] names = new String[classes];
+        for (int i = 0; i < classes; i++) {
+            names[i] = SyntheticNames.className(first + i);
+        }
+        return names;
+    }
+
+    /**
+     * @return a Java 8 class file of a public class extending {@code Object} with no members
+     */
+    static byte[] classFile(final String binaryName) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + binaryName.length());
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(52);
+        out.writeShort(5);
+        out.writeByte(7);
+        out.writeShort(2);
+        out.writeByte(1);
+        out.writeUTF(binaryName);
+        out.writeByte(7);
+        out.writeShort(4);
+        out.writeByte(1);
+        out.writeUTF("java/lang/Object");
+        out.writeShort(0x0021);
+        out.writeShort(1);
+        out.writeShort(3);
+        out.writeShort(0); // interfaces
+        out.writeShort(0); // fields
+        out.writeShort(0); // methods
+        out.writeShort(0); // attributes
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return the recorded 25-row GitHub issue list page with its rows repeated up to {@code rows}
+     */
+    static String gitHubPage(final int rows) throws IOException {
+        final String recorded = resource("/github/issues.html");
+        final int first = recorded.indexOf("      <li id=");
+        final int last = recorded.indexOf("      </ul>");
+        final List<String> templates = matches(
+            Pattern.compile("      <li id=.*?</li>\n", Pattern.DOTALL), recorded.substring(first, last));
+
+        final StringBuilder page = new StringBuilder(recorded.substring(0, first));
+        for (int i = 0; i < rows; i++) {
+            page.append(templates.get(i % templates.size()));
+        }
+        return page.append(recorded.substring(last)).toString();
+    }
+
+    /**
+     * @return the recorded Jira REST search result with its issues repeated up to {@code issues}
+     */
+    static String jiraPage(final int issues) throws IOException {
+        final String recorded = resource("/jira/search.json");
+        final int first = recorded.indexOf("\n{") + 1;
+        final int last = recorded.lastIndexOf("\n]");
+        // the recorded page has one issue per line
+        final String[] templates = recorded.substring(first, last).split(",\n");
+
+        final StringBuilder page = new StringBuilder(recorded.substring(0, first)
+            .replaceFirst("\"total\":\\d+", "\"total\":" + issues));
+        for (int i = 0; i < issues; i++) {
+            page.append(i > 0 ? ",\n" : "").append(templates[i % templates.length]);
+        }
+        return page.append(recorded.substring(last)).toString();
+    }
+
+    static void delete(final Path root) throws IOException {
+        try (Stream<Path> walk = Files.walk(root)) {
+            walk.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private static String binaryName(final String className) {
+        final String nested = className.endsWith(".Nested")
+            ? className.substring(0, className.length() - ".Nested".length()) + "$Nested"
+            : className;
+        return nested.replace('.', '/');
+    }
+
+    private static String resource(final String name) throws IOException {
+        try (InputStream in = Fixtures.class.getResourceAsStream(name)) {
+            return IOUtils.toString(in, UTF_8);
+        }
+    }
+
+    private static List<String> matches(final Pattern pattern, final String text) {
+        final Matcher matcher = pattern.matcher(text);
+        final List<String> matches = new ArrayList<>();
+        while (matcher.find()) {
+            matches.add(matcher.group());
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.maven.plugin.oss;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Extracting the issues of a GitHub issue list page with a jsoup document and selectors versus the
+ * streaming {@link GitHubIssueListParser} {@link GitHubIssueScraper} uses, and of a Jira REST search result
+ * page. The pages are recorded ones with their rows repeated up to {@code rows}. Run with {@code -prof gc}
+ * to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IssueListBenchmark {
+
+    private static final String BASE = "https://github.com";
+
+    @Param({"25", "100"})
+    private int rows;
+
+    private String html;
+    private String json;
+
+    private final GitHubIssueListParser parser = new GitHubIssueListParser();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        html = Fixtures.gitHubPage(rows);
+        json = Fixtures.jiraPage(rows);
+    }
+
+    @Benchmark
+    public List<Issue> document() {
+        // the extraction GitHubIssueScraper did before the streaming parser
+        final Document htmlDoc = Jsoup.parse(html);
+        final String textDivStates = htmlDoc.select("div.states").first().text();
+        final Matcher stateCountMatcher = Pattern.compile("(?<count>[0-9,]+) (?<type>(Open|Closed))").matcher(textDivStates);
+        final List<Pair<String, Integer>> stateCounts = new ArrayList<>();
+        while (stateCountMatcher.find()) {
+            stateCounts.add(Pair.of(stateCountMatcher.group("type"), Integer.valueOf(stateCountMatcher.group("count").replace(",", ""))));
+        }
+        return htmlDoc.select("li.js-issue-row")
+            .stream()
+            .map(el -> {
+                final Element titleElement = el.selectFirst("a.js-navigation-open");
+                final Set<String> tags = el.select("a.IssueLabel").stream().map(Element::text).collect(Collectors.toSet());
+                return new Issue(titleElement.text(), BASE + titleElement.attr("href"), tags, null, null);
+            })
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Issue> streaming() throws IOException {
+        return parser.parse(new StringReader(html), BASE).getIssues();
+    }
+
+    @Benchmark
+    public List<Issue> jira() throws IOException {
+        final List<Issue> issues = new ArrayList<>(rows);
+        JiraIssueScraper.readPage(new StringReader(json), "https://issues.apache.org/jira", issues);
+        return issues;
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.maven.plugin.oss;
+
+import org.apache.maven.model.IssueManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Scm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link Utility#resolveIssueSite(List)} on three-POM lineages: a quarter declare issue management in the
+ * parent, a quarter only a GitHub SCM URL, a quarter only a GitHub project URL and the rest nothing at all.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IssueSiteBenchmark {
+
+    private static final int LINEAGES = 1024;
+
+    private final List<List<Model>> lineages = new ArrayList<>(LINEAGES);
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < LINEAGES; i++) {
+            final List<Model> lineage = new ArrayList<>(3);
+            for (int depth = 0; depth < 3; depth++) {
+                final Model model = new Model();
+                model.setGroupId("org.example.group" + (i % 50));
+                model.setArtifactId("artifact" + i + (depth == 0 ? "" : "-parent" + depth));
+                model.setVersion("1." + depth);
+                lineage.add(model);
+            }
+            final Model parent = lineage.get(1);
+            switch (i % 4) {
+                case 0:
+                    final IssueManagement issues = new IssueManagement();
+                    issues.setSystem(i % 8 == 0 ? "JIRA" : "GitHub Issues");
+                    issues.setUrl(i % 8 == 0
+                        ? "https://issues.example.org/browse/P" + i
+                        : "https://github.com/example" + i + "/${project.artifactId}/issues");
+                    parent.setIssueManagement(issues);
+                    break;
+                case 1:
+                    final Scm scm = new Scm();
+                    scm.setUrl(i % 8 == 1
+                        ? "scm:git:git@github.com:example" + i + "/repo" + i + ".git"
+                        : "https://github.com/example" + i + "/repo" + i + "/tree/master");
+                    parent.setScm(scm);
+                    break;
+                case 2:
+                    lineage.get(2).setUrl("https://github.com/example" + i + "/repo" + i);
+                    break;
+                default:
+                    lineage.get(2).setUrl("https://www.example.org/project" + i);
+                    break;
+            }
+            lineages.add(lineage);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINEAGES)
+    public void resolveIssueSite(final Blackhole blackhole) {
+        for (final List<Model> lineage : lineages) {
+            blackhole.consume(Utility.resolveIssueSite(lineage));
+        }
+    }
+}
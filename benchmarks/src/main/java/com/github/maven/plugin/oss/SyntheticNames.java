@@ -0,0 +1,27 @@
+package com.github.maven.plugin.oss;
+
+/**
+ * Deterministic class and package names shaped like those of real libraries.
+ */
+final class SyntheticNames {
+
+    private static final String[] ROOTS = {
+        "com.google.common", "software.amazon.awssdk.services", "scala.collection", "org.apache.commons", "io.netty"
+    };
+
+    private static final String[] SEGMENTS = {
+        "collect", "internal", "model", "transform", "util", "concurrent", "immutable", "handler", "codec", "io"
+    };
+
+    static String packageName(final int i) {
+        return ROOTS[i % ROOTS.length] + "." + SEGMENTS[(i / ROOTS.length) % SEGMENTS.length] + ".p" + (i / 50);
+    }
+
+    static String className(final int i) {
+        final String simple = "Generated" + Integer.toString(i, 36) + (i % 3 == 0 ? "Builder" : "Impl");
+        return packageName(i / 40) + "." + simple + (i % 11 == 0 ? ".Nested" : "");
+    }
+
+    private SyntheticNames() {
+    }
+}
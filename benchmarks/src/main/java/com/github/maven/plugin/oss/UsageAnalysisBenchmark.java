@@ -0,0 +1,128 @@
+package com.github.maven.plugin.oss;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Counting dependency usage of one module from its sources (JavaParser, header scanner) versus from its
+ * compiled classes ({@link ClassFileReader}). The module is generated and compiled once per trial; the
+ * JDK classes it uses play the dependency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsageAnalysisBenchmark {
+
+    private static final String[] DEPENDENCY_CLASSES = {
+        "java.util.List", "java.util.ArrayList", "java.util.Map", "java.util.HashMap", "java.util.Set",
+        "java.util.TreeSet", "java.util.Optional", "java.util.concurrent.ConcurrentHashMap",
+        "java.util.concurrent.atomic.AtomicLong", "java.util.function.Function", "java.util.stream.Collectors",
+        "java.util.regex.Pattern", "java.time.Duration", "java.time.Instant", "java.nio.file.Path"
+    };
+
+    @Param({"500"})
+    private int files;
+
+    private Path                    root;
+    private List<File>              sources;
+    private List<Path>              classes;
+    private DependencyIndex<String> index;
+
+    private final ImportParser javaParser = new JavaParserImportParser();
+    private final ImportParser scanner    = new ScanningImportParser(new JavaParserImportParser());
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("usage-benchmark");
+        final Path sourceRoot = root.resolve("src");
+        final Path classRoot = Files.createDirectories(root.resolve("classes"));
+
+        sources = Fixtures.sourceTree(sourceRoot, files, DEPENDENCY_CLASSES);
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final List<String> arguments = new ArrayList<>();
+        arguments.add("-nowarn");
+        arguments.add("-d");
+        arguments.add(classRoot.toString());
+        sources.forEach(file -> arguments.add(file.getPath()));
+        if (compiler.run(null, null, null, arguments.toArray(new String[0])) != 0) {
+            throw new IllegalStateException("could not compile benchmark sources");
+        }
+        try (Stream<Path> walk = Files.walk(classRoot)) {
+            classes = walk.filter(path -> path.toString().endsWith(".class")).collect(Collectors.toList());
+        }
+
+        index = new DependencyIndex<>();
+        for (final String className : DEPENDENCY_CLASSES) {
+            index.add(className, "jdk");
+        }
+        index.trimToSize();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Fixtures.delete(root);
+    }
+
+    @Benchmark
+    public long javaParserImports() throws IOException {
+        return countImports(javaParser);
+    }
+
+    @Benchmark
+    public long scannerImports() throws IOException {
+        return countImports(scanner);
+    }
+
+    @Benchmark
+    public long bytecodeReferences() throws IOException {
+        final ClassFileReader reader = new ClassFileReader();
+        final long[] count = new long[1];
+        for (final Path classFile : classes) {
+            reader.read(classFile, name -> {
+                if (index.findClass(name) != null) {
+                    count[0]++;
+                }
+            });
+        }
+        return count[0];
+    }
+
+    private long countImports(final ImportParser parser) throws IOException {
+        long count = 0;
+        for (final File source : sources) {
+            for (final JavaImport imp : parser.parse(source)) {
+                if (index.resolve(imp) != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
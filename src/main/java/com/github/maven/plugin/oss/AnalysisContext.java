@@ -0,0 +1,278 @@
+package com.github.maven.plugin.oss;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.shared.artifact.resolve.ArtifactResolver;
+
+import java.io.File;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Services and options shared by the dependency usage analysis of one run.
+ */
+final class AnalysisContext {
+
+    private final MavenSession     session;
+    private final ArtifactResolver resolver;
+    private final ForkJoinPool     pool;
+
+    private ImportParser importParser     = new ScanningImportParser(new JavaParserImportParser());
+    private String       importEngine     = "scanner";
+    private ClassIndex   classIndex       = new ClassIndex(null);
+    private boolean      projectArtifacts = true;
+    private boolean      bytecode;
+    private int          scrapeConcurrency        = 8;
+    private int          scrapeConcurrencyPerHost = 2;
+    private int          maxIssuesPerProject      = 100;
+    private long         maxIssueAgeMillis;
+    private HttpFetcher  http;
+    private SnapshotStore snapshots       = new SnapshotStore(null, 0, 0, SnapshotStore.Mode.TTL);
+    private PomLineageCache lineages      = new PomLineageCache(null);
+    private ModuleUsageCache moduleUsage  = new ModuleUsageCache(null);
+    private ScrapeGuard  scrapeGuard      = new ScrapeGuard(0, 0, 0, 0);
+    private long         reportTimeoutMillis;
+    private int          topN;
+    private long         minImports       = 1;
+    private long         timeBudgetMillis;
+    private String       reportFormat     = "markdown";
+    private File         reportFile;
+    private Metrics      metrics          = new Metrics();
+
+    AnalysisContext(final MavenSession session, final ArtifactResolver resolver, final ForkJoinPool pool) {
+        this.session  = session;
+        this.resolver = resolver;
+        this.pool     = pool;
+    }
+
+    MavenSession getSession() {
+        return session;
+    }
+
+    ArtifactResolver getResolver() {
+        return resolver;
+    }
+
+    ForkJoinPool getPool() {
+        return pool;
+    }
+
+    ImportParser getImportParser() {
+        return importParser;
+    }
+
+    /**
+     * @return name of the import parser's engine, e.g. {@code scanner}
+     */
+    String getImportEngine() {
+        return importEngine;
+    }
+
+    /**
+     * @param engine name of the parser's engine; imports another engine extracted are not reused
+     */
+    void setImportParser(final ImportParser importParser, final String engine) {
+        this.importParser = importParser;
+        this.importEngine = engine;
+    }
+
+    ClassIndex getClassIndex() {
+        return classIndex;
+    }
+
+    void setClassIndex(final ClassIndex classIndex) {
+        this.classIndex = classIndex;
+    }
+
+    /**
+     * @return whether dependencies come from the graph Maven resolved for each project
+     *         ({@code project.getArtifacts()}) rather than from resolving declared dependencies one by one
+     */
+    boolean isProjectArtifacts() {
+        return projectArtifacts;
+    }
+
+    void setProjectArtifacts(final boolean projectArtifacts) {
+        this.projectArtifacts = projectArtifacts;
+    }
+
+    /**
+     * @return whether usage is counted from the compiled classes of each project rather than from the
+     *         imports of its sources
+     */
+    boolean isBytecode() {
+        return bytecode;
+    }
+
+    void setBytecode(final boolean bytecode) {
+        this.bytecode = bytecode;
+    }
+
+    /**
+     * @return maximum number of issue sites scraped at the same time
+     */
+    int getScrapeConcurrency() {
+        return scrapeConcurrency;
+    }
+
+    void setScrapeConcurrency(final int scrapeConcurrency) {
+        this.scrapeConcurrency = scrapeConcurrency;
+    }
+
+    /**
+     * @return maximum number of issue site requests in flight against one host
+     */
+    int getScrapeConcurrencyPerHost() {
+        return scrapeConcurrencyPerHost;
+    }
+
+    void setScrapeConcurrencyPerHost(final int scrapeConcurrencyPerHost) {
+        this.scrapeConcurrencyPerHost = scrapeConcurrencyPerHost;
+    }
+
+    int getMaxIssuesPerProject() {
+        return maxIssuesPerProject;
+    }
+
+    void setMaxIssuesPerProject(final int maxIssuesPerProject) {
+        this.maxIssuesPerProject = maxIssuesPerProject;
+    }
+
+    /**
+     * @return how long ago an issue may have last been updated to be scraped; {@code 0} for any time
+     */
+    long getMaxIssueAgeMillis() {
+        return maxIssueAgeMillis;
+    }
+
+    void setMaxIssueAgeMillis(final long maxIssueAgeMillis) {
+        this.maxIssueAgeMillis = maxIssueAgeMillis;
+    }
+
+    /**
+     * @return the HTTP client shared by the issue scrapers
+     */
+    HttpFetcher getHttp() {
+        return http;
+    }
+
+    void setHttp(final HttpFetcher http) {
+        this.http = http;
+    }
+
+    /**
+     * @return the issue snapshots kept between runs
+     */
+    SnapshotStore getSnapshots() {
+        return snapshots;
+    }
+
+    void setSnapshots(final SnapshotStore snapshots) {
+        this.snapshots = snapshots;
+    }
+
+    /**
+     * @return the POM lineages resolved so far, shared by all artifacts of the run
+     */
+    PomLineageCache getLineages() {
+        return lineages;
+    }
+
+    void setLineages(final PomLineageCache lineages) {
+        this.lineages = lineages;
+    }
+
+    /**
+     * @return the dependency usage of reactor modules computed before, by the manifest of their inputs
+     */
+    ModuleUsageCache getModuleUsage() {
+        return moduleUsage;
+    }
+
+    void setModuleUsage(final ModuleUsageCache moduleUsage) {
+        this.moduleUsage = moduleUsage;
+    }
+
+    /**
+     * @return the retries and circuit breakers every issue scrape goes through
+     */
+    ScrapeGuard getScrapeGuard() {
+        return scrapeGuard;
+    }
+
+    void setScrapeGuard(final ScrapeGuard scrapeGuard) {
+        this.scrapeGuard = scrapeGuard;
+    }
+
+    /**
+     * @return how long the report waits for issue sites before leaving the rest pending; {@code 0} waits for all
+     */
+    long getReportTimeoutMillis() {
+        return reportTimeoutMillis;
+    }
+
+    void setReportTimeoutMillis(final long reportTimeoutMillis) {
+        this.reportTimeoutMillis = reportTimeoutMillis;
+    }
+
+    /**
+     * @return number of most imported dependencies whose issues are reported; {@code 0} reports all
+     */
+    int getTopN() {
+        return topN;
+    }
+
+    void setTopN(final int topN) {
+        this.topN = topN;
+    }
+
+    /**
+     * @return imports below which a dependency's issues are not reported
+     */
+    long getMinImports() {
+        return minImports;
+    }
+
+    void setMinImports(final long minImports) {
+        this.minImports = minImports;
+    }
+
+    /**
+     * @return how long a whole report may take before the rest is skipped or left pending; {@code 0} is unlimited
+     */
+    long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    void setTimeBudgetMillis(final long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    /**
+     * @return the format the report is written in: {@code markdown}, {@code jsonl} or {@code csv}
+     */
+    String getReportFormat() {
+        return reportFormat;
+    }
+
+    void setReportFormat(final String reportFormat) {
+        this.reportFormat = reportFormat;
+    }
+
+    /**
+     * @return the file the report is written to, or {@code null} to write it to standard output
+     */
+    File getReportFile() {
+        return reportFile;
+    }
+
+    void setReportFile(final File reportFile) {
+        this.reportFile = reportFile;
+    }
+
+    Metrics getMetrics() {
+        return metrics;
+    }
+
+    void setMetrics(final Metrics metrics) {
+        this.metrics = metrics;
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.maven.plugin.oss;
+
+import static com.github.maven.plugin.oss.Utility.writeAtomically;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A checksummed file holding one of the persistent caches, which builds running at the same time may share.
+ * <p>
+ * The file starts with a magic number, a format version and optionally a variant, such as the parser
+ * engine its entries were computed with; a CRC32 of everything before it closes the file. Contents of
+ * another version or variant read as empty, so a changed format is rebuilt rather than misread. Files are
+ * replaced through {@link Utility#writeAtomically}, so readers see either the old or the new contents;
+ * a cache saving its entries reads the file again first and merges, so entries another build saved in the
+ * meantime survive unless they are about the same keys.
+ */
+final class CacheFile {
+
+    /**
+     * Reads the entries, positioned after the header.
+     */
+    @FunctionalInterface
+    interface Reader<T> {
+
+        T read(DataInputStream in) throws IOException;
+    }
+
+    /**
+     * Writes the entries, positioned after the header.
+     */
+    @FunctionalInterface
+    interface Writer {
+
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private final File   file;
+    private final int    magic;
+    private final int    version;
+    private final String variant;
+    private final String description;
+
+    /**
+     * @param file        the file; {@code null} reads as empty and writes nothing
+     * @param variant     written after the version, or {@code null} for none
+     * @param description what the file is, for error messages, e.g. {@code "import cache"}
+     */
+    CacheFile(final File file, final int magic, final int version, final String variant, final String description) {
+        this.file        = file;
+        this.magic       = magic;
+        this.version     = version;
+        this.variant     = variant;
+        this.description = description;
+    }
+
+    /**
+     * @return the entries, or {@code empty} if there is no file or it is of another version or variant
+     * @throws IOException if the file is unreadable, not such a cache or corrupt
+     */
+    <T> T read(final Reader<T> reader, final Supplier<T> empty) throws IOException {
+        if (file == null || !file.isFile()) {
+            return empty.get();
+        }
+        try (CheckedInputStream checked = new CheckedInputStream(
+                 new BufferedInputStream(new FileInputStream(file), 65536), new CRC32())) {
+            final DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != magic) {
+                throw new IOException("Not a " + description + ": " + file);
+            }
+            if (in.readInt() != version || variant != null && !variant.equals(in.readUTF())) {
+                return empty.get();
+            }
+
+            final T entries = reader.read(in);
+            final long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("Corrupt " + description + " (checksum mismatch): " + file);
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * Like {@link #read}, for merging before a save: a file that cannot be read is about to be replaced,
+     * so it reads as empty.
+     */
+    <T> T readForMerge(final Reader<T> reader, final Supplier<T> empty) {
+        try {
+            return read(reader, empty);
+        } catch (IOException e) {
+            return empty.get();
+        }
+    }
+
+    /**
+     * Replaces the file with the header, the entries {@code writer} writes and the checksum.
+     */
+    void write(final Writer writer) throws IOException {
+        if (file == null) {
+            return;
+        }
+        writeAtomically(file.toPath(), stream -> {
+            final CheckedOutputStream checked = new CheckedOutputStream(stream, new CRC32());
+            final DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(magic);
+            out.writeInt(version);
+            if (variant != null) {
+                out.writeUTF(variant);
+            }
+            writer.write(out);
+            out.flush();
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+        });
+    }
+}
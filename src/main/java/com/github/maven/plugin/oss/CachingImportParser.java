@@ -0,0 +1,197 @@
+package com.github.maven.plugin.oss;
+
+import static com.github.maven.plugin.oss.Utility.readVarInt;
+import static com.github.maven.plugin.oss.Utility.writeVarInt;
+import static java.util.Collections.unmodifiableList;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the imports of each source file between runs.
+ * <p>
+ * Entries are keyed by absolute path and validated by size and modification time; when those differ
+ * the content digest decides whether the file really changed. Only new or changed files reach the
+ * delegate parser.
+ * <p>
+ * Stored as a {@link CacheFile} (version 1) whose variant is the parser engine: a table of distinct import
+ * names, then for each source file its path, size, modification time, SHA-1 digest and the import name
+ * indices with their static/asterisk flags.
+ */
+final class CachingImportParser implements ImportParser {
+
+    static final int VERSION = 1;
+
+    private static final int  MAGIC        = 0x4F535349; // "OSSI"
+    private static final long RACY_WINDOW  = 2000L;
+    private static final long UNCONFIRMED  = -1L;
+
+    private final File         cacheFile;
+    private final CacheFile    file;
+    private final ImportParser delegate;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder          hits    = new LongAdder();
+    private final LongAdder          misses  = new LongAdder();
+
+    /**
+     * @param engine name of the delegate's engine; a cache written by another engine is ignored
+     */
+    CachingImportParser(final File cacheFile, final String engine, final ImportParser delegate) {
+        this.cacheFile = cacheFile;
+        this.file      = new CacheFile(cacheFile, MAGIC, VERSION, engine, "import cache");
+        this.delegate  = delegate;
+    }
+
+    @Override
+    public List<JavaImport> parse(final File sourceFile) throws IOException {
+        final Path path = sourceFile.toPath();
+        final String key = sourceFile.getAbsolutePath();
+        final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        final long size = attributes.size();
+        final long modified = attributes.lastModifiedTime().toMillis();
+
+        final Entry cached = entries.get(key);
+        if (cached != null && cached.size == size && cached.modified == modified) {
+            hits.increment();
+            return cached.imports;
+        }
+
+        final byte[] digest = digest(Files.readAllBytes(path));
+        if (cached != null && cached.size == size && Arrays.equals(cached.digest, digest)) {
+            entries.put(key, new Entry(size, confirmed(modified), digest, cached.imports));
+            hits.increment();
+            return cached.imports;
+        }
+
+        final List<JavaImport> imports = unmodifiableList(delegate.parse(sourceFile));
+        entries.put(key, new Entry(size, confirmed(modified), digest, imports));
+        misses.increment();
+        return imports;
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Loads the imports stored by earlier runs with the same engine, if any.
+     *
+     * @throws IOException if the cache file is unreadable or corrupt; every file is then parsed again
+     */
+    void load() throws IOException {
+        file.read(this::readEntries, HashMap<String, Entry>::new).forEach(entries::putIfAbsent);
+    }
+
+    /**
+     * Writes the imports of every source file still present, including those only another build parsed.
+     */
+    void save() throws IOException {
+        file.readForMerge(this::readEntries, HashMap<String, Entry>::new).forEach(entries::putIfAbsent);
+        entries.keySet().removeIf(path -> !new File(path).isFile());
+
+        file.write(out -> {
+            final Map<String, Integer> nameIndex = new HashMap<>();
+            final List<String> names = new ArrayList<>();
+            entries.values().forEach(entry -> entry.imports.forEach(imp -> nameIndex.computeIfAbsent(imp.getName(), name -> {
+                names.add(name);
+                return names.size() - 1;
+            })));
+            writeVarInt(out, names.size());
+            for (final String name : names) {
+                out.writeUTF(name);
+            }
+
+            writeVarInt(out, entries.size());
+            for (final Map.Entry<String, Entry> e : entries.entrySet()) {
+                final Entry entry = e.getValue();
+                out.writeUTF(e.getKey());
+                out.writeLong(entry.size);
+                out.writeLong(entry.modified);
+                out.write(entry.digest);
+                writeVarInt(out, entry.imports.size());
+                for (final JavaImport imp : entry.imports) {
+                    writeVarInt(out, nameIndex.get(imp.getName()) << 2 | (imp.isStatic() ? 2 : 0) | (imp.isAsterisk() ? 1 : 0));
+                }
+            }
+        });
+    }
+
+    private Map<String, Entry> readEntries(final DataInputStream in) throws IOException {
+        final String[] names = new String[readVarInt(in)];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = in.readUTF();
+        }
+
+        final int entryCount = readVarInt(in);
+        final Map<String, Entry> loaded = new HashMap<>(entryCount * 2);
+        for (int i = 0; i < entryCount; i++) {
+            final String path = in.readUTF();
+            final long size = in.readLong();
+            final long modified = in.readLong();
+            final byte[] digest = new byte[20];
+            in.readFully(digest);
+
+            final int importCount = readVarInt(in);
+            final List<JavaImport> imports = new ArrayList<>(importCount);
+            for (int j = 0; j < importCount; j++) {
+                final int packed = readVarInt(in);
+                final int index = packed >>> 2;
+                if (index >= names.length) {
+                    throw new IOException("Corrupt import cache: " + cacheFile);
+                }
+                imports.add(new JavaImport(names[index], (packed & 2) != 0, (packed & 1) != 0));
+            }
+            loaded.put(path, new Entry(size, modified, digest, unmodifiableList(imports)));
+        }
+        return loaded;
+    }
+
+    /**
+     * A modification time this close to now may be shared with a later edit of the same size, so it is
+     * not trusted; the next run compares digests instead.
+     */
+    private static long confirmed(final long modified) {
+        return System.currentTimeMillis() - modified < RACY_WINDOW ? UNCONFIRMED : modified;
+    }
+
+    private static byte[] digest(final byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+
+        private final long             size;
+        private final long             modified;
+        private final byte[]           digest;
+        private final List<JavaImport> imports;
+
+        Entry(final long size, final long modified, final byte[] digest, final List<JavaImport> imports) {
+            this.size     = size;
+            this.modified = modified;
+            this.digest   = digest;
+            this.imports  = imports;
+        }
+    }
+}
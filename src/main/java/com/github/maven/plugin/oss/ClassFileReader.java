@@ -0,0 +1,294 @@
+package com.github.maven.plugin.oss;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Lists the classes a compiled class refers to, read straight from its constant pool.
+ * <p>
+ * References are taken from {@code CONSTANT_Class} entries and from every UTF-8 entry shaped like a
+ * descriptor or signature ({@code (...)}, {@code L...;}, {@code [...}), which covers field and method
+ * types, annotations and generic arguments that never appear as a class constant. String literals are
+ * skipped. Each referenced class is reported once per class file, with {@code /} and {@code $} turned
+ * into dots; the class itself is not reported.
+ * <p>
+ * A reader reuses its buffers across files and hands out the name in a shared {@link StringBuilder}, so
+ * reading allocates nothing once the buffers have grown. Instances are not thread-safe.
+ */
+final class ClassFileReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int UTF8                = 1;
+    private static final int INTEGER             = 3;
+    private static final int FLOAT               = 4;
+    private static final int LONG                = 5;
+    private static final int DOUBLE              = 6;
+    private static final int CLASS               = 7;
+    private static final int STRING              = 8;
+    private static final int FIELD_REF           = 9;
+    private static final int METHOD_REF          = 10;
+    private static final int INTERFACE_METHOD_REF = 11;
+    private static final int NAME_AND_TYPE       = 12;
+    private static final int METHOD_HANDLE       = 15;
+    private static final int METHOD_TYPE         = 16;
+    private static final int DYNAMIC             = 17;
+    private static final int INVOKE_DYNAMIC      = 18;
+    private static final int MODULE              = 19;
+    private static final int PACKAGE             = 20;
+
+    private byte[]    buffer  = new byte[16384];
+    private int       length;
+    private int[]     entries = new int[512];
+    private boolean[] literal = new boolean[512];
+
+    // names reported for the current file: offset/length pairs into the buffer, hashed by content
+    private int[] seen  = new int[256];
+    private int   seenCount;
+    private int[] slots = new int[256];
+
+    private final StringBuilder name = new StringBuilder(128);
+
+    /**
+     * Reads {@code classFile} and passes each referenced class name to {@code action}. The name must not
+     * be kept beyond the call.
+     *
+     * @throws IOException if the file cannot be read or is not a class file
+     */
+    void read(final Path classFile, final Consumer<CharSequence> action) throws IOException {
+        try (InputStream in = Files.newInputStream(classFile)) {
+            read(in, action);
+        }
+    }
+
+    /**
+     * Like {@link #read(Path, Consumer)}, for a class file read from {@code in}.
+     */
+    void read(final InputStream in, final Consumer<CharSequence> action) throws IOException {
+        length = 0;
+        for (int n; (n = in.read(buffer, length, buffer.length - length)) != -1; ) {
+            length += n;
+            if (length == buffer.length) {
+                final byte[] grown = new byte[buffer.length * 2];
+                System.arraycopy(buffer, 0, grown, 0, length);
+                buffer = grown;
+            }
+        }
+
+        try {
+            parse(action);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Truncated class file", e);
+        }
+    }
+
+    private void parse(final Consumer<CharSequence> action) throws IOException {
+        if (length < 10 || readInt(0) != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+
+        final int count = readUnsignedShort(8);
+        if (count > entries.length) {
+            entries = new int[Integer.highestOneBit(count) << 1];
+            literal = new boolean[entries.length];
+        }
+        int offset = 10;
+        for (int i = 1; i < count; i++) {
+            entries[i] = offset;
+            literal[i] = false;
+            switch (buffer[offset]) {
+                case UTF8:
+                    offset += 3 + readUnsignedShort(offset + 1);
+                    break;
+                case CLASS:
+                case STRING:
+                case METHOD_TYPE:
+                case MODULE:
+                case PACKAGE:
+                    offset += 3;
+                    break;
+                case METHOD_HANDLE:
+                    offset += 4;
+                    break;
+                case INTEGER:
+                case FLOAT:
+                case FIELD_REF:
+                case METHOD_REF:
+                case INTERFACE_METHOD_REF:
+                case NAME_AND_TYPE:
+                case DYNAMIC:
+                case INVOKE_DYNAMIC:
+                    offset += 5;
+                    break;
+                case LONG:
+                case DOUBLE:
+                    offset += 9;
+                    // the unusable slot after a long or double points at the magic, which has no tag
+                    entries[++i] = 0;
+                    literal[i] = false;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + buffer[offset]);
+            }
+        }
+        if (offset + 6 > length) {
+            throw new IOException("Truncated class file");
+        }
+
+        for (int i = 1; i < count; i++) {
+            if (buffer[entries[i]] == STRING) {
+                literal[readUnsignedShort(entries[i] + 1)] = true;
+            }
+        }
+
+        // the class itself counts as seen, so it is never reported
+        seenCount = 0;
+        Arrays.fill(slots, 0);
+        final int self = entries[readUnsignedShort(entries[readUnsignedShort(offset + 2)] + 1)];
+        remember(self + 3, readUnsignedShort(self + 1));
+
+        for (int i = 1; i < count; i++) {
+            final int entry = entries[i];
+            final int tag = buffer[entry];
+            if (tag == CLASS) {
+                final int utf8 = entries[readUnsignedShort(entry + 1)];
+                final int start = utf8 + 3;
+                final int end = start + readUnsignedShort(utf8 + 1);
+                if (start < end && buffer[start] == '[') {
+                    descriptor(start, end, action);
+                } else {
+                    report(start, end, action);
+                }
+            } else if (tag == UTF8 && !literal[i]) {
+                final int start = entry + 3;
+                final int end = start + readUnsignedShort(entry + 1);
+                if (isDescriptor(start, end)) {
+                    descriptor(start, end, action);
+                }
+            }
+        }
+    }
+
+    private boolean isDescriptor(final int start, final int end) {
+        if (end - start < 2) {
+            return false;
+        }
+        final byte first = buffer[start];
+        if (first == '(') {
+            return true;
+        }
+        final byte last = buffer[end - 1];
+        // generic signatures start with '<'; special method names like <init> end with '>'
+        return first == '<' ? last != '>' : (first == 'L' || first == '[') && last == ';';
+    }
+
+    /**
+     * Reports every {@code L<name>;} (or {@code L<name><...>}) in a descriptor or generic signature.
+     */
+    private void descriptor(final int start, final int end, final Consumer<CharSequence> action) {
+        int i = start;
+        while (i < end) {
+            if (buffer[i] == 'L') {
+                final int nameStart = ++i;
+                while (i < end && buffer[i] != ';' && buffer[i] != '<') {
+                    i++;
+                }
+                report(nameStart, i, action);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private void report(final int start, final int end, final Consumer<CharSequence> action) {
+        if (start == end || !remember(start, end - start)) {
+            return;
+        }
+
+        name.setLength(0);
+        for (int i = start; i < end; ) {
+            final int b = buffer[i] & 0xFF;
+            final char c;
+            if (b < 0x80) {
+                c = (char) b;
+                i++;
+            } else if ((b & 0xE0) == 0xC0) {
+                c = (char) ((b & 0x1F) << 6 | buffer[i + 1] & 0x3F);
+                i += 2;
+            } else {
+                c = (char) ((b & 0x0F) << 12 | (buffer[i + 1] & 0x3F) << 6 | buffer[i + 2] & 0x3F);
+                i += 3;
+            }
+            name.append(c == '/' || c == '$' ? '.' : c);
+        }
+        action.accept(name);
+    }
+
+    /**
+     * @return whether the name was not seen before in this file
+     */
+    private boolean remember(final int start, final int nameLength) {
+        int h = 0;
+        for (int i = start; i < start + nameLength; i++) {
+            h = 31 * h + buffer[i];
+        }
+        final int mask = slots.length - 1;
+        int slot = (h ^ (h >>> 16)) & mask;
+        for (int k; (k = slots[slot] - 1) >= 0; slot = (slot + 1) & mask) {
+            if (seen[k + 1] == nameLength && regionEquals(seen[k], start, nameLength)) {
+                return false;
+            }
+        }
+
+        if (seenCount + 2 > seen.length) {
+            final int[] grown = new int[seen.length * 2];
+            System.arraycopy(seen, 0, grown, 0, seenCount);
+            seen = grown;
+        }
+        seen[seenCount] = start;
+        seen[seenCount + 1] = nameLength;
+        slots[slot] = seenCount + 1;
+        seenCount += 2;
+        if (seenCount > slots.length / 2) {
+            rehash(slots.length * 2);
+        }
+        return true;
+    }
+
+    private void rehash(final int capacity) {
+        slots = new int[capacity];
+        final int mask = capacity - 1;
+        for (int k = 0; k < seenCount; k += 2) {
+            int h = 0;
+            for (int i = seen[k]; i < seen[k] + seen[k + 1]; i++) {
+                h = 31 * h + buffer[i];
+            }
+            int slot = (h ^ (h >>> 16)) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = k + 1;
+        }
+    }
+
+    private boolean regionEquals(final int left, final int right, final int regionLength) {
+        for (int i = 0; i < regionLength; i++) {
+            if (buffer[left + i] != buffer[right + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int readUnsignedShort(final int offset) {
+        return (buffer[offset] & 0xFF) << 8 | buffer[offset + 1] & 0xFF;
+    }
+
+    private int readInt(final int offset) {
+        return readUnsignedShort(offset) << 16 | readUnsignedShort(offset + 2);
+    }
+}
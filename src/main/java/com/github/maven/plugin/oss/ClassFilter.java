@@ -0,0 +1,82 @@
+package com.github.maven.plugin.oss;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * The dependency classes a set of uses can resolve to under the rules of {@link DependencyIndex#resolve}:
+ * every imported or referenced class name, the class owning a statically imported member, and the
+ * classes of packages imported with a non-static wildcard. Dependency classes outside the filter can
+ * never be counted, so JAR scanning skips them.
+ * <p>
+ * Names are matched as {@link CharSequence}s, so callers can probe with a view over the bytes of a ZIP
+ * entry or an index file.
+ */
+final class ClassFilter {
+
+    static final ClassFilter ALL = new ClassFilter(null, null);
+
+    private final NameTable classes;
+    private final NameTable packages;
+
+    private ClassFilter(final NameTable classes, final NameTable packages) {
+        this.classes  = classes;
+        this.packages = packages;
+    }
+
+    static ClassFilter of(final Collection<? extends Collection<JavaImport>> uses) {
+        return of(uses, Collections.<ClassReferences>emptyList());
+    }
+
+    /**
+     * @param references classes referenced from compiled classes, each resolved like a single-type import
+     */
+    static ClassFilter of(
+        final Collection<? extends Collection<JavaImport>> uses, final Collection<ClassReferences> references) {
+
+        final NameTable classes = new NameTable(1024);
+        final NameTable packages = new NameTable(64);
+        for (final ClassReferences projectReferences : references) {
+            projectReferences.forEach((name, count) -> classes.add(name, 0, name.length()));
+        }
+        for (final Collection<JavaImport> projectUses : uses) {
+            for (final JavaImport use : projectUses) {
+                final String name = use.getName();
+                classes.add(name, 0, name.length());
+                if (use.isAsterisk() && !use.isStatic()) {
+                    packages.add(name, 0, name.length());
+                } else if (use.isStatic() && !use.isAsterisk()) {
+                    final int member = name.lastIndexOf('.');
+                    if (member > 0) {
+                        classes.add(name, 0, member);
+                    }
+                }
+            }
+        }
+        classes.trimToSize();
+        packages.trimToSize();
+        return new ClassFilter(classes, packages);
+    }
+
+    /**
+     * @param className dotted class name, nested classes separated by dots as well
+     */
+    boolean accepts(final CharSequence className) {
+        if (classes == null) {
+            return true;
+        }
+        final int length = className.length();
+        if (classes.indexOf(className, 0, length) >= 0) {
+            return true;
+        }
+        int dot = length - 1;
+        while (dot > 0 && className.charAt(dot) != '.') {
+            dot--;
+        }
+        return dot > 0 && packages.indexOf(className, 0, dot) >= 0;
+    }
+
+    boolean acceptsAll() {
+        return classes == null;
+    }
+}
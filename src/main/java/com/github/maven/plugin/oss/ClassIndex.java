@@ -0,0 +1,624 @@
+package com.github.maven.plugin.oss;
+
+import static com.github.maven.plugin.oss.Utility.writeAtomically;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import org.apache.maven.artifact.Artifact;
+
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.ZipException;
+
+/**
+ * Fully qualified class names per dependency JAR, persisted so each released JAR is scanned once per machine.
+ * <p>
+ * Index files live under {@code <directory>/<groupId>/<artifactId>/<version>/} and are keyed by the
+ * artifact coordinates plus the JAR's SHA-1; the JAR size and modification time short-cut the digest
+ * check. Lookups run against a memory-mapped file holding the class names sorted by their UTF-8 bytes.
+ * <p>
+ * File layout (version 1): magic, version, JAR size, JAR modification time, JAR SHA-1, class count,
+ * name offsets, names length, names.
+ * <p>
+ * JARs are read through their ZIP central directory only. {@link #classNames(Artifact, ClassFilter)}
+ * materializes just the classes a {@link ClassFilter} accepts: it filters an index already in memory or an
+ * index file that matches the JAR's size and modification time, and otherwise filters the central directory
+ * without digesting the JAR or writing an index. Full indexes are only built for {@link #classes(Artifact)},
+ * e.g. by the {@code index-classes} goal.
+ */
+final class ClassIndex {
+
+    static final int VERSION = 1;
+
+    private static final int MAGIC  = 0x4F535343; // "OSSC"
+    private static final int HEADER = 4 + 4 + 8 + 8 + 20 + 4;
+
+    private static final int END_SIGNATURE = 0x06054B50;
+    private static final int END_HEADER    = 22;
+    private static final int CEN_SIGNATURE = 0x02014B50;
+    private static final int CEN_HEADER    = 46;
+
+    private final File directory;
+
+    private final Map<String, Entry> loaded  = new ConcurrentHashMap<>();
+    private final LongAdder          scanned = new LongAdder();
+    private final LongAdder          reused  = new LongAdder();
+    private final LongAdder          partial = new LongAdder();
+    private final LongAdder          unused  = new LongAdder();
+
+    private volatile long retained = System.currentTimeMillis();
+
+    /**
+     * @param directory where index files are stored; {@code null} keeps the index in memory for this run only
+     */
+    ClassIndex(final File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the classes of {@code artifact}, or an empty entry if it is not a JAR
+     */
+    Entry classes(final Artifact artifact) throws IOException {
+        final File jar = artifact.getFile();
+        if (jar == null || !jar.getName().endsWith(".jar")) {
+            return Entry.EMPTY;
+        }
+
+        final String key = jar.getAbsolutePath();
+        final Entry entry = loaded.get(key);
+        if (entry != null) {
+            return entry;
+        }
+
+        final Entry created = load(artifact, jar);
+        final Entry existing = loaded.putIfAbsent(key, created);
+        return existing != null ? existing : created;
+    }
+
+    /**
+     * @return the classes of {@code artifact} that {@code filter} accepts, or an empty list if it is not a JAR
+     */
+    List<String> classNames(final Artifact artifact, final ClassFilter filter) throws IOException {
+        final File jar = artifact.getFile();
+        if (jar == null || !jar.getName().endsWith(".jar")) {
+            return Collections.emptyList();
+        }
+
+        final List<String> classNames;
+        final Entry entry = filter.acceptsAll() ? classes(artifact) : indexed(artifact, jar);
+        if (entry == null) {
+            classNames = scanJar(jar, filter);
+            partial.increment();
+        } else {
+            classNames = new ArrayList<>();
+            entry.forEach(filter, classNames::add);
+        }
+        if (classNames.isEmpty()) {
+            unused.increment();
+        }
+        return classNames;
+    }
+
+    /**
+     * Forgets the classes of JARs other than {@code jars} and of JARs modified since the last call, so a
+     * resident watch only keeps current dependencies in memory. Modification times within two seconds of
+     * the last call count as modified, as they may be rounded down.
+     */
+    void retain(final Collection<File> jars) {
+        final long since = retained - 2000L;
+        retained = System.currentTimeMillis();
+        final Set<String> unchanged = new HashSet<>();
+        for (final File jar : jars) {
+            if (jar.lastModified() < since) {
+                unchanged.add(jar.getAbsolutePath());
+            }
+        }
+        loaded.keySet().retainAll(unchanged);
+    }
+
+    /**
+     * @return number of JARs read this run
+     */
+    long getScanned() {
+        return scanned.sum();
+    }
+
+    /**
+     * @return number of JARs served from a persisted index this run
+     */
+    long getReused() {
+        return reused.sum();
+    }
+
+    /**
+     * @return number of JARs of which only the classes passing a filter were read this run
+     */
+    long getPartial() {
+        return partial.sum();
+    }
+
+    /**
+     * @return number of JARs none of whose classes passed the filter this run
+     */
+    long getUnused() {
+        return unused.sum();
+    }
+
+    /**
+     * @return the classes of {@code jar} if they are in memory or in an index file matching its size and
+     *         modification time, or {@code null} if only a scan or a digest could tell
+     */
+    private Entry indexed(final Artifact artifact, final File jar) throws IOException {
+        final String key = jar.getAbsolutePath();
+        final Entry entry = loaded.get(key);
+        if (entry != null || directory == null) {
+            return entry;
+        }
+
+        final MappedByteBuffer mapped = map(indexFile(artifact));
+        final Entry stored = mapped == null ? null : Entry.map(mapped);
+        if (stored == null) {
+            return null;
+        }
+        final BasicFileAttributes attributes = Files.readAttributes(jar.toPath(), BasicFileAttributes.class);
+        if (mapped.getLong(8) != attributes.size() || mapped.getLong(16) != attributes.lastModifiedTime().toMillis()) {
+            return null;
+        }
+        reused.increment();
+        final Entry existing = loaded.putIfAbsent(key, stored);
+        return existing != null ? existing : stored;
+    }
+
+    private Entry load(final Artifact artifact, final File jar) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(jar.toPath(), BasicFileAttributes.class);
+        final long size = attributes.size();
+        final long modified = attributes.lastModifiedTime().toMillis();
+
+        if (directory == null) {
+            scanned.increment();
+            return Entry.of(scanJar(jar));
+        }
+
+        final Path indexFile = indexFile(artifact);
+        byte[] digest = null;
+        final MappedByteBuffer mapped = map(indexFile);
+        if (mapped != null) {
+            final Entry entry = Entry.map(mapped);
+            if (entry != null) {
+                final byte[] indexedDigest = new byte[20];
+                for (int i = 0; i < indexedDigest.length; i++) {
+                    indexedDigest[i] = mapped.get(24 + i);
+                }
+                final boolean unchanged = mapped.getLong(8) == size && mapped.getLong(16) == modified;
+                if (unchanged || Arrays.equals(indexedDigest, digest = digest(jar))) {
+                    reused.increment();
+                    return entry;
+                }
+            }
+        }
+
+        if (digest == null) {
+            digest = digest(jar);
+        }
+        final List<String> classNames = scanJar(jar);
+        scanned.increment();
+        write(indexFile, size, modified, digest, classNames);
+        return Entry.of(classNames);
+    }
+
+    /**
+     * @return the index file mapped into memory, or {@code null} if there is none
+     */
+    private static MappedByteBuffer map(final Path indexFile) throws IOException {
+        if (!Files.isRegularFile(indexFile)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private Path indexFile(final Artifact artifact) {
+        final String classifier = artifact.getClassifier() == null ? "" : "-" + artifact.getClassifier();
+        return directory.toPath()
+            .resolve(artifact.getGroupId())
+            .resolve(artifact.getArtifactId())
+            .resolve(artifact.getVersion())
+            .resolve(artifact.getArtifactId() + "-" + artifact.getVersion() + classifier + ".idx");
+    }
+
+    private static void write(
+        final Path indexFile, final long size, final long modified, final byte[] digest,
+        final List<String> classNames) throws IOException {
+
+        final byte[][] names = Entry.sortedNames(classNames);
+        writeAtomically(indexFile, stream -> {
+            final DataOutputStream out = new DataOutputStream(stream);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(size);
+            out.writeLong(modified);
+            out.write(digest);
+            out.writeInt(names.length);
+            int offset = 0;
+            for (final byte[] name : names) {
+                out.writeInt(offset);
+                offset += name.length;
+            }
+            out.writeInt(offset);
+            for (final byte[] name : names) {
+                out.write(name);
+            }
+            out.flush();
+        });
+    }
+
+    /**
+     * Lists the classes in a JAR, with {@code /} and {@code $} separators turned into dots.
+     */
+    static List<String> scanJar(final File jar) throws IOException {
+        return scanJar(jar, ClassFilter.ALL);
+    }
+
+    /**
+     * Lists the classes in a JAR that {@code filter} accepts. Only the ZIP central directory is read, and
+     * names are turned into strings only once they pass the filter.
+     */
+    static List<String> scanJar(final File jar, final ClassFilter filter) throws IOException {
+        final ByteBuffer directory;
+        try (FileChannel channel = FileChannel.open(jar.toPath(), StandardOpenOption.READ)) {
+            directory = centralDirectory(channel);
+        }
+        if (directory == null) {
+            return enumerateJar(jar, filter);
+        }
+
+        final List<String> classNames = new ArrayList<>();
+        final Name name = new Name(directory);
+        int entry = 0;
+        while (entry + CEN_HEADER <= directory.limit()) {
+            if (directory.getInt(entry) != CEN_SIGNATURE) {
+                throw new ZipException("Corrupt central directory: " + jar);
+            }
+            final int nameLength = directory.getShort(entry + 28) & 0xFFFF;
+            final int start = entry + CEN_HEADER;
+            if (nameLength > 6 && name.reset(start + nameLength - 6, 6).isClassSuffix()) {
+                name.reset(start, nameLength - 6);
+                if (name.isAccepted(filter)) {
+                    classNames.add(name.toString());
+                }
+            }
+            entry = start + nameLength
+                + (directory.getShort(entry + 30) & 0xFFFF)
+                + (directory.getShort(entry + 32) & 0xFFFF);
+        }
+        return classNames;
+    }
+
+    /**
+     * @return the central directory of the ZIP file, or {@code null} for ZIP64 archives
+     */
+    private static ByteBuffer centralDirectory(final FileChannel channel) throws IOException {
+        final long size = channel.size();
+        final int tailLength = (int) Math.min(size, END_HEADER + 0xFFFF);
+        final ByteBuffer tail = read(channel, size - tailLength, tailLength);
+        for (int end = tailLength - END_HEADER; end >= 0; end--) {
+            if (tail.getInt(end) == END_SIGNATURE) {
+                final int entries = tail.getShort(end + 10) & 0xFFFF;
+                final long length = tail.getInt(end + 12) & 0xFFFFFFFFL;
+                final long offset = tail.getInt(end + 16) & 0xFFFFFFFFL;
+                if (entries == 0xFFFF || length == 0xFFFFFFFFL || offset == 0xFFFFFFFFL) {
+                    return null;
+                }
+                // measured back from the end record, so data prepended to the archive does not matter
+                final long start = size - tailLength + end - length;
+                if (start < 0) {
+                    throw new ZipException("Corrupt end of central directory");
+                }
+                return read(channel, start, (int) length);
+            }
+        }
+        throw new ZipException("No end of central directory");
+    }
+
+    private static ByteBuffer read(final FileChannel channel, final long position, final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of ZIP file");
+            }
+        }
+        return buffer;
+    }
+
+    private static List<String> enumerateJar(final File jar, final ClassFilter filter) throws IOException {
+        try (JarFile jarFile = new JarFile(jar)) {
+            final List<String> classNames = new ArrayList<>();
+            final Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                final String name = entries.nextElement().getName();
+                if (name.endsWith(".class")) {
+                    final String className = toClassName(name, 0, name.length() - 6);
+                    if (filter.accepts(className)) {
+                        classNames.add(className);
+                    }
+                }
+            }
+            return classNames;
+        }
+    }
+
+    static String toClassName(final String entryName, final int start, final int end) {
+        final char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            final char c = entryName.charAt(i);
+            chars[i - start] = c == '/' || c == '$' ? '.' : c;
+        }
+        return new String(chars);
+    }
+
+    private static byte[] digest(final File file) throws IOException {
+        final MessageDigest sha1;
+        try {
+            sha1 = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file.toPath()), sha1)) {
+            final byte[] buffer = new byte[65536];
+            while (in.read(buffer) != -1) {
+                // digesting
+            }
+        }
+        return sha1.digest();
+    }
+
+    /**
+     * Sorted class names of one JAR, either memory-mapped from an index file or held on the heap.
+     */
+    static final class Entry {
+
+        static final Entry EMPTY = new Entry(ByteBuffer.allocate(0), 0, 0, 0);
+
+        private final ByteBuffer buffer;
+        private final int        count;
+        private final int        offsets;
+        private final int        names;
+
+        private Entry(final ByteBuffer buffer, final int count, final int offsets, final int names) {
+            this.buffer  = buffer;
+            this.count   = count;
+            this.offsets = offsets;
+            this.names   = names;
+        }
+
+        int size() {
+            return count;
+        }
+
+        boolean contains(final String className) {
+            return indexOf(className.getBytes(UTF_8)) >= 0;
+        }
+
+        void forEach(final Consumer<String> action) {
+            for (int i = 0; i < count; i++) {
+                action.accept(new String(name(i), UTF_8));
+            }
+        }
+
+        void forEach(final ClassFilter filter, final Consumer<String> action) {
+            if (filter.acceptsAll()) {
+                forEach(action);
+                return;
+            }
+            final Name name = new Name(buffer);
+            for (int i = 0; i < count; i++) {
+                final int start = names + buffer.getInt(offsets + i * 4);
+                name.reset(start, names + buffer.getInt(offsets + (i + 1) * 4) - start);
+                if (name.isAccepted(filter)) {
+                    action.accept(name.toString());
+                }
+            }
+        }
+
+        List<String> classNames() {
+            final List<String> classNames = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                classNames.add(new String(name(i), UTF_8));
+            }
+            return classNames;
+        }
+
+        private int indexOf(final byte[] key) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final int cmp = compare(mid, key);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        private int compare(final int index, final byte[] key) {
+            final int start = names + buffer.getInt(offsets + index * 4);
+            final int end = names + buffer.getInt(offsets + (index + 1) * 4);
+            final int length = Math.min(end - start, key.length);
+            for (int i = 0; i < length; i++) {
+                final int cmp = (buffer.get(start + i) & 0xFF) - (key[i] & 0xFF);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return (end - start) - key.length;
+        }
+
+        private byte[] name(final int index) {
+            final int start = names + buffer.getInt(offsets + index * 4);
+            final int end = names + buffer.getInt(offsets + (index + 1) * 4);
+            final byte[] name = new byte[end - start];
+            for (int i = 0; i < name.length; i++) {
+                name[i] = buffer.get(start + i);
+            }
+            return name;
+        }
+
+        /**
+         * Lays the names out in the index file format, in memory.
+         */
+        static Entry of(final List<String> classNames) {
+            final byte[][] sorted = sortedNames(classNames);
+            int length = 0;
+            for (final byte[] name : sorted) {
+                length += name.length;
+            }
+
+            final ByteBuffer buffer = ByteBuffer.allocate(HEADER + (sorted.length + 1) * 4 + length);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(0).putLong(0).put(new byte[20]).putInt(sorted.length);
+            int offset = 0;
+            for (final byte[] name : sorted) {
+                buffer.putInt(offset);
+                offset += name.length;
+            }
+            buffer.putInt(offset);
+            for (final byte[] name : sorted) {
+                buffer.put(name);
+            }
+            return map(buffer);
+        }
+
+        /**
+         * @return the entry stored in {@code buffer}, or {@code null} if it is not a valid index file
+         */
+        static Entry map(final ByteBuffer buffer) {
+            try {
+                if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                    return null;
+                }
+                final int count = buffer.getInt(HEADER - 4);
+                final int offsets = HEADER;
+                final int names = offsets + (count + 1) * 4;
+                if (count < 0 || names < 0 || names + buffer.getInt(names - 4) != buffer.limit()) {
+                    return null;
+                }
+                return new Entry(buffer, count, offsets, names);
+            } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+                return null;
+            }
+        }
+
+        private static byte[][] sortedNames(final List<String> classNames) {
+            return classNames.stream()
+                .distinct()
+                .map(name -> name.getBytes(UTF_8))
+                .sorted(Entry::compareBytes)
+                .toArray(byte[][]::new);
+        }
+
+        private static int compareBytes(final byte[] left, final byte[] right) {
+            final int length = Math.min(left.length, right.length);
+            for (int i = 0; i < length; i++) {
+                final int cmp = (left[i] & 0xFF) - (right[i] & 0xFF);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return left.length - right.length;
+        }
+    }
+
+    /**
+     * A class name read in place from a buffer of UTF-8 bytes, with {@code /} and {@code $} read as dots.
+     */
+    private static final class Name implements CharSequence {
+
+        private final ByteBuffer buffer;
+        private int              start;
+        private int              length;
+
+        Name(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        Name reset(final int start, final int length) {
+            this.start  = start;
+            this.length = length;
+            return this;
+        }
+
+        boolean isClassSuffix() {
+            return length == 6 && buffer.get(start) == '.' && buffer.get(start + 1) == 'c' && buffer.get(start + 2) == 'l'
+                && buffer.get(start + 3) == 'a' && buffer.get(start + 4) == 's' && buffer.get(start + 5) == 's';
+        }
+
+        boolean isAccepted(final ClassFilter filter) {
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(start + i) < 0) {
+                    // not ASCII: decode properly before matching
+                    return filter.accepts(toString());
+                }
+            }
+            return filter.accepts(this);
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            final byte b = buffer.get(start + index);
+            return b == '/' || b == '$' ? '.' : (char) b;
+        }
+
+        @Override
+        public CharSequence subSequence(final int from, final int to) {
+            return toString().substring(from, to);
+        }
+
+        @Override
+        public String toString() {
+            final byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = buffer.get(start + i);
+            }
+            final String name = new String(bytes, UTF_8);
+            return toClassName(name, 0, name.length());
+        }
+    }
+}
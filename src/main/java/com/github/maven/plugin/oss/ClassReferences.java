@@ -0,0 +1,62 @@
+package com.github.maven.plugin.oss;
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * The classes referenced by a set of class files, each name stored once in a {@link NameTable} together
+ * with the number of class files referring to it. Names reported by a {@link ClassFileReader} are added
+ * straight from its shared buffer, so no {@code String} is allocated per reference. Instances are not
+ * thread-safe; parallel readers each fill their own and {@link #addAll} them.
+ */
+final class ClassReferences {
+
+    private final NameTable     names  = new NameTable(256);
+    private final StringBuilder name   = new StringBuilder(128);
+    private int[]               counts = new int[256];
+
+    /**
+     * Counts one reference to {@code className}.
+     */
+    void add(final CharSequence className) {
+        add(className, 1);
+    }
+
+    /**
+     * Adds the references counted by {@code other}.
+     */
+    ClassReferences addAll(final ClassReferences other) {
+        for (int i = 0; i < other.names.size(); i++) {
+            other.names.copy(i, other.name);
+            add(other.name, other.counts[i]);
+        }
+        return this;
+    }
+
+    /**
+     * @return number of distinct classes referenced
+     */
+    int size() {
+        return names.size();
+    }
+
+    /**
+     * Passes each referenced class name and its reference count to {@code action}. The name must not be
+     * kept beyond the call.
+     */
+    void forEach(final ObjIntConsumer<CharSequence> action) {
+        for (int i = 0; i < names.size(); i++) {
+            names.copy(i, name);
+            action.accept(name, counts[i]);
+        }
+    }
+
+    private void add(final CharSequence className, final int count) {
+        final int index = names.add(className, 0, className.length());
+        if (index == counts.length) {
+            final int[] grown = new int[counts.length * 2];
+            System.arraycopy(counts, 0, grown, 0, counts.length);
+            counts = grown;
+        }
+        counts[index] += count;
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.maven.plugin.oss;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the report as RFC 4180 CSV with a header row: one row per open issue, and a single row without
+ * issue columns for a section that has no open issues or whose issues are not known.
+ */
+final class CsvReportSink implements ReportSink {
+
+    private static final String[] HEADER = {
+        "section", "artifacts", "imports", "issue_system", "issue_site", "status",
+        "title", "url", "tags", "created", "last_activity"
+    };
+
+    private final Writer out;
+
+    CsvReportSink(final Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void begin(final String title) throws IOException {
+        row(HEADER);
+        out.flush();
+    }
+
+    @Override
+    public void section(final ReportSection section) throws IOException {
+        final String artifacts = section.getArtifacts().stream()
+            .map(Pair::getLeft)
+            .collect(Collectors.joining(" "));
+        final String imports = String.valueOf(section.getImports());
+        final String system = section.getIssueSite() == null ? "" : section.getIssueSite().getLeft();
+        final String site = section.getIssueSite() == null ? "" : section.getIssueSite().getRight();
+        final String status = section.getStatus().name().toLowerCase();
+
+        final IssueSnapshot snapshot = section.getSnapshot();
+        if (snapshot == null || snapshot.getOpenIssues().isEmpty()) {
+            row(section.getName(), artifacts, imports, system, site, status, "", "", "", "", "");
+        } else {
+            for (final Issue issue : snapshot.getOpenIssues()) {
+                row(section.getName(), artifacts, imports, system, site, status,
+                    issue.getTitle(), issue.getUrl(), String.join(", ", issue.getTags()),
+                    date(issue.getCreated()), date(issue.getLastActivity()));
+            }
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private static String date(final Date date) {
+        return date == null ? "" : DateTimeFormatter.ISO_INSTANT.format(date.toInstant());
+    }
+
+    private void row(final String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            final String field = fields[i] == null ? "" : fields[i];
+            if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+                out.append(field);
+            } else {
+                out.append('"').append(field.replace("\"", "\"\"")).append('"');
+            }
+        }
+        out.append("\r\n");
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.maven.plugin.oss;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps fully qualified class names and packages to the dependency that declares them.
+ * <p>
+ * Names are split at their last dot: package names are interned once in a global table and each
+ * package keeps its simple class names in a Latin-1 (or, if needed, char) pool with an open-addressed hash over offsets, so no
+ * {@code String} is retained per class. Dependencies are referenced by primitive {@code int} ids.
+ * Nested classes ({@code Outer$Inner}) are stored under the pseudo-package of their outer class,
+ * which lets {@code import a.Outer.*} resolve like a package. As with the map it replaces, the first
+ * dependency to declare a name keeps it.
+ *
+ * @param <T> dependency type
+ */
+final class DependencyIndex<T> {
+
+    private final List<T>         values   = new ArrayList<>();
+    private final Map<T, Integer> valueIds = new HashMap<>();
+
+    private final NameTable       packages = new NameTable(1024);
+    private final ArrayList<Classes> classes = new ArrayList<>();
+    private int                   classCount;
+
+    /**
+     * Adds {@code className} unless an earlier dependency already declared it.
+     */
+    void add(final String className, final T value) {
+        final int id = valueIds.computeIfAbsent(value, v -> {
+            values.add(v);
+            return values.size() - 1;
+        });
+
+        final int dot = className.lastIndexOf('.');
+        final int packageIndex = packages.add(className, 0, Math.max(dot, 0));
+        if (packageIndex == classes.size()) {
+            classes.add(new Classes(id));
+        }
+        if (classes.get(packageIndex).add(className, dot + 1, className.length(), id)) {
+            classCount++;
+        }
+    }
+
+    /**
+     * @return the dependency declaring {@code className}, or {@code null}
+     */
+    T findClass(final CharSequence className) {
+        return valueOf(classId(className, className.length()));
+    }
+
+    /**
+     * @return the first dependency declaring classes in {@code packageName}, or {@code null}
+     */
+    T findPackage(final String packageName) {
+        final int packageIndex = packages.indexOf(packageName, 0, packageName.length());
+        return packageIndex < 0 ? null : values.get(classes.get(packageIndex).owner);
+    }
+
+    /**
+     * Resolves an import declaration to a dependency.
+     * <ul>
+     *   <li>{@code import a.B} &rarr; class {@code a.B}</li>
+     *   <li>{@code import a.*} &rarr; package {@code a}, or class {@code a} for nested-class wildcards</li>
+     *   <li>{@code import static a.B.m} &rarr; class {@code a.B.m} if it is a nested class, else class {@code a.B}</li>
+     *   <li>{@code import static a.B.*} &rarr; class {@code a.B}</li>
+     * </ul>
+     */
+    T resolve(final JavaImport imp) {
+        final String name = imp.getName();
+        if (imp.isAsterisk()) {
+            if (!imp.isStatic()) {
+                final T inPackage = findPackage(name);
+                if (inPackage != null) {
+                    return inPackage;
+                }
+            }
+            return findClass(name);
+        }
+
+        final int id = classId(name, name.length());
+        if (id >= 0 || !imp.isStatic()) {
+            return valueOf(id);
+        }
+        final int member = name.lastIndexOf('.');
+        return member < 0 ? null : valueOf(classId(name, member));
+    }
+
+    int size() {
+        return classCount;
+    }
+
+    /**
+     * Releases spare capacity once all names are added; further additions remain possible.
+     */
+    void trimToSize() {
+        packages.trimToSize();
+        classes.forEach(Classes::trimToSize);
+        classes.trimToSize();
+    }
+
+    private int classId(final CharSequence name, final int end) {
+        int dot = end - 1;
+        while (dot >= 0 && name.charAt(dot) != '.') {
+            dot--;
+        }
+        final int packageIndex = packages.indexOf(name, 0, Math.max(dot, 0));
+        return packageIndex < 0 ? -1 : classes.get(packageIndex).find(name, dot + 1, end);
+    }
+
+    private T valueOf(final int id) {
+        return id < 0 ? null : values.get(id);
+    }
+
+    private static final class Classes {
+
+        private final int       owner;
+        private final NameTable names = new NameTable(4);
+        private int[]           ids   = new int[4];
+
+        Classes(final int owner) {
+            this.owner = owner;
+        }
+
+        boolean add(final CharSequence s, final int from, final int to, final int id) {
+            final int size = names.size();
+            final int index = names.add(s, from, to);
+            if (index < size) {
+                return false;
+            }
+            if (index == ids.length) {
+                ids = grow(ids, ids.length * 2);
+            }
+            ids[index] = id;
+            return true;
+        }
+
+        int find(final CharSequence s, final int from, final int to) {
+            final int index = names.indexOf(s, from, to);
+            return index < 0 ? -1 : ids[index];
+        }
+
+        void trimToSize() {
+            names.trimToSize();
+            ids = grow(ids, names.size());
+        }
+    }
+
+    private static int[] grow(final int[] array, final int length) {
+        final int[] copy = new int[length];
+        System.arraycopy(array, 0, copy, 0, Math.min(array.length, length));
+        return copy;
+    }
+}
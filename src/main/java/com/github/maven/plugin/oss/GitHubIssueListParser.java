@@ -0,0 +1,286 @@
+package com.github.maven.plugin.oss;
+
+import static java.util.regex.Pattern.compile;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.jsoup.parser.Parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the issue rows and state counts of a GitHub issue list page while it is scanned by an
+ * {@link HtmlScanner}, without building a document.
+ * <p>
+ * Rows are {@code li.js-issue-row} elements: the title and link come from their
+ * {@code a.js-navigation-open}, the tags from their {@code a.IssueLabel}s and the creation time from
+ * their first {@code relative-time}. The state counts are read from the text of {@code div.states}, and
+ * an {@code a.next_page} or {@code a[rel=next]} marks that the list goes on. Text is whitespace-normalized and entity-decoded the way the DOM text of those elements would be. A parser
+ * keeps its buffers between pages and is not thread-safe.
+ */
+final class GitHubIssueListParser implements HtmlScanner.Handler {
+
+    private static final Pattern STATE_COUNT = compile("(?<count>[0-9,]+) (?<type>(Open|Closed))");
+
+    private final HtmlScanner   scanner = new HtmlScanner();
+    private final StringBuilder states  = new StringBuilder();
+    private final StringBuilder title   = new StringBuilder();
+    private final StringBuilder label   = new StringBuilder();
+
+    private String      baseURI;
+    private Runnable    onNextPage;
+    private List<Issue> issues;
+    private boolean     nextPage;
+
+    private int         statesDepth;
+    private int         rowDepth;
+    private boolean     inTitle;
+    private boolean     inLabel;
+    private String      href;
+    private Set<String> tags;
+    private Date        created;
+
+    Page parse(final Reader in, final String baseURI) throws IOException {
+        return parse(in, baseURI, () -> { });
+    }
+
+    /**
+     * @param baseURI    scheme and authority issue links are relative to
+     * @param onNextPage run as soon as the link to the next page is scanned, before the rest of the page
+     */
+    Page parse(final Reader in, final String baseURI, final Runnable onNextPage) throws IOException {
+        this.baseURI = baseURI;
+        this.onNextPage = onNextPage;
+        this.issues = new ArrayList<>();
+        nextPage = false;
+        states.setLength(0);
+        statesDepth = 0;
+        rowDepth = 0;
+        inTitle = false;
+        inLabel = false;
+
+        scanner.scan(in, this);
+
+        final List<Pair<String, Integer>> stateCounts = new ArrayList<>();
+        final Matcher stateCountMatcher = STATE_COUNT.matcher(states);
+        while (stateCountMatcher.find()) {
+            stateCounts.add(Pair.of(stateCountMatcher.group("type"),
+                Integer.valueOf(stateCountMatcher.group("count").replace(",", ""))));
+        }
+        final Page page = new Page(issues, stateCounts, nextPage);
+        this.onNextPage = null;
+        this.issues = null;
+        return page;
+    }
+
+    @Override
+    public void startTag(final CharSequence name, final HtmlScanner.Attributes attributes) {
+        if (is(name, "div")) {
+            if (statesDepth > 0) {
+                statesDepth++;
+            } else if (attributes.hasClass("states")) {
+                statesDepth = 1;
+            }
+        } else if (is(name, "li")) {
+            if (rowDepth > 0) {
+                rowDepth++;
+            } else if (attributes.hasClass("js-issue-row")) {
+                rowDepth = 1;
+                title.setLength(0);
+                href = null;
+                tags = new HashSet<>();
+                created = null;
+            }
+        } else if (rowDepth > 0 && is(name, "a")) {
+            if (href == null && attributes.hasClass("js-navigation-open")) {
+                final CharSequence link = attributes.get("href");
+                href = link == null ? "" : link.toString();
+                inTitle = true;
+            } else if (attributes.hasClass("IssueLabel")) {
+                label.setLength(0);
+                inLabel = true;
+            }
+        } else if (!nextPage && is(name, "a") && (attributes.hasClass("next_page") || isNext(attributes.get("rel")))) {
+            nextPage = true;
+            onNextPage.run();
+        } else if (rowDepth > 0 && created == null && is(name, "relative-time")) {
+            final CharSequence datetime = attributes.get("datetime");
+            if (datetime != null) {
+                try {
+                    created = Date.from(Instant.parse(datetime));
+                } catch (DateTimeParseException e) {
+                    // shown without a date
+                }
+            }
+        }
+    }
+
+    @Override
+    public void endTag(final CharSequence name) {
+        if (statesDepth > 0 && is(name, "div")) {
+            statesDepth--;
+        } else if (rowDepth > 0 && is(name, "li")) {
+            rowDepth--;
+            if (rowDepth == 0 && href != null) {
+                issues.add(new Issue(text(title), baseURI + href, tags, created, null));
+            }
+        } else if (is(name, "a")) {
+            if (inLabel) {
+                tags.add(text(label));
+            }
+            inTitle = false;
+            inLabel = false;
+        }
+    }
+
+    @Override
+    public void text(final char[] text, final int offset, final int length) {
+        if (statesDepth > 0) {
+            appendNormalized(states, text, offset, length);
+        }
+        if (inTitle) {
+            appendNormalized(title, text, offset, length);
+        } else if (inLabel) {
+            appendNormalized(label, text, offset, length);
+        }
+    }
+
+    /**
+     * Appends {@code text}, collapsing each run of whitespace into one space and leaving out leading whitespace.
+     */
+    private static void appendNormalized(final StringBuilder to, final char[] text, final int offset, final int length) {
+        for (int i = offset; i < offset + length; i++) {
+            final char c = text[i];
+            if (Character.isWhitespace(c)) {
+                if (to.length() > 0 && to.charAt(to.length() - 1) != ' ') {
+                    to.append(' ');
+                }
+            } else {
+                to.append(c);
+            }
+        }
+    }
+
+    private static String text(final StringBuilder normalized) {
+        int length = normalized.length();
+        if (length > 0 && normalized.charAt(length - 1) == ' ') {
+            length--;
+        }
+        int amp = normalized.indexOf("&");
+        if (amp < 0 || amp >= length) {
+            return normalized.substring(0, length);
+        }
+
+        // GitHub escapes only a handful of characters; anything else is left to jsoup
+        final StringBuilder decoded = new StringBuilder(length);
+        int from = 0;
+        while (amp >= 0 && amp < length) {
+            final int semicolon = normalized.indexOf(";", amp);
+            if (semicolon < 0 || semicolon >= length) {
+                break;
+            }
+            final int c = decode(normalized, amp + 1, semicolon);
+            if (c < 0) {
+                return Parser.unescapeEntities(normalized.substring(0, length), false);
+            }
+            decoded.append(normalized, from, amp).appendCodePoint(c);
+            from = semicolon + 1;
+            amp = normalized.indexOf("&", from);
+        }
+        return decoded.append(normalized, from, length).toString();
+    }
+
+    /**
+     * @return the character referenced by {@code text[from, to)}, or {@code -1} if it is not a common one
+     */
+    private static int decode(final CharSequence text, final int from, final int to) {
+        if (from < to && text.charAt(from) == '#') {
+            final boolean hex = from + 1 < to && (text.charAt(from + 1) == 'x' || text.charAt(from + 1) == 'X');
+            final int digits = hex ? from + 2 : from + 1;
+            if (digits == to) {
+                return -1;
+            }
+            int c = 0;
+            for (int i = digits; i < to; i++) {
+                final int digit = Character.digit(text.charAt(i), hex ? 16 : 10);
+                if (digit < 0 || c > Character.MAX_CODE_POINT) {
+                    return -1;
+                }
+                c = c * (hex ? 16 : 10) + digit;
+            }
+            return c <= Character.MAX_CODE_POINT ? c : -1;
+        }
+        switch (text.subSequence(from, to).toString()) {
+            case "amp":
+                return '&';
+            case "lt":
+                return '<';
+            case "gt":
+                return '>';
+            case "quot":
+                return '"';
+            case "apos":
+                return '\'';
+            case "nbsp":
+                return '\u00a0';
+            default:
+                return -1;
+        }
+    }
+
+    private static boolean isNext(final CharSequence rel) {
+        return rel != null && is(rel, "next");
+    }
+
+    private static boolean is(final CharSequence name, final String tag) {
+        if (name.length() != tag.length()) {
+            return false;
+        }
+        for (int i = 0; i < tag.length(); i++) {
+            if (name.charAt(i) != tag.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The rows and state counts of one issue list page.
+     */
+    static final class Page {
+
+        private final List<Issue>                 issues;
+        private final List<Pair<String, Integer>> stateCounts;
+        private final boolean                     nextPage;
+
+        Page(final List<Issue> issues, final List<Pair<String, Integer>> stateCounts, final boolean nextPage) {
+            this.issues      = issues;
+            this.stateCounts = stateCounts;
+            this.nextPage    = nextPage;
+        }
+
+        List<Issue> getIssues() {
+            return issues;
+        }
+
+        List<Pair<String, Integer>> getStateCounts() {
+            return stateCounts;
+        }
+
+        /**
+         * @return whether the page links to a next page
+         */
+        boolean hasNextPage() {
+            return nextPage;
+        }
+    }
+}
@@ -1,78 +1,249 @@
 package com.github.maven.plugin.oss;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptyList;
-import static java.util.regex.Pattern.compile;
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toSet;
+import static java.util.Collections.emptyMap;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.tuple.Pair;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
+/**
+ * Scrapes the open issues of a GitHub repository from its issue list, most recently updated first.
+ * <p>
+ * Pages are parsed from the response stream with a {@link GitHubIssueListParser} kept per thread and
+ * followed until {@code maxIssues} issues are read or the list ends. As soon as the parser meets the link to
+ * the next page, that page is requested on the prefetch executor, unless the current page alone reaches
+ * the limit. With a maximum age, the list is
+ * restricted to issues updated since then, so crawling stops at the first page past that cutoff.
+ * <p>
+ * A server error on any page fails the scrape, so it can be retried; other statuses end the list.
+ * <p>
+ * Snapshots are dated when their scrape starts, which makes the snapshot date the watermark of an
+ * incremental scrape: only issues updated since then are listed. The state counts always come from the
+ * first page of the unfiltered list, which is cheap to revalidate; lists filtered by a date are not
+ * remembered by the {@link HttpFetcher}, as their URL is not requested again.
+ */
 public class GitHubIssueScraper implements IssueScraper {
 
-    private CloseableHttpClient client;
+    static final int PAGE_SIZE = 25;
 
-    public GitHubIssueScraper() {
-        client = HttpClientBuilder
-            .create()
-            .disableRedirectHandling()
-            .build();
+    private static final String            QUERY        = "?q=is%3Aissue+is%3Aopen+sort%3Aupdated-desc";
+    private static final String            CLOSED_QUERY = "?q=is%3Aissue+is%3Aclosed+sort%3Aupdated-desc";
+    private static final DateTimeFormatter DAY          = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter WATERMARK    = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'").withZone(ZoneOffset.UTC);
+    // tolerates clock skew between this machine and GitHub
+    private static final Duration          CLOCK_SKEW   = Duration.ofMinutes(5);
+
+    private static final ThreadLocal<GitHubIssueListParser> PARSER = ThreadLocal.withInitial(GitHubIssueListParser::new);
+
+    private final HttpFetcher http;
+    private final Executor    prefetcher;
+    private final int         maxIssues;
+    private final long        maxAgeMillis;
+
+    /**
+     * @param maxIssues    maximum number of open issues read per repository
+     * @param maxAgeMillis issues not updated for longer are not read; {@code 0} reads issues of any age
+     */
+    GitHubIssueScraper(final HttpFetcher http, final Executor prefetcher, final int maxIssues, final long maxAgeMillis) {
+        this.http         = http;
+        this.prefetcher   = prefetcher;
+        this.maxIssues    = maxIssues;
+        this.maxAgeMillis = maxAgeMillis;
     }
 
     @Override
     public IssueSnapshot scrape(final String baseURL) throws IOException, URISyntaxException {
-        final URI uri = new URI(baseURL + "?q=is%3Aissue+is%3Aopen+sort%3Aupdated-desc");
+        final Date started = new Date();
+        final String cutoff = cutoff();
+        final URI uri = new URI(baseURL + QUERY + cutoff);
+        final Crawl crawl = crawl(uri, cutoff.isEmpty());
+        if (crawl == null) {
+            return new IssueSnapshot(started, "github", uri.toString(), emptyList(), emptyList());
+        }
+        // counts of the list restricted to recent issues would not be those of the repository
+        final List<Pair<String, Integer>> stateCounts = cutoff.isEmpty() ? crawl.stateCounts : stateCounts(baseURL);
+        return new IssueSnapshot(started, "github", uri.toString(), crawl.issues,
+            stateCounts != null ? stateCounts : crawl.stateCounts);
+    }
 
-        final CloseableHttpResponse response = client.execute(new HttpGet(uri));
-        if (response.getStatusLine().getStatusCode() == 200) {
-            final String baseURI = uri.getScheme() + "://" + uri.getHost();
+    /**
+     * Reads the issues updated since {@code previous} was taken, open and closed, and merges them into it:
+     * closed issues are removed, updated open issues move to the top. The state counts are read again, as
+     * they cannot be derived from the changes. Falls back to a full scrape if either list of changes exceeds
+     * {@code maxIssues}, and always with a maximum age: list rows carry no update time, so previous issues
+     * that have aged past the cutoff since could not be told apart.
+     */
+    @Override
+    public IssueSnapshot scrapeSince(final String baseURL, final IssueSnapshot previous) throws IOException, URISyntaxException {
+        if (maxAgeMillis > 0) {
+            return null;
+        }
+        final Date started = new Date();
+        final Instant watermark = previous.getSnapshotDate().toInstant().minus(CLOCK_SKEW);
+        final String since = "+updated%3A%3E%3D" + WATERMARK.format(watermark);
 
-            final Document htmlDoc = Jsoup.parse(IOUtils.toString(response.getEntity().getContent(), UTF_8));
+        final Crawl opened = crawl(new URI(baseURL + QUERY + since), false);
+        if (opened == null || !opened.complete) {
+            return null;
+        }
+        final Crawl closed = crawl(new URI(baseURL + CLOSED_QUERY + since), false);
+        if (closed == null || !closed.complete) {
+            return null;
+        }
 
-            final String textDivStates = htmlDoc.select("div.states").first().text();
-            final Matcher stateCountMatcher = compile("(?<count>[0-9]+) (?<type>(Open|Closed))").matcher(textDivStates);
-            final List<Pair<String, Integer>> stateCounts = new ArrayList<>();
-            while (stateCountMatcher.find()) {
-                stateCounts.add(Pair.of(stateCountMatcher.group("type"), Integer.valueOf(stateCountMatcher.group("count"))));
+        final Set<String> changed = new HashSet<>();
+        final List<Issue> openIssues = new ArrayList<>(opened.issues);
+        opened.issues.forEach(issue -> changed.add(issue.getUrl()));
+        closed.issues.forEach(issue -> changed.add(issue.getUrl()));
+        for (final Issue issue : previous.getOpenIssues()) {
+            if (openIssues.size() == maxIssues) {
+                break;
             }
+            if (!changed.contains(issue.getUrl())) {
+                openIssues.add(issue);
+            }
+        }
 
-            final Elements issueElements = htmlDoc.select("li.js-issue-row");
-            final List<Issue> openIssues = issueElements
-                .stream()
-                .map(el -> {
-                    final Element titleElement = el.selectFirst("a.js-navigation-open");
-                    final String url = baseURI + titleElement.attr("href");
-                    final Set<String> tags =
-                        el.select("a.IssueLabel")
-                            .stream()
-                            .map(Element::text)
-                            .collect(toSet());
-
-                    return new Issue(titleElement.text(), url, tags, null, null);
-                })
-                .collect(toList());
-
-            return new IssueSnapshot(new Date(), "github", uri.toString(), openIssues, stateCounts);
+        final List<Pair<String, Integer>> stateCounts = stateCounts(baseURL);
+        return new IssueSnapshot(started, "github", previous.getUrl(), openIssues,
+            stateCounts != null ? stateCounts : previous.getStateCounts());
+    }
+
+    /**
+     * @return the state counts of the first page of the unfiltered open issue list, or {@code null} if it is
+     *         not available
+     */
+    private List<Pair<String, Integer>> stateCounts(final String baseURL) throws IOException, URISyntaxException {
+        final URI uri = new URI(baseURL + QUERY);
+        final String baseURI = uri.getScheme() + "://" + uri.getRawAuthority();
+        final HttpFetcher.Response<GitHubIssueListParser.Page> response =
+            http.get(uri.toString(), emptyMap(), true, body -> PARSER.get().parse(body, baseURI));
+        if (response.getStatus() >= 500) {
+            throw new IOException("GitHub answered " + response.getStatus() + ": " + uri);
+        }
+        if (response.getStatus() != 200) {
+            return null;
         }
+        return response.getBody().getStateCounts();
+    }
+
+    /**
+     * Reads the issue list at {@code uri} page by page.
+     *
+     * @param store whether the pages are remembered for revalidation
+     * @return the issues read, or {@code null} if the first page is not available
+     */
+    private Crawl crawl(final URI uri, final boolean store) throws IOException {
+        final Map<Integer, CompletableFuture<HttpFetcher.Response<GitHubIssueListParser.Page>>> prefetched =
+            new ConcurrentHashMap<>();
+
+        HttpFetcher.Response<GitHubIssueListParser.Page> response = fetch(uri, 1, store, prefetched);
+        if (response.getStatus() >= 500) {
+            throw new IOException("GitHub answered " + response.getStatus() + ": " + uri);
+        }
+        if (response.getStatus() != 200) {
+            return null;
+        }
+
+        final Crawl crawl = new Crawl();
+        for (int page = 1; ; page++) {
+            final GitHubIssueListParser.Page parsed = response.getBody();
+            if (page == 1) {
+                crawl.stateCounts.addAll(parsed.getStateCounts());
+            }
+
+            final List<Issue> rows = parsed.getIssues();
+            final int read = Math.min(rows.size(), maxIssues - crawl.issues.size());
+            crawl.issues.addAll(rows.subList(0, read));
+
+            if (!parsed.hasNextPage()) {
+                crawl.complete = read == rows.size();
+                break;
+            }
+            if (crawl.issues.size() >= maxIssues) {
+                break;
+            }
+            final CompletableFuture<HttpFetcher.Response<GitHubIssueListParser.Page>> next = prefetched.remove(page + 1);
+            response = next != null ? await(next) : fetch(uri, page + 1, store, prefetched);
+            if (response.getStatus() >= 500) {
+                throw new IOException("GitHub answered " + response.getStatus() + ": " + pageURL(uri, page + 1));
+            }
+            if (response.getStatus() != 200) {
+                break;
+            }
+        }
+        return crawl;
+    }
+
+    /**
+     * Requests and parses page {@code page} of the list at {@code uri}. Once its link to the next page is
+     * parsed, that page is requested on the prefetch executor and put into {@code prefetched}, unless the
+     * pages up to this one reach the limit; all pages but the last hold {@value #PAGE_SIZE} rows.
+     */
+    private HttpFetcher.Response<GitHubIssueListParser.Page> fetch(
+        final URI uri, final int page, final boolean store,
+        final Map<Integer, CompletableFuture<HttpFetcher.Response<GitHubIssueListParser.Page>>> prefetched)
+        throws IOException {
+
+        final String baseURI = uri.getScheme() + "://" + uri.getRawAuthority();
+        final Runnable prefetch = () -> {
+            if (page * PAGE_SIZE < maxIssues) {
+                prefetched.put(page + 1, CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return fetch(uri, page + 1, store, prefetched);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, prefetcher));
+            }
+        };
+        return http.get(pageURL(uri, page), emptyMap(), store, body -> PARSER.get().parse(body, baseURI, prefetch));
+    }
+
+    private static String pageURL(final URI uri, final int page) {
+        return page == 1 ? uri.toString() : uri + "&page=" + page;
+    }
+
+    private String cutoff() {
+        if (maxAgeMillis <= 0) {
+            return "";
+        }
+        return "+updated%3A%3E%3D" + DAY.format(Instant.ofEpochMilli(System.currentTimeMillis() - maxAgeMillis));
+    }
+
+    private static <T> HttpFetcher.Response<T> await(final CompletableFuture<HttpFetcher.Response<T>> page) throws IOException {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static final class Crawl {
 
-        return new IssueSnapshot(new Date(), "github", uri.toString(), emptyList(), emptyList());
+        private final List<Issue>                 issues      = new ArrayList<>();
+        private final List<Pair<String, Integer>> stateCounts = new ArrayList<>();
+        // whether the list ended within the limit
+        private boolean                           complete;
     }
 }
@@ -0,0 +1,353 @@
+package com.github.maven.plugin.oss;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * An event-based HTML tokenizer: start tags, end tags and text are reported to a {@link Handler} as they
+ * are read, and no document is built. Tag names, attributes and text are delivered in buffers the
+ * scanner reuses, so a handler keeps only what it copies out.
+ * <p>
+ * The scanner does not correct malformed markup or know about implied end tags; it reports the tags as
+ * written. Comments, doctypes and the contents of {@code script} and {@code style} elements are skipped.
+ * Character references are not decoded. A scanner is not thread-safe; reuse one per thread.
+ */
+final class HtmlScanner {
+
+    interface Handler {
+
+        /**
+         * @param name lower case tag name
+         */
+        void startTag(CharSequence name, Attributes attributes);
+
+        /**
+         * @param name lower case tag name
+         */
+        void endTag(CharSequence name);
+
+        /**
+         * @param text raw text between tags, character references not decoded
+         */
+        void text(char[] text, int offset, int length);
+    }
+
+    /**
+     * The attributes of the current start tag, valid until the handler returns.
+     */
+    static final class Attributes {
+
+        private final StringBuilder chars  = new StringBuilder();
+        private int[]               bounds = new int[48]; // name start, name end, value end per attribute
+        private int                 count;
+
+        /**
+         * @return the value of attribute {@code name} (lower case), or {@code null} if the tag has none
+         */
+        CharSequence get(final String name) {
+            for (int i = 0; i < count; i++) {
+                final int start = bounds[3 * i];
+                final int nameEnd = bounds[3 * i + 1];
+                if (nameEnd - start == name.length() && regionMatches(start, name)) {
+                    return chars.subSequence(nameEnd, bounds[3 * i + 2]);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return whether the {@code class} attribute lists {@code className}
+         */
+        boolean hasClass(final String className) {
+            for (int i = 0; i < count; i++) {
+                final int start = bounds[3 * i];
+                final int nameEnd = bounds[3 * i + 1];
+                if (nameEnd - start == 5 && regionMatches(start, "class")) {
+                    return containsToken(nameEnd, bounds[3 * i + 2], className);
+                }
+            }
+            return false;
+        }
+
+        private boolean containsToken(final int from, final int to, final String token) {
+            int start = from;
+            while (start < to) {
+                while (start < to && Character.isWhitespace(chars.charAt(start))) {
+                    start++;
+                }
+                int end = start;
+                while (end < to && !Character.isWhitespace(chars.charAt(end))) {
+                    end++;
+                }
+                if (end - start == token.length() && regionMatches(start, token)) {
+                    return true;
+                }
+                start = end;
+            }
+            return false;
+        }
+
+        private boolean regionMatches(final int start, final String text) {
+            for (int i = 0; i < text.length(); i++) {
+                if (chars.charAt(start + i) != text.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void clear() {
+            chars.setLength(0);
+            count = 0;
+        }
+
+        private void nameStart() {
+            if (3 * count + 3 > bounds.length) {
+                final int[] grown = new int[bounds.length * 2];
+                System.arraycopy(bounds, 0, grown, 0, bounds.length);
+                bounds = grown;
+            }
+            bounds[3 * count] = chars.length();
+        }
+
+        private void nameEnd() {
+            bounds[3 * count + 1] = chars.length();
+        }
+
+        private void valueEnd() {
+            bounds[3 * count + 2] = chars.length();
+            count++;
+        }
+    }
+
+    private final char[]        buffer     = new char[8192];
+    private final char[]        text       = new char[8192];
+    private final StringBuilder name       = new StringBuilder();
+    private final Attributes    attributes = new Attributes();
+
+    private Reader in;
+    private int    position;
+    private int    limit;
+    private int    textLength;
+
+    void scan(final Reader in, final Handler handler) throws IOException {
+        this.in = in;
+        position = 0;
+        limit = 0;
+        textLength = 0;
+        try {
+            int c;
+            while ((c = read()) >= 0) {
+                if (c != '<') {
+                    appendText((char) c, handler);
+                    continue;
+                }
+
+                final int next = peek();
+                if (next == '/' || next == '!' || next == '?' || isLetter(next)) {
+                    flushText(handler);
+                    markup(handler);
+                } else {
+                    appendText('<', handler);
+                }
+            }
+            flushText(handler);
+        } finally {
+            this.in = null;
+        }
+    }
+
+    private void markup(final Handler handler) throws IOException {
+        final int c = read();
+        if (c == '!') {
+            if (peek() == '-') {
+                read();
+                if (peek() == '-') {
+                    read();
+                    skipPast("-->");
+                    return;
+                }
+            }
+            skipPast(">");
+        } else if (c == '?') {
+            skipPast(">");
+        } else if (c == '/') {
+            readName(read());
+            skipPast(">");
+            handler.endTag(name);
+        } else {
+            readName(c);
+            final boolean rawText = equalsName("script") || equalsName("style");
+            readAttributes();
+            handler.startTag(name, attributes);
+            if (rawText) {
+                final String end = equalsName("script") ? "</script" : "</style";
+                skipPast(end);
+                skipPast(">");
+                handler.endTag(end.substring(2));
+            }
+        }
+    }
+
+    private void readName(final int first) throws IOException {
+        name.setLength(0);
+        int c = first;
+        while (c >= 0 && c != '>' && c != '/' && !Character.isWhitespace(c)) {
+            name.append(Character.toLowerCase((char) c));
+            c = read();
+        }
+        if (c >= 0) {
+            unread();
+        }
+    }
+
+    private void readAttributes() throws IOException {
+        attributes.clear();
+        while (true) {
+            int c = skipWhitespace();
+            if (c < 0) {
+                return;
+            }
+            if (c == '>') {
+                return;
+            }
+            if (c == '/') {
+                continue;
+            }
+
+            attributes.nameStart();
+            while (c >= 0 && c != '=' && c != '>' && c != '/' && !Character.isWhitespace(c)) {
+                attributes.chars.append(Character.toLowerCase((char) c));
+                c = read();
+            }
+            attributes.nameEnd();
+            if (c >= 0 && Character.isWhitespace(c)) {
+                c = skipWhitespace();
+            }
+            if (c != '=') {
+                attributes.valueEnd();
+                if (c == '>' || c < 0) {
+                    return;
+                }
+                unread();
+                continue;
+            }
+
+            c = skipWhitespace();
+            if (c == '"' || c == '\'') {
+                final int quote = c;
+                while ((c = read()) >= 0 && c != quote) {
+                    attributes.chars.append((char) c);
+                }
+            } else {
+                while (c >= 0 && c != '>' && !Character.isWhitespace(c)) {
+                    attributes.chars.append((char) c);
+                    c = read();
+                }
+                if (c == '>') {
+                    unread();
+                }
+            }
+            attributes.valueEnd();
+        }
+    }
+
+    private boolean equalsName(final String tag) {
+        if (name.length() != tag.length()) {
+            return false;
+        }
+        for (int i = 0; i < tag.length(); i++) {
+            if (name.charAt(i) != tag.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skips past the next occurrence of {@code end}, matched case-insensitively.
+     */
+    private void skipPast(final String end) throws IOException {
+        int matched = 0;
+        int c;
+        while (matched < end.length() && (c = read()) >= 0) {
+            matched = extend(end, matched, (char) Character.toLowerCase(c));
+        }
+    }
+
+    /**
+     * @return length of the longest prefix of {@code end} that ends the first {@code matched} characters of
+     *         {@code end} followed by {@code c}
+     */
+    private static int extend(final String end, final int matched, final char c) {
+        for (int length = matched + 1; length > 0; length--) {
+            if (end.charAt(length - 1) != c) {
+                continue;
+            }
+            final int shift = matched + 1 - length;
+            boolean prefix = true;
+            for (int i = 0; i < length - 1 && prefix; i++) {
+                prefix = end.charAt(i) == end.charAt(shift + i);
+            }
+            if (prefix) {
+                return length;
+            }
+        }
+        return 0;
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c >= 0 && Character.isWhitespace(c));
+        return c;
+    }
+
+    private void appendText(final char c, final Handler handler) {
+        if (textLength == text.length) {
+            flushText(handler);
+        }
+        text[textLength++] = c;
+    }
+
+    private void flushText(final Handler handler) {
+        if (textLength > 0) {
+            handler.text(text, 0, textLength);
+            textLength = 0;
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            // keep the last character so it can be unread
+            if (limit > 0) {
+                buffer[0] = buffer[limit - 1];
+                position = 1;
+                limit = 1;
+            }
+            final int read = in.read(buffer, limit, buffer.length - limit);
+            if (read <= 0) {
+                return -1;
+            }
+            limit += read;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        final int c = read();
+        if (c >= 0) {
+            unread();
+        }
+        return c;
+    }
+
+    private void unread() {
+        position--;
+    }
+
+    private static boolean isLetter(final int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
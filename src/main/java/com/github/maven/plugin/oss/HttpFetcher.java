@@ -0,0 +1,498 @@
+package com.github.maven.plugin.oss;
+
+import static com.github.maven.plugin.oss.Utility.sha1Hex;
+import static com.github.maven.plugin.oss.Utility.writeAtomically;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.config.ConnectionConfig;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The HTTP client shared by all issue scrapers of a run.
+ * <p>
+ * Connections are pooled and kept alive between requests, responses are requested gzip-compressed and
+ * always consumed in full so their connection returns to the pool. A {@link BodyReader} reads the body of
+ * a {@code 200 OK} while it arrives; bodies of other statuses are discarded. Redirects are not followed. Pages
+ * served with an {@code ETag} or {@code Last-Modified} header are remembered; later requests for them are
+ * conditional and a {@code 304 Not Modified} answer is served from the remembered body. Given a cache
+ * directory, bodies are kept on disk and only their validators in memory; otherwise the {@value #REMEMBERED}
+ * pages used last are kept in memory, so memory stays bounded however many pages a run reads. Waiting for a pooled connection, connecting and each read
+ * time out, so a host that stops answering fails its request instead of holding it forever. Requests wait
+ * for the {@link RateLimiter}, and a request refused for exceeding a rate limit is sent again once the
+ * host allows it.
+ * <p>
+ * Validator file layout (version 1): magic, version, URL, ETag, Last-Modified, body length, body.
+ */
+final class HttpFetcher implements AutoCloseable {
+
+    static final int VERSION = 1;
+
+    static final int REMEMBERED = 256;
+
+    static final int  DEFAULT_TIMEOUT_MILLIS         = 30_000;
+    static final long DEFAULT_RATE_LIMIT_WAIT_MILLIS = 600_000L;
+
+    // attempts of a request the host refuses for exceeding its rate limit
+    private static final int RATE_LIMITED_ATTEMPTS = 3;
+
+    private static final int MAGIC = 0x4F535348; // "OSSH"
+
+    private final File                  directory;
+    private final int                   timeoutMillis;
+    private final RateLimiter           rateLimiter;
+    private final CloseableHttpClient   client;
+    private final Map<String, Validated> validated;
+
+    private final LongAdder requests          = new LongAdder();
+    private final LongAdder connectionsOpened = new LongAdder();
+    private final LongAdder bytesReceived     = new LongAdder();
+    private final LongAdder notModified       = new LongAdder();
+
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    HttpFetcher(final int maxConnections, final int maxPerHost, final File directory) {
+        this(maxConnections, maxPerHost, DEFAULT_TIMEOUT_MILLIS, directory);
+    }
+
+    /**
+     * @param maxConnections maximum number of pooled connections overall
+     * @param maxPerHost     maximum number of pooled connections to one host
+     * @param timeoutMillis  connect, connection pool and socket read timeout
+     * @param directory      where validated pages are stored between runs; {@code null} keeps them in memory
+     */
+    HttpFetcher(final int maxConnections, final int maxPerHost, final int timeoutMillis, final File directory) {
+        this(maxConnections, maxPerHost, timeoutMillis, new RateLimiter(DEFAULT_RATE_LIMIT_WAIT_MILLIS), directory);
+    }
+
+    /**
+     * @param rateLimiter keeps requests within the rate limits hosts announce
+     */
+    HttpFetcher(
+        final int maxConnections, final int maxPerHost, final int timeoutMillis, final RateLimiter rateLimiter,
+        final File directory) {
+
+        this.directory     = directory;
+        this.timeoutMillis = timeoutMillis;
+        this.rateLimiter   = rateLimiter;
+        this.validated     = directory != null
+            ? new ConcurrentHashMap<>()
+            : Collections.synchronizedMap(new LinkedHashMap<String, Validated>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Validated> eldest) {
+                    return size() > REMEMBERED;
+                }
+            });
+
+        final ManagedHttpClientConnectionFactory connections = ManagedHttpClientConnectionFactory.INSTANCE;
+        final PoolingHttpClientConnectionManager pool = new PoolingHttpClientConnectionManager(
+            (HttpRoute route, ConnectionConfig config) -> {
+                connectionsOpened.increment();
+                return connections.create(route, config);
+            });
+        pool.setMaxTotal(maxConnections);
+        pool.setDefaultMaxPerRoute(maxPerHost);
+
+        this.client = HttpClientBuilder
+            .create()
+            .setConnectionManager(pool)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(timeoutMillis)
+                .setConnectTimeout(timeoutMillis)
+                .setSocketTimeout(timeoutMillis)
+                .build())
+            .disableRedirectHandling()
+            .evictIdleConnections(30, TimeUnit.SECONDS)
+            .setUserAgent("oss-maven-plugin")
+            // runs before the entity is decompressed, so compressed bytes are counted
+            .addInterceptorFirst((HttpResponse response, HttpContext context) -> {
+                if (response.getEntity() != null) {
+                    response.setEntity(new CountingEntity(response.getEntity()));
+                }
+            })
+            .build();
+    }
+
+    Response<String> get(final String url) throws IOException {
+        return get(url, Collections.emptyMap());
+    }
+
+    /**
+     * Fetches {@code url}, revalidating a remembered copy if there is one. The response is read in full.
+     */
+    Response<String> get(final String url, final Map<String, String> headers) throws IOException {
+        return get(url, headers, true);
+    }
+
+    /**
+     * Like {@link #get(String, Map)}; with {@code store} off the page is neither revalidated nor remembered,
+     * for URLs that are not requested again, such as queries embedding a timestamp.
+     */
+    Response<String> get(final String url, final Map<String, String> headers, final boolean store) throws IOException {
+        return get(url, headers, store, IOUtils::toString);
+    }
+
+    /**
+     * Like {@link #get(String, Map, boolean)}, but the body is handed to {@code reader} as it arrives instead
+     * of being read into a string first. Only a page that is remembered is copied while it is read.
+     */
+    <T> Response<T> get(
+        final String url, final Map<String, String> headers, final boolean store, final BodyReader<T> reader)
+        throws IOException {
+
+        final HttpGet request = new HttpGet(url);
+        headers.forEach(request::setHeader);
+
+        Validated known = store ? validated(url) : null;
+        if (known != null) {
+            if (!known.etag.isEmpty()) {
+                request.setHeader(HttpHeaders.IF_NONE_MATCH, known.etag);
+            }
+            if (!known.lastModified.isEmpty()) {
+                request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, known.lastModified);
+            }
+        }
+
+        final String host = ScrapeScheduler.hostOf(url);
+        for (int attempt = 1; ; attempt++) {
+            rateLimiter.acquire(host);
+            requests.increment();
+            final long start = System.nanoTime();
+            try (CloseableHttpResponse response = client.execute(request)) {
+                final int status = response.getStatusLine().getStatusCode();
+                final Map<String, String> responseHeaders = new HashMap<>();
+                for (final Header header : response.getAllHeaders()) {
+                    responseHeaders.putIfAbsent(header.getName().toLowerCase(Locale.ROOT), header.getValue());
+                }
+
+                if (rateLimiter.update(host, status, responseHeaders::get)) {
+                    EntityUtils.consume(response.getEntity());
+                    if (attempt == RATE_LIMITED_ATTEMPTS) {
+                        throw new IOException("Rate limit of " + host + " exceeded: " + url);
+                    }
+                    continue;
+                }
+
+                if (status == HttpStatus.SC_NOT_MODIFIED && known != null) {
+                    EntityUtils.consume(response.getEntity());
+                    final String body = known.body != null ? known.body : storedBody(url);
+                    if (body == null) {
+                        // the stored body is gone: asked again unconditionally
+                        validated.remove(url);
+                        request.removeHeaders(HttpHeaders.IF_NONE_MATCH);
+                        request.removeHeaders(HttpHeaders.IF_MODIFIED_SINCE);
+                        known = null;
+                        attempt--;
+                        continue;
+                    }
+                    notModified.increment();
+                    return new Response<>(HttpStatus.SC_OK, reader.read(new StringReader(body)), responseHeaders, true);
+                }
+
+                final HttpEntity entity = response.getEntity();
+                if (status != HttpStatus.SC_OK) {
+                    EntityUtils.consume(entity);
+                    return new Response<>(status, null, responseHeaders, false);
+                }
+
+                final String etag = responseHeaders.getOrDefault("etag", "");
+                final String lastModified = responseHeaders.getOrDefault("last-modified", "");
+                final StringBuilder copy = store && (!etag.isEmpty() || !lastModified.isEmpty()) ? new StringBuilder() : null;
+                final Reader content = entity == null ? new StringReader("") : reader(entity);
+                final Reader in = copy != null ? new CopyingReader(content, copy) : content;
+                final T body = reader.read(in);
+                if (copy != null) {
+                    // whatever the reader left unread still belongs to the remembered page
+                    IOUtils.skip(in, Long.MAX_VALUE);
+                    remember(url, new Validated(etag, lastModified, copy.toString()));
+                }
+                EntityUtils.consume(entity);
+                return new Response<>(status, body, responseHeaders, false);
+            } finally {
+                latencies.record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    int getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    long getRequests() {
+        return requests.sum();
+    }
+
+    long getConnectionsOpened() {
+        return connectionsOpened.sum();
+    }
+
+    /**
+     * @return requests served over a connection an earlier request already opened
+     */
+    long getConnectionsReused() {
+        return Math.max(0, getRequests() - getConnectionsOpened());
+    }
+
+    /**
+     * @return response body bytes received, as transferred (compressed)
+     */
+    long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * @return the time from sending each request until its response was read or failed
+     */
+    LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    long getNotModified() {
+        return notModified.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        client.close();
+    }
+
+    private Validated validated(final String url) {
+        final Validated known = validated.get(url);
+        if (known != null || directory == null) {
+            return known;
+        }
+
+        final File file = validatorFile(url);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !url.equals(in.readUTF())) {
+                return null;
+            }
+            // the body stays on disk until a 304 asks for it
+            final Validated loaded = new Validated(in.readUTF(), in.readUTF(), null);
+            validated.putIfAbsent(url, loaded);
+            return loaded;
+        } catch (IOException e) {
+            // unreadable: fetched unconditionally and replaced
+            return null;
+        }
+    }
+
+    /**
+     * @return the body stored for {@code url}, or {@code null} if it is missing or unreadable
+     */
+    private String storedBody(final String url) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(validatorFile(url))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !url.equals(in.readUTF())) {
+                return null;
+            }
+            in.readUTF();
+            in.readUTF();
+            final byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            return new String(body, UTF_8);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void remember(final String url, final Validated page) throws IOException {
+        if (directory == null) {
+            validated.put(url, page);
+            return;
+        }
+        final byte[] body = page.body.getBytes(UTF_8);
+        writeAtomically(validatorFile(url).toPath(), stream -> {
+            final DataOutputStream out = new DataOutputStream(stream);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(url);
+            out.writeUTF(page.etag);
+            out.writeUTF(page.lastModified);
+            out.writeInt(body.length);
+            out.write(body);
+            out.flush();
+        });
+        validated.put(url, new Validated(page.etag, page.lastModified, null));
+    }
+
+    private File validatorFile(final String url) {
+        return new File(directory, sha1Hex(url) + ".bin");
+    }
+
+    /**
+     * @return the decoded content of {@code entity}, in the charset it declares or else UTF-8
+     */
+    private static Reader reader(final HttpEntity entity) throws IOException {
+        final Charset charset = ContentType.getLenientOrDefault(entity).getCharset();
+        return new InputStreamReader(entity.getContent(), charset != null ? charset : UTF_8);
+    }
+
+    /**
+     * Reads a response body while it arrives.
+     */
+    @FunctionalInterface
+    interface BodyReader<T> {
+
+        T read(Reader body) throws IOException;
+    }
+
+    /**
+     * A response whose body has been read; the body is {@code null} unless the status is {@code 200 OK}.
+     */
+    static final class Response<T> {
+
+        private final int                 status;
+        private final T                   body;
+        private final Map<String, String> headers;
+        private final boolean             notModified;
+
+        Response(final int status, final T body, final Map<String, String> headers, final boolean notModified) {
+            this.status      = status;
+            this.body        = body;
+            this.headers     = headers;
+            this.notModified = notModified;
+        }
+
+        int getStatus() {
+            return status;
+        }
+
+        T getBody() {
+            return body;
+        }
+
+        /**
+         * @return the first value of header {@code name} (case-insensitive), or {@code null}
+         */
+        String getHeader(final String name) {
+            return headers.get(name.toLowerCase(Locale.ROOT));
+        }
+
+        /**
+         * @return whether the body is a remembered copy the server confirmed unchanged
+         */
+        boolean isNotModified() {
+            return notModified;
+        }
+    }
+
+    private static final class Validated {
+
+        private final String etag;
+        private final String lastModified;
+        // null while the body is kept on disk
+        private final String body;
+
+        Validated(final String etag, final String lastModified, final String body) {
+            this.etag         = etag;
+            this.lastModified = lastModified;
+            this.body         = body;
+        }
+    }
+
+    /**
+     * Copies the characters read through it.
+     */
+    private static final class CopyingReader extends FilterReader {
+
+        private final StringBuilder copy;
+
+        CopyingReader(final Reader in, final StringBuilder copy) {
+            super(in);
+            this.copy = copy;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int c = super.read();
+            if (c >= 0) {
+                copy.append((char) c);
+            }
+            return c;
+        }
+
+        @Override
+        public int read(final char[] buffer, final int offset, final int length) throws IOException {
+            final int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                copy.append(buffer, offset, n);
+            }
+            return n;
+        }
+    }
+
+    private final class CountingEntity extends HttpEntityWrapper {
+
+        CountingEntity(final HttpEntity entity) {
+            super(entity);
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+                @Override
+                public int read() throws IOException {
+                    final int b = super.read();
+                    if (b >= 0) {
+                        bytesReceived.increment();
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+                    final int n = super.read(buffer, offset, length);
+                    if (n > 0) {
+                        bytesReceived.add(n);
+                    }
+                    return n;
+                }
+            };
+        }
+    }
+}
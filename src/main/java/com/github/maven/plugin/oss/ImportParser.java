@@ -0,0 +1,10 @@
+package com.github.maven.plugin.oss;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+interface ImportParser {
+
+    List<JavaImport> parse(final File sourceFile) throws IOException;
+}
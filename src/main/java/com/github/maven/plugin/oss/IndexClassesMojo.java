@@ -0,0 +1,69 @@
+package com.github.maven.plugin.oss;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Prewarms the persistent class index with every JAR in the project's resolved dependency tree.
+ */
+@Mojo(
+    name = "index-classes",
+    requiresDependencyResolution = ResolutionScope.TEST,
+    threadSafe = true)
+public class IndexClassesMojo extends AbstractMojo {
+
+    @Parameter(
+        defaultValue = "${session}",
+        required = true,
+        readonly = true)
+    private MavenSession session;
+
+    @Parameter(
+        defaultValue = "${project}",
+        readonly = true)
+    private MavenProject project;
+
+    @Parameter(
+        property = "oss.classIndexDirectory")
+    private File classIndexDirectory;
+
+    @Parameter(
+        property = "oss.threads",
+        defaultValue = "0")
+    private int threads;
+
+    public void execute() throws MojoExecutionException {
+        final ClassIndex index = new ClassIndex(ReportIssuesMojo.classIndexDirectory(classIndexDirectory, session));
+        final List<Artifact> artifacts = new ArrayList<>(project.getArtifacts());
+
+        final ForkJoinPool pool = Utility.newAnalysisPool(threads);
+        try {
+            pool.submit(() -> artifacts.parallelStream().forEach(artifact -> {
+                try {
+                    index.classes(artifact);
+                } catch (IOException e) {
+                    getLog().warn("Could not index " + artifact + ": " + e.getMessage());
+                }
+            })).join();
+        } catch (RuntimeException e) {
+            throw new MojoExecutionException("Error indexing dependencies of " + project.getId(), e);
+        } finally {
+            pool.shutdown();
+        }
+
+        getLog().info(String.format("Class index: %d of %d dependencies already indexed, %d scanned",
+            index.getReused(), artifacts.size(), index.getScanned()));
+    }
+}
@@ -6,4 +6,13 @@ import java.net.URISyntaxException;
 public interface IssueScraper {
 
     IssueSnapshot scrape(final String issueURL) throws IOException, URISyntaxException;
+
+    /**
+     * Scrapes only what changed since {@code previous} was taken and applies it to {@code previous}.
+     *
+     * @return the updated snapshot, or {@code null} if the site is to be scraped in full instead
+     */
+    default IssueSnapshot scrapeSince(final String issueURL, final IssueSnapshot previous) throws IOException, URISyntaxException {
+        return null;
+    }
 }
@@ -0,0 +1,50 @@
+package com.github.maven.plugin.oss;
+
+import java.util.Objects;
+
+final class JavaImport {
+
+    private final String  name;
+    private final boolean staticImport;
+    private final boolean asterisk;
+
+    JavaImport(final String name, final boolean staticImport, final boolean asterisk) {
+        this.name         = name;
+        this.staticImport = staticImport;
+        this.asterisk     = asterisk;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    boolean isStatic() {
+        return staticImport;
+    }
+
+    boolean isAsterisk() {
+        return asterisk;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JavaImport)) {
+            return false;
+        }
+        final JavaImport other = (JavaImport) o;
+        return staticImport == other.staticImport && asterisk == other.asterisk && name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, staticImport, asterisk);
+    }
+
+    @Override
+    public String toString() {
+        return "import " + (staticImport ? "static " : "") + name + (asterisk ? ".*" : "");
+    }
+}
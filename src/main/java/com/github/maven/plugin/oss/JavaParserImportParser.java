@@ -0,0 +1,22 @@
+package com.github.maven.plugin.oss;
+
+import static java.util.stream.Collectors.toList;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+final class JavaParserImportParser implements ImportParser {
+
+    @Override
+    public List<JavaImport> parse(final File sourceFile) throws IOException {
+        final CompilationUnit cUnit = JavaParser.parse(sourceFile);
+        return cUnit.getImports()
+            .stream()
+            .map(impDecl -> new JavaImport(impDecl.getName().asString(), impDecl.isStatic(), impDecl.isAsterisk()))
+            .collect(toList());
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.maven.plugin.oss;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.stream.Collectors.toList;
+
+import com.machinepublishers.jbrowserdriver.JBrowserDriver;
+import com.machinepublishers.jbrowserdriver.Settings;
+import com.machinepublishers.jbrowserdriver.Timezone;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scrapes a Jira issue list by rendering it in a headless browser, which starts a browser process per
+ * call. Used only for Jira instances whose REST API is not reachable; see {@link JiraIssueScraper}.
+ */
+public class JiraBrowserIssueScraper implements IssueScraper {
+
+    private final int              timeoutMillis;
+    private final LatencyHistogram latencies;
+
+    /**
+     * @param timeoutMillis connect, read and page load timeout of the browser
+     * @param latencies     receives the time each scrape takes, browser start included
+     */
+    JiraBrowserIssueScraper(final int timeoutMillis, final LatencyHistogram latencies) {
+        this.timeoutMillis = timeoutMillis;
+        this.latencies     = latencies;
+    }
+
+    @Override
+    public IssueSnapshot scrape(final String baseURL) throws URISyntaxException {
+        final URI uri = new URI(baseURL + "?filter=allopenissues");
+        final String baseURI = uri.getScheme() + "://" + uri.getHost();
+        final long start = System.nanoTime();
+
+        JBrowserDriver driver = new JBrowserDriver(Settings.builder()
+            .timezone(Timezone.AMERICA_NEWYORK)
+            .connectTimeout(timeoutMillis)
+            .connectionReqTimeout(timeoutMillis)
+            .socketTimeout(timeoutMillis)
+            .ajaxResourceTimeout(timeoutMillis)
+            .build());
+
+        try {
+            driver.manage().timeouts().pageLoadTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+            driver.get(uri.toString());
+
+            final List<WebElement> issueListElements = driver.findElementsByCssSelector("ol.issue-list > li[data-key]");
+
+            final List<Issue> openIssues = issueListElements
+                .stream()
+                .map(el -> {
+                    final WebElement linkEl = el.findElement(By.cssSelector("a.splitview-issue-link"));
+                    final WebElement titleEl = el.findElement(By.cssSelector("span.issue-link-summary"));
+                    return new Issue(titleEl.getText(), baseURI + linkEl.getAttribute("href"), emptySet(), null, null);
+                })
+                .collect(toList());
+
+            return new IssueSnapshot(new Date(), "jira", uri.toString(), openIssues, emptyList());
+        } finally {
+            driver.quit();
+            latencies.record(System.nanoTime() - start);
+        }
+    }
+}
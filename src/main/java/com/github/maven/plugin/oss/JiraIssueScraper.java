@@ -1,58 +1,213 @@
 package com.github.maven.plugin.oss;
 
-import static java.util.Collections.emptyList;
-import static java.util.Collections.emptySet;
-import static java.util.stream.Collectors.toList;
-
-import com.machinepublishers.jbrowserdriver.JBrowserDriver;
-import com.machinepublishers.jbrowserdriver.Settings;
-import com.machinepublishers.jbrowserdriver.Timezone;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.DefaultRedirectStrategy;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.openqa.selenium.By;
-import org.openqa.selenium.WebElement;
-
-import java.net.URI;
+import static java.lang.String.format;
+import static java.util.Collections.emptyMap;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
 import java.net.URISyntaxException;
+import java.net.URLEncoder;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+/**
+ * Scrapes a Jira project through the REST search API of its Jira instance.
+ * <p>
+ * Open issues are requested page by page ({@code startAt}/{@code maxResults}), most recently updated
+ * first and up to {@code maxIssues}, with only the fields a snapshot keeps; labels and components become
+ * the issue's tags. Each page is parsed from the response stream while it arrives. The number of resolved
+ * issues is requested without any issues. Sites that do not name a project, or whose instance does not
+ * offer the search API, are handed to the fallback scraper; a server error fails the scrape instead.
+ */
 public class JiraIssueScraper implements IssueScraper {
 
-    private CloseableHttpClient client;
+    static final int PAGE_SIZE = 100;
+
+    private static final String FIELDS = "summary,created,updated,labels,components";
+
+    private static final Pattern           PROJECT_URL = Pattern.compile("^(?<base>https?://.+?)/(?:browse|projects)/(?<key>[A-Za-z][A-Za-z0-9_]*)");
+    private static final DateTimeFormatter DATE        = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
 
-    public JiraIssueScraper() {
-        client = HttpClientBuilder
-            .create()
-            .setRedirectStrategy(new DefaultRedirectStrategy())
-            .build();
+    private final HttpFetcher  http;
+    private final IssueScraper fallback;
+    private final int          maxIssues;
+
+    JiraIssueScraper(final HttpFetcher http, final IssueScraper fallback, final int maxIssues) {
+        this.http      = http;
+        this.fallback  = fallback;
+        this.maxIssues = maxIssues;
     }
 
     @Override
-    public IssueSnapshot scrape(final String baseURL) throws URISyntaxException {
-        final URI uri = new URI(baseURL + "?filter=allopenissues");
-        final String baseURI = uri.getScheme() + "://" + uri.getHost();
+    public IssueSnapshot scrape(final String baseURL) throws IOException, URISyntaxException {
+        final Matcher project = PROJECT_URL.matcher(baseURL);
+        if (!project.find()) {
+            return fallback.scrape(baseURL);
+        }
+        final String base = project.group("base");
+        final String key = project.group("key");
+
+        final List<Issue> openIssues = new ArrayList<>();
+        final String openQuery = format("project = \"%s\" AND resolution = Unresolved ORDER BY updated DESC", key);
+        long open = 0;
+        int startAt = 0;
+        do {
+            final int pageSize = Math.min(PAGE_SIZE, maxIssues - startAt);
+            final int before = openIssues.size();
+            final HttpFetcher.Response<Long> response = http.get(
+                searchURL(base, openQuery, startAt, pageSize), emptyMap(), true, body -> readPage(body, base, openIssues));
+            if (response.getStatus() != 200) {
+                if (startAt == 0 && response.getStatus() < 500) {
+                    return fallback.scrape(baseURL);
+                }
+                throw new IOException("Jira search answered " + response.getStatus() + ": " + base);
+            }
+            open = response.getBody();
+            if (openIssues.size() == before) {
+                break;
+            }
+            startAt = openIssues.size();
+        } while (startAt < open && startAt < maxIssues);
 
-        JBrowserDriver driver = new JBrowserDriver(Settings.builder().timezone(Timezone.AMERICA_NEWYORK).build());
+        final String resolvedQuery = format("project = \"%s\" AND resolution IS NOT EMPTY", key);
+        final HttpFetcher.Response<Long> resolved =
+            http.get(searchURL(base, resolvedQuery, 0, 0), emptyMap(), true, body -> readPage(body, base, null));
+        final List<Pair<String, Integer>> stateCounts = new ArrayList<>();
+        stateCounts.add(Pair.of("Open", (int) open));
+        if (resolved.getStatus() == 200) {
+            stateCounts.add(Pair.of("Closed", resolved.getBody().intValue()));
+        }
+
+        return new IssueSnapshot(new Date(), "jira", base + "/browse/" + key + "?filter=allopenissues", openIssues, stateCounts);
+    }
+
+    private static String searchURL(final String base, final String jql, final int startAt, final int maxResults) {
+        try {
+            return format("%s/rest/api/2/search?jql=%s&startAt=%d&maxResults=%d&fields=%s",
+                base, URLEncoder.encode(jql, "UTF-8"), startAt, maxResults, FIELDS);
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException("UTF-8 not supported", e);
+        }
+    }
 
+    /**
+     * Adds the issues of a search result page to {@code issues}, unless it is {@code null}.
+     *
+     * @return the total number of issues matching the search
+     */
+    static long readPage(final Reader body, final String base, final List<Issue> issues) throws IOException {
+        final JsonReader json = new JsonReader(body);
+        long total = 0;
+        json.beginObject();
+        while (json.hasNext()) {
+            final String name = json.nextName();
+            if ("total".equals(name)) {
+                total = json.nextLong();
+            } else if ("issues".equals(name) && issues != null && json.peek() == JsonReader.Token.BEGIN_ARRAY) {
+                json.beginArray();
+                while (json.hasNext()) {
+                    issues.add(readIssue(json, base));
+                }
+                json.endArray();
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+        return total;
+    }
+
+    private static Issue readIssue(final JsonReader json, final String base) throws IOException {
+        String key = null;
+        String summary = null;
+        Date created = null;
+        Date updated = null;
+        final Set<String> tags = new LinkedHashSet<>();
+
+        json.beginObject();
+        while (json.hasNext()) {
+            final String name = json.nextName();
+            if ("key".equals(name)) {
+                key = json.nextString();
+            } else if ("fields".equals(name) && json.peek() == JsonReader.Token.BEGIN_OBJECT) {
+                json.beginObject();
+                while (json.hasNext()) {
+                    switch (json.nextName()) {
+                        case "summary":
+                            summary = json.nextString();
+                            break;
+                        case "created":
+                            created = parseDate(json.nextString());
+                            break;
+                        case "updated":
+                            updated = parseDate(json.nextString());
+                            break;
+                        case "labels":
+                            readNames(json, tags, false);
+                            break;
+                        case "components":
+                            readNames(json, tags, true);
+                            break;
+                        default:
+                            json.skipValue();
+                    }
+                }
+                json.endObject();
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+
+        return new Issue(summary, base + "/browse/" + key, tags, created, updated);
+    }
+
+    /**
+     * Reads an array of strings, or of objects whose {@code name} is wanted, into {@code names}.
+     */
+    private static void readNames(final JsonReader json, final Set<String> names, final boolean objects) throws IOException {
+        if (json.peek() != JsonReader.Token.BEGIN_ARRAY) {
+            json.skipValue();
+            return;
+        }
+        json.beginArray();
+        while (json.hasNext()) {
+            if (!objects) {
+                names.add(json.nextString());
+                continue;
+            }
+            json.beginObject();
+            while (json.hasNext()) {
+                if ("name".equals(json.nextName())) {
+                    names.add(json.nextString());
+                } else {
+                    json.skipValue();
+                }
+            }
+            json.endObject();
+        }
+        json.endArray();
+    }
+
+    private static Date parseDate(final String text) {
+        if (text == null) {
+            return null;
+        }
         try {
-            driver.get(uri.toString());
-
-            final List<WebElement> issueListElements = driver.findElementsByCssSelector("ol.issue-list > li[data-key]");
-
-            final List<Issue> openIssues = issueListElements
-                .stream()
-                .map(el -> {
-                    final WebElement linkEl = el.findElement(By.cssSelector("a.splitview-issue-link"));
-                    final WebElement titleEl = el.findElement(By.cssSelector("span.issue-link-summary"));
-                    return new Issue(titleEl.getText(), baseURI + linkEl.getAttribute("href"), emptySet(), null, null);
-                })
-                .collect(toList());
-
-            return new IssueSnapshot(new Date(), "jira", uri.toString(), openIssues, emptyList());
-        } finally {
-            driver.quit();
+            return Date.from(OffsetDateTime.parse(text, DATE).toInstant());
+        } catch (DateTimeParseException e) {
+            return null;
         }
     }
 }
@@ -0,0 +1,83 @@
+package com.github.maven.plugin.oss;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+/**
+ * Writes the report as JSON Lines: one object per section, on its own line, carrying the report title, the
+ * artifacts, the issue site, the status, the state counts and the open issues.
+ */
+final class JsonLinesReportSink implements ReportSink {
+
+    private final Writer out;
+    private String       title;
+
+    JsonLinesReportSink(final Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void begin(final String title) {
+        this.title = title;
+    }
+
+    @Override
+    public void section(final ReportSection section) throws IOException {
+        final JsonWriter json = new JsonWriter(out).beginObject()
+            .name("report").value(title)
+            .name("name").value(section.getName())
+            .name("imports").value(section.getImports())
+            .name("artifacts").beginArray();
+        for (final Pair<String, Long> artifact : section.getArtifacts()) {
+            json.beginObject()
+                .name("coordinates").value(artifact.getLeft())
+                .name("imports").value(artifact.getRight())
+                .endObject();
+        }
+        json.endArray()
+            .name("issueSystem").value(section.getIssueSite() == null ? null : section.getIssueSite().getLeft())
+            .name("issueSite").value(section.getIssueSite() == null ? null : section.getIssueSite().getRight())
+            .name("status").value(section.getStatus().name().toLowerCase());
+
+        final IssueSnapshot snapshot = section.getSnapshot();
+        if (snapshot != null) {
+            json.name("snapshotDate").value(date(snapshot.getSnapshotDate()))
+                .name("issuesUrl").value(snapshot.getUrl())
+                .name("stateCounts").beginObject();
+            for (final Pair<String, Integer> count : snapshot.getStateCounts()) {
+                json.name(count.getLeft()).value(count.getRight());
+            }
+            json.endObject().name("openIssues").beginArray();
+            for (final Issue issue : snapshot.getOpenIssues()) {
+                json.beginObject()
+                    .name("title").value(issue.getTitle())
+                    .name("url").value(issue.getUrl())
+                    .name("tags").beginArray();
+                for (final String tag : issue.getTags()) {
+                    json.value(tag);
+                }
+                json.endArray()
+                    .name("created").value(date(issue.getCreated()))
+                    .name("lastActivity").value(date(issue.getLastActivity()))
+                    .endObject();
+            }
+            json.endArray();
+        }
+        json.endObject();
+        out.append('\n');
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private static String date(final Date date) {
+        return date == null ? null : DateTimeFormatter.ISO_INSTANT.format(date.toInstant());
+    }
+}
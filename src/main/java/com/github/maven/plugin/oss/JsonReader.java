@@ -0,0 +1,321 @@
+package com.github.maven.plugin.oss;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A pull parser for JSON documents: values are read one token at a time and never collected into a tree,
+ * so a response of thousands of issues is parsed into just the fields the caller keeps. Values the caller
+ * is not interested in are passed over with {@link #skipValue()} without allocating.
+ * <p>
+ * Separators are not validated: the reader expects well-formed JSON and reports malformed input only as
+ * far as it gets in the way of the token being read.
+ */
+final class JsonReader {
+
+    enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private final Reader        in;
+    private final char[]        buffer = new char[8192];
+    private final StringBuilder text   = new StringBuilder();
+    private int                 position;
+    private int                 limit;
+
+    // whether the next string in the current object is a name
+    private boolean expectName;
+    private long    objects; // one bit per nesting level, set for objects, for the innermost 64 levels
+    private int     depth;
+
+    JsonReader(final Reader in) {
+        this.in = in;
+    }
+
+    Token peek() throws IOException {
+        final int c = nextSignificant();
+        switch (c) {
+            case -1:
+                return Token.END_DOCUMENT;
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '}':
+                return Token.END_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case ']':
+                return Token.END_ARRAY;
+            case '"':
+                return expectName ? Token.NAME : Token.STRING;
+            case 't':
+            case 'f':
+                return Token.BOOLEAN;
+            case 'n':
+                return Token.NULL;
+            default:
+                return Token.NUMBER;
+        }
+    }
+
+    /**
+     * @return whether the current object or array has another element
+     */
+    boolean hasNext() throws IOException {
+        final int c = nextSignificant();
+        return c != '}' && c != ']' && c != -1;
+    }
+
+    void beginObject() throws IOException {
+        expect('{');
+        push(true);
+    }
+
+    void endObject() throws IOException {
+        expect('}');
+        pop();
+    }
+
+    void beginArray() throws IOException {
+        expect('[');
+        push(false);
+    }
+
+    void endArray() throws IOException {
+        expect(']');
+        pop();
+    }
+
+    String nextName() throws IOException {
+        if (!expectName || nextSignificant() != '"') {
+            throw syntaxError("name expected");
+        }
+        position++;
+        final String name = readString(true);
+        expectName = false;
+        return name;
+    }
+
+    /**
+     * @return the next string, or {@code null} if the next value is {@code null}
+     */
+    String nextString() throws IOException {
+        final int c = nextSignificant();
+        if (c == 'n') {
+            readLiteral();
+            valueRead();
+            return null;
+        }
+        if (c != '"') {
+            throw syntaxError("string expected");
+        }
+        position++;
+        final String value = readString(true);
+        valueRead();
+        return value;
+    }
+
+    long nextLong() throws IOException {
+        final int c = nextSignificant();
+        if (c != '-' && (c < '0' || c > '9')) {
+            throw syntaxError("number expected");
+        }
+        final String literal = readLiteral();
+        valueRead();
+        try {
+            return Long.parseLong(literal);
+        } catch (NumberFormatException e) {
+            return (long) Double.parseDouble(literal);
+        }
+    }
+
+    double nextDouble() throws IOException {
+        final int c = nextSignificant();
+        if (c != '-' && (c < '0' || c > '9')) {
+            throw syntaxError("number expected");
+        }
+        final String literal = readLiteral();
+        valueRead();
+        try {
+            return Double.parseDouble(literal);
+        } catch (NumberFormatException e) {
+            throw syntaxError("number expected");
+        }
+    }
+
+    /**
+     * Skips the next value, including everything nested in it, or the next name and its value.
+     */
+    void skipValue() throws IOException {
+        if (expectName && nextSignificant() == '"') {
+            position++;
+            readString(false);
+            expectName = false;
+        }
+
+        int nested = 0;
+        do {
+            final int c = nextSignificant();
+            switch (c) {
+                case -1:
+                    throw syntaxError("value expected");
+                case '{':
+                case '[':
+                    position++;
+                    push(c == '{');
+                    nested++;
+                    break;
+                case '}':
+                case ']':
+                    position++;
+                    pop();
+                    nested--;
+                    break;
+                case '"':
+                    position++;
+                    readString(false);
+                    if (expectName) {
+                        expectName = false;
+                    } else {
+                        valueRead();
+                    }
+                    break;
+                default:
+                    readLiteral();
+                    valueRead();
+            }
+        } while (nested > 0);
+    }
+
+    private void push(final boolean object) {
+        depth++;
+        objects = (objects << 1) | (object ? 1 : 0);
+        expectName = object;
+    }
+
+    private void pop() {
+        depth--;
+        objects >>>= 1;
+        valueRead();
+    }
+
+    private void valueRead() {
+        // after a value in an object a name follows; the bit is meaningless at the top level
+        expectName = depth > 0 && (objects & 1) != 0;
+    }
+
+    private void expect(final char c) throws IOException {
+        if (nextSignificant() != c) {
+            throw syntaxError("'" + c + "' expected");
+        }
+        position++;
+    }
+
+    /**
+     * Skips whitespace and separators and returns the next character without consuming it.
+     */
+    private int nextSignificant() throws IOException {
+        while (true) {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            final char c = buffer[position];
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == ',' || c == ':') {
+                position++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    /**
+     * Reads the rest of a string whose opening quote was consumed.
+     *
+     * @param keep whether to return the string; skipped strings are not decoded
+     */
+    private String readString(final boolean keep) throws IOException {
+        text.setLength(0);
+        while (true) {
+            if (position == limit && !fill()) {
+                throw syntaxError("unterminated string");
+            }
+            final char c = buffer[position++];
+            if (c == '"') {
+                return keep ? text.toString() : null;
+            }
+            if (c != '\\') {
+                if (keep) {
+                    text.append(c);
+                }
+                continue;
+            }
+
+            if (position == limit && !fill()) {
+                throw syntaxError("unterminated escape");
+            }
+            final char escaped = buffer[position++];
+            switch (escaped) {
+                case 'b':
+                    text.append('\b');
+                    break;
+                case 'f':
+                    text.append('\f');
+                    break;
+                case 'n':
+                    text.append('\n');
+                    break;
+                case 'r':
+                    text.append('\r');
+                    break;
+                case 't':
+                    text.append('\t');
+                    break;
+                case 'u':
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        if (position == limit && !fill()) {
+                            throw syntaxError("unterminated escape");
+                        }
+                        final int digit = Character.digit(buffer[position++], 16);
+                        if (digit < 0) {
+                            throw syntaxError("malformed escape");
+                        }
+                        code = (code << 4) | digit;
+                    }
+                    text.append((char) code);
+                    break;
+                default:
+                    text.append(escaped);
+            }
+        }
+    }
+
+    /**
+     * Reads a number, {@code true}, {@code false} or {@code null}.
+     */
+    private String readLiteral() throws IOException {
+        text.setLength(0);
+        while (position < limit || fill()) {
+            final char c = buffer[position];
+            if (c == ',' || c == '}' || c == ']' || c == ':' || c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                break;
+            }
+            text.append(c);
+            position++;
+        }
+        if (text.length() == 0) {
+            throw syntaxError("value expected");
+        }
+        return text.toString();
+    }
+
+    private boolean fill() throws IOException {
+        final int read = in.read(buffer, 0, buffer.length);
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    private IOException syntaxError(final String message) {
+        return new IOException("Malformed JSON: " + message);
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.maven.plugin.oss;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A minimal streaming JSON writer, the counterpart of {@link JsonReader}: separators between members and
+ * elements are written as needed, strings are escaped. Nothing is buffered beyond the underlying writer.
+ */
+final class JsonWriter {
+
+    private final Writer out;
+
+    // whether the current object or array has a member or element already, one bit per nesting level
+    private long    nonEmpty;
+    private boolean afterName;
+
+    JsonWriter(final Writer out) {
+        this.out = out;
+    }
+
+    JsonWriter beginObject() throws IOException {
+        separate();
+        out.write('{');
+        nonEmpty <<= 1;
+        return this;
+    }
+
+    JsonWriter endObject() throws IOException {
+        out.write('}');
+        nonEmpty >>>= 1;
+        return this;
+    }
+
+    JsonWriter beginArray() throws IOException {
+        separate();
+        out.write('[');
+        nonEmpty <<= 1;
+        return this;
+    }
+
+    JsonWriter endArray() throws IOException {
+        out.write(']');
+        nonEmpty >>>= 1;
+        return this;
+    }
+
+    JsonWriter name(final String name) throws IOException {
+        separate();
+        string(name);
+        out.write(':');
+        afterName = true;
+        return this;
+    }
+
+    JsonWriter value(final String value) throws IOException {
+        separate();
+        if (value == null) {
+            out.write("null");
+        } else {
+            string(value);
+        }
+        return this;
+    }
+
+    JsonWriter value(final long value) throws IOException {
+        separate();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes a number, or {@code null} for {@code NaN} and infinities, which JSON cannot represent.
+     */
+    JsonWriter value(final double value) throws IOException {
+        separate();
+        out.write(Double.isNaN(value) || Double.isInfinite(value) ? "null" : Double.toString(value));
+        return this;
+    }
+
+    private void separate() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if ((nonEmpty & 1) != 0) {
+            out.write(',');
+        }
+        nonEmpty |= 1;
+    }
+
+    private void string(final String text) throws IOException {
+        out.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
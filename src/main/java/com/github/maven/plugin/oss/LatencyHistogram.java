@@ -0,0 +1,79 @@
+package com.github.maven.plugin.oss;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts latencies in microsecond buckets four to a power of two, so quantiles are known within 25% at a
+ * fixed size of a few kilobytes however many latencies are recorded. Safe for concurrent use.
+ */
+final class LatencyHistogram {
+
+    private static final int BUCKETS = 4 * 64;
+
+    private final AtomicLongArray counts      = new AtomicLongArray(BUCKETS);
+    private final LongAdder       count       = new LongAdder();
+    private final LongAdder       totalMicros = new LongAdder();
+    private final LongAccumulator maxMicros   = new LongAccumulator(Long::max, 0);
+
+    void record(final long nanos) {
+        final long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        counts.incrementAndGet(bucket(micros));
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    long getCount() {
+        return count.sum();
+    }
+
+    double getMeanMillis() {
+        final long n = count.sum();
+        return n == 0 ? 0 : totalMicros.sum() / 1000.0 / n;
+    }
+
+    double getMaxMillis() {
+        return maxMicros.get() / 1000.0;
+    }
+
+    /**
+     * @param quantile between {@code 0} and {@code 1}
+     * @return the upper bound of the bucket holding the quantile, and at most the maximum
+     */
+    double getQuantileMillis(final double quantile) {
+        final long n = count.sum();
+        if (n == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(quantile * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxMicros.get()) / 1000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    static int bucket(final long micros) {
+        if (micros < 4) {
+            return (int) micros;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        final int quarter = (int) (micros >>> (exponent - 2)) & 3;
+        return (exponent - 1) * 4 + quarter;
+    }
+
+    static long upperBound(final int bucket) {
+        if (bucket < 4) {
+            return bucket;
+        }
+        final int exponent = bucket / 4 + 1;
+        final int quarter = bucket % 4;
+        return ((5L + quarter) << (exponent - 2)) - 1;
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.maven.plugin.oss;
+
+import net.steppschuh.markdowngenerator.link.Link;
+import net.steppschuh.markdowngenerator.list.UnorderedList;
+import net.steppschuh.markdowngenerator.table.Table;
+import net.steppschuh.markdowngenerator.text.Text;
+import net.steppschuh.markdowngenerator.text.emphasis.BoldText;
+import net.steppschuh.markdowngenerator.text.heading.Heading;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the report as a Markdown document: a heading per section, the artifacts and their import
+ * counts, the state counts and a table of the open issues.
+ */
+final class MarkdownReportSink implements ReportSink {
+
+    private final Writer out;
+
+    MarkdownReportSink(final Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void begin(final String title) throws IOException {
+        out.append(new Heading(title, 1).toString()).append("\n");
+        out.flush();
+    }
+
+    @Override
+    public void section(final ReportSection section) throws IOException {
+        out.append(heading(section));
+        switch (section.getStatus()) {
+            case SCRAPED:
+                out.append(issues(section.getSnapshot()));
+                break;
+            case UNKNOWN:
+                out.append(new Text("Issues: unknown").toString()).append("\n");
+                break;
+            case OFFLINE:
+                out.append(new Text("Issues: not cached (offline)").toString()).append("\n");
+                break;
+            case PENDING:
+                out.append(new Text("Issues: pending (report deadline reached)").toString()).append("\n");
+                break;
+            case SKIPPED:
+                out.append(new Text("Issues: not scraped").toString()).append("\n");
+                break;
+            default:
+                break;
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private static String heading(final ReportSection section) {
+        final List<Pair<String, Long>> artifacts = section.getArtifacts();
+        final StringBuilder md = new StringBuilder().append(new Heading(section.getName(), 2)).append("\n");
+        if (artifacts.size() == 1) {
+            return md
+                .append(new Text(artifacts.get(0).getLeft())).append("\n")
+                .append(new BoldText(artifacts.get(0).getRight())).append(new Text(" imports declared.")).append("\n\n")
+                .toString();
+        }
+
+        final List<String> items = new ArrayList<>(artifacts.size());
+        for (final Pair<String, Long> artifact : artifacts) {
+            items.add(artifact.getLeft() + " (" + artifact.getRight() + " imports)");
+        }
+        return md
+            .append(new UnorderedList<>(items)).append("\n\n")
+            .append(new BoldText(section.getImports()))
+            .append(new Text(" imports declared across " + artifacts.size() + " artifacts sharing one issue site.")).append("\n\n")
+            .toString();
+    }
+
+    private static String issues(final IssueSnapshot snapshot) {
+        final StringBuilder md = new StringBuilder();
+        md.append(new Link("Issues", snapshot.getUrl())).append("\n\n");
+        if (!snapshot.getStateCounts().isEmpty()) {
+            md.append(new Text("State Counts")).append("\n");
+            md.append(new UnorderedList<>(snapshot.getStateCounts())).append("\n\n");
+        }
+
+        if (!snapshot.getOpenIssues().isEmpty()) {
+            Table.Builder tableBuilder = new Table.Builder()
+                .withAlignments(Table.ALIGN_LEFT, Table.ALIGN_LEFT)
+                .addRow("Title", "Tags");
+
+            snapshot.getOpenIssues().forEach(i ->
+                tableBuilder.addRow(new Link(i.getTitle(), i.getUrl()), String.join(", ", i.getTags())));
+            md.append(tableBuilder.build()).append("\n\n");
+        }
+        return md.toString();
+    }
+}
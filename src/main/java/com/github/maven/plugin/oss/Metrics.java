@@ -0,0 +1,318 @@
+package com.github.maven.plugin.oss;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wall time, CPU time, item and byte counts of each phase of a run and of each dependency, and latency
+ * histograms of issue site requests. Logged as a summary table at the end of a run and optionally written
+ * as JSON, so trends can be tracked across builds.
+ * <p>
+ * The CPU time of a phase is that of the whole process while the phase ran, so it includes the analysis pool
+ * and is only meaningful for phases that do not overlap. Phases are timed from the mojo thread one at a time;
+ * their counts and the per-dependency figures may be added from any thread. The CPU time of a dependency is
+ * that of the threads indexing its JAR and resolving its lineage; a parent POM another dependency is already
+ * resolving is waited for, so its CPU time counts for that dependency only.
+ */
+final class Metrics {
+
+    /**
+     * Time measured until stopped.
+     */
+    interface Timing {
+
+        void stop();
+    }
+
+    private static final double  MB       = 1024.0 * 1024.0;
+    private static final boolean CPU_TIME        = processCpuNanos() >= 0;
+    private static final boolean THREAD_CPU_TIME = threadCpuNanos() >= 0;
+
+    private final Map<String, Phase>            phases       = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, LatencyHistogram> latencies    = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, Dependency>       dependencies = new ConcurrentHashMap<>();
+
+    private final long startNanos    = System.nanoTime();
+    private final long startCpuNanos = processCpuNanos();
+
+    /**
+     * @param unit what the items of the phase are, such as {@code files}
+     */
+    Phase phase(final String name, final String unit) {
+        return phases.computeIfAbsent(name, n -> new Phase(n, unit));
+    }
+
+    LatencyHistogram latencies(final String name) {
+        return latencies.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    /**
+     * Reports the latencies another component keeps under {@code name}.
+     */
+    void register(final String name, final LatencyHistogram histogram) {
+        latencies.put(name, histogram);
+    }
+
+    Dependency dependency(final String coordinates) {
+        return dependencies.computeIfAbsent(coordinates, c -> new Dependency());
+    }
+
+    /**
+     * Logs the phases, the latencies and the {@code slowest} dependencies taking the most time.
+     */
+    void log(final Log log, final int slowest) {
+        log.info(String.format("Run metrics: %s wall, %s CPU", duration(System.nanoTime() - startNanos),
+            CPU_TIME ? duration(processCpuNanos() - startCpuNanos) : "-"));
+        log.info(String.format("  %-24s %10s %10s %20s %12s", "Phase", "Wall", "CPU", "Items", "Bytes"));
+        for (final Phase phase : snapshot(phases)) {
+            log.info(String.format("  %-24s %10s %10s %20s %12s", phase.name, duration(phase.wallNanos.sum()),
+                CPU_TIME ? duration(phase.cpuNanos.sum()) : "-",
+                String.format("%,d %s", phase.items.sum(), phase.unit), bytes(phase.bytes.sum())));
+        }
+
+        final List<Map.Entry<String, LatencyHistogram>> histograms = new ArrayList<>();
+        synchronized (latencies) {
+            latencies.entrySet().stream().filter(e -> e.getValue().getCount() > 0).forEach(histograms::add);
+        }
+        if (!histograms.isEmpty()) {
+            log.info(String.format("  %-24s %10s %10s %10s %10s %10s %10s", "Latency (ms)", "Count", "Mean", "p50", "p90", "p99", "Max"));
+            for (final Map.Entry<String, LatencyHistogram> entry : histograms) {
+                final LatencyHistogram histogram = entry.getValue();
+                log.info(String.format("  %-24s %,10d %10.1f %10.1f %10.1f %10.1f %10.1f", entry.getKey(), histogram.getCount(),
+                    histogram.getMeanMillis(), histogram.getQuantileMillis(0.5), histogram.getQuantileMillis(0.9),
+                    histogram.getQuantileMillis(0.99), histogram.getMaxMillis()));
+            }
+        }
+
+        final List<Map.Entry<String, Dependency>> ordered = orderedDependencies();
+        if (!ordered.isEmpty() && slowest > 0) {
+            log.info(String.format("  %-56s %8s %8s %8s %10s %8s %8s %8s %7s",
+                "Slowest " + Math.min(slowest, ordered.size()) + " of " + ordered.size() + " dependencies",
+                "Total", "Index", "Classes", "JAR", "Lineage", "CPU", "Scrape", "Issues"));
+            for (final Map.Entry<String, Dependency> entry : ordered.subList(0, Math.min(slowest, ordered.size()))) {
+                final Dependency dependency = entry.getValue();
+                log.info(String.format("  %-56s %8s %8s %,8d %10s %8s %8s %8s %,7d", entry.getKey(),
+                    duration(dependency.getTotalNanos()), duration(dependency.indexNanos.sum()), dependency.classes.sum(),
+                    bytes(dependency.jarBytes.sum()), duration(dependency.lineageNanos.sum()),
+                    THREAD_CPU_TIME ? duration(dependency.cpuNanos.sum()) : "-",
+                    duration(dependency.scrapeNanos.sum()), dependency.issues.sum()));
+            }
+        }
+    }
+
+    void write(final File file) throws IOException {
+        final File parent = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(parent.toPath());
+        Utility.writeAtomically(file.toPath(), stream -> {
+            final Writer out = new OutputStreamWriter(stream, UTF_8);
+            write(new JsonWriter(out));
+            out.flush();
+        });
+    }
+
+    private void write(final JsonWriter json) throws IOException {
+        json.beginObject()
+            .name("wallMillis").value(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos))
+            .name("cpuMillis").value(CPU_TIME ? TimeUnit.NANOSECONDS.toMillis(processCpuNanos() - startCpuNanos) : -1)
+            .name("phases").beginArray();
+        for (final Phase phase : snapshot(phases)) {
+            json.beginObject()
+                .name("name").value(phase.name)
+                .name("wallMillis").value(TimeUnit.NANOSECONDS.toMillis(phase.wallNanos.sum()))
+                .name("cpuMillis").value(CPU_TIME ? TimeUnit.NANOSECONDS.toMillis(phase.cpuNanos.sum()) : -1)
+                .name("items").value(phase.items.sum())
+                .name("unit").value(phase.unit)
+                .name("bytes").value(phase.bytes.sum())
+                .endObject();
+        }
+
+        json.endArray().name("latencies").beginArray();
+        final Map<String, LatencyHistogram> histograms;
+        synchronized (latencies) {
+            histograms = new LinkedHashMap<>(latencies);
+        }
+        for (final Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            final LatencyHistogram histogram = entry.getValue();
+            json.beginObject()
+                .name("name").value(entry.getKey())
+                .name("count").value(histogram.getCount())
+                .name("meanMillis").value(histogram.getMeanMillis())
+                .name("p50Millis").value(histogram.getQuantileMillis(0.5))
+                .name("p90Millis").value(histogram.getQuantileMillis(0.9))
+                .name("p99Millis").value(histogram.getQuantileMillis(0.99))
+                .name("maxMillis").value(histogram.getMaxMillis())
+                .endObject();
+        }
+
+        json.endArray().name("dependencies").beginArray();
+        for (final Map.Entry<String, Dependency> entry : orderedDependencies()) {
+            final Dependency dependency = entry.getValue();
+            json.beginObject()
+                .name("coordinates").value(entry.getKey())
+                .name("indexMillis").value(TimeUnit.NANOSECONDS.toMillis(dependency.indexNanos.sum()))
+                .name("classes").value(dependency.classes.sum())
+                .name("jarBytes").value(dependency.jarBytes.sum())
+                .name("lineageMillis").value(TimeUnit.NANOSECONDS.toMillis(dependency.lineageNanos.sum()))
+                .name("cpuMillis").value(THREAD_CPU_TIME ? TimeUnit.NANOSECONDS.toMillis(dependency.cpuNanos.sum()) : -1)
+                .name("scrapeMillis").value(TimeUnit.NANOSECONDS.toMillis(dependency.scrapeNanos.sum()))
+                .name("issues").value(dependency.issues.sum())
+                .endObject();
+        }
+        json.endArray().endObject();
+    }
+
+    private List<Map.Entry<String, Dependency>> orderedDependencies() {
+        final List<Map.Entry<String, Dependency>> ordered = new ArrayList<>(dependencies.entrySet());
+        ordered.sort(Comparator.comparingLong((Map.Entry<String, Dependency> e) -> e.getValue().getTotalNanos()).reversed()
+            .thenComparing(Map.Entry::getKey));
+        return ordered;
+    }
+
+    private static List<Phase> snapshot(final Map<String, Phase> phases) {
+        synchronized (phases) {
+            return new ArrayList<>(phases.values());
+        }
+    }
+
+    private static String duration(final long nanos) {
+        if (nanos >= TimeUnit.SECONDS.toNanos(1)) {
+            return String.format("%.1f s", nanos / 1e9);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(nanos) + " ms";
+    }
+
+    private static String bytes(final long bytes) {
+        if (bytes >= MB) {
+            return String.format("%.1f MB", bytes / MB);
+        }
+        return String.format("%.1f KB", bytes / 1024.0);
+    }
+
+    /**
+     * @return the CPU time of this process, or {@code -1} if the JVM does not tell
+     */
+    static long processCpuNanos() {
+        final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    /**
+     * @return the CPU time of the current thread, or {@code -1} if the JVM does not tell
+     */
+    static long threadCpuNanos() {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled()) {
+            return threads.getCurrentThreadCpuTime();
+        }
+        return -1;
+    }
+
+    static final class Phase {
+
+        private final String name;
+        private final String unit;
+
+        private final LongAdder wallNanos = new LongAdder();
+        private final LongAdder cpuNanos  = new LongAdder();
+        private final LongAdder items     = new LongAdder();
+        private final LongAdder bytes     = new LongAdder();
+
+        private Phase(final String name, final String unit) {
+            this.name = name;
+            this.unit = unit;
+        }
+
+        Timing start() {
+            final long wall = System.nanoTime();
+            final long cpu = processCpuNanos();
+            return () -> {
+                wallNanos.add(System.nanoTime() - wall);
+                cpuNanos.add(processCpuNanos() - cpu);
+            };
+        }
+
+        void add(final long items, final long bytes) {
+            this.items.add(items);
+            this.bytes.add(bytes);
+        }
+
+        long getItems() {
+            return items.sum();
+        }
+
+        long getBytes() {
+            return bytes.sum();
+        }
+
+        long getWallNanos() {
+            return wallNanos.sum();
+        }
+    }
+
+    static final class Dependency {
+
+        private final LongAdder indexNanos   = new LongAdder();
+        private final LongAdder classes      = new LongAdder();
+        private final LongAdder jarBytes     = new LongAdder();
+        private final LongAdder lineageNanos = new LongAdder();
+        private final LongAdder cpuNanos     = new LongAdder();
+        private final LongAdder scrapeNanos  = new LongAdder();
+        private final LongAdder issues       = new LongAdder();
+
+        /**
+         * @param cpuNanos CPU time of the indexing thread, as told by {@link #threadCpuNanos()}
+         */
+        void indexed(final long nanos, final long cpuNanos, final long classes, final long jarBytes) {
+            indexNanos.add(nanos);
+            this.cpuNanos.add(cpuNanos);
+            this.classes.add(classes);
+            this.jarBytes.add(jarBytes);
+        }
+
+        /**
+         * @param cpuNanos CPU time of the resolving thread, as told by {@link #threadCpuNanos()}
+         */
+        void lineageResolved(final long nanos, final long cpuNanos) {
+            lineageNanos.add(nanos);
+            this.cpuNanos.add(cpuNanos);
+        }
+
+        /**
+         * @param nanos time from starting the section of the dependency until its issues were known
+         */
+        void scraped(final long nanos, final long issues) {
+            scrapeNanos.add(nanos);
+            this.issues.add(issues);
+        }
+
+        long getTotalNanos() {
+            return indexNanos.sum() + lineageNanos.sum() + scrapeNanos.sum();
+        }
+
+        long getClasses() {
+            return classes.sum();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.github.maven.plugin.oss;
+
+import static com.github.maven.plugin.oss.Utility.readVarInt;
+import static com.github.maven.plugin.oss.Utility.writeVarInt;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableMap;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers how often each reactor module uses each dependency, together with a manifest of what those
+ * counts were computed from, so modules whose manifest did not change are not analyzed again.
+ * <p>
+ * A manifest digests the path, size and modification time of each input file. Counts computed while an
+ * input was modified within the last two seconds are not kept, as a later edit of the same size may share
+ * that modification time.
+ * <p>
+ * Stored as a {@link CacheFile} (version 1): for each module its key, its manifest digest and its count per
+ * dependency artifact id.
+ */
+final class ModuleUsageCache {
+
+    static final int VERSION = 1;
+
+    private static final int  MAGIC       = 0x4F53534D; // "OSSM"
+    private static final long RACY_WINDOW = 2000L;
+
+    private final CacheFile file;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Entry> updated = new ConcurrentHashMap<>();
+    private final LongAdder          hits    = new LongAdder();
+    private final LongAdder          misses  = new LongAdder();
+
+    /**
+     * @param cacheFile where counts are kept between runs; {@code null} keeps them for this run only
+     */
+    ModuleUsageCache(final File cacheFile) {
+        this.file = new CacheFile(cacheFile, MAGIC, VERSION, null, "module usage cache");
+    }
+
+    /**
+     * @return the counts per dependency artifact id stored for {@code module} with the same manifest, or
+     *         {@code null} if the module has to be analyzed
+     */
+    Map<String, Long> get(final String module, final Manifest manifest) {
+        final Entry entry = entries.get(module);
+        if (entry != null && Arrays.equals(entry.digest, manifest.digest())) {
+            hits.increment();
+            return entry.counts;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Stores the counts of {@code module}, unless an input of its manifest changed too recently to tell.
+     */
+    void put(final String module, final Manifest manifest, final Map<String, Long> counts) {
+        if (manifest.isConfirmed()) {
+            final Entry entry = new Entry(manifest.digest(), unmodifiableMap(new HashMap<>(counts)));
+            entries.put(module, entry);
+            updated.put(module, entry);
+        }
+    }
+
+    /**
+     * @return number of modules whose stored counts were reused
+     */
+    long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of modules analyzed
+     */
+    long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Loads the counts stored by earlier runs, if any.
+     *
+     * @throws IOException if the file is unreadable or corrupt; the cache then starts empty
+     */
+    void load() throws IOException {
+        file.read(ModuleUsageCache::readEntries, HashMap<String, Entry>::new).forEach(entries::putIfAbsent);
+    }
+
+    /**
+     * Writes the modules analyzed in this run, merging in those another build stored in the meantime.
+     */
+    void save() throws IOException {
+        if (updated.isEmpty()) {
+            return;
+        }
+        final Map<String, Entry> saved = file.readForMerge(ModuleUsageCache::readEntries, HashMap::new);
+        saved.putAll(updated);
+
+        file.write(out -> {
+            writeVarInt(out, saved.size());
+            for (final Map.Entry<String, Entry> e : saved.entrySet()) {
+                final Entry entry = e.getValue();
+                out.writeUTF(e.getKey());
+                out.write(entry.digest);
+                writeVarInt(out, entry.counts.size());
+                for (final Map.Entry<String, Long> count : entry.counts.entrySet()) {
+                    out.writeUTF(count.getKey());
+                    out.writeLong(count.getValue());
+                }
+            }
+        });
+    }
+
+    private static Map<String, Entry> readEntries(final DataInputStream in) throws IOException {
+        final int moduleCount = readVarInt(in);
+        final Map<String, Entry> loaded = new HashMap<>(moduleCount * 2);
+        for (int i = 0; i < moduleCount; i++) {
+            final String module = in.readUTF();
+            final byte[] digest = new byte[20];
+            in.readFully(digest);
+            final int countCount = readVarInt(in);
+            final Map<String, Long> counts = new HashMap<>(countCount * 2);
+            for (int j = 0; j < countCount; j++) {
+                counts.put(in.readUTF(), in.readLong());
+            }
+            loaded.put(module, new Entry(digest, unmodifiableMap(counts)));
+        }
+        return loaded;
+    }
+
+    /**
+     * Digest of the inputs the usage of a module is computed from, taken in the order they are added.
+     */
+    static final class Manifest {
+
+        private final MessageDigest sha1 = sha1();
+        private final long          now  = System.currentTimeMillis();
+        private boolean             confirmed = true;
+        private byte[]              digest;
+
+        Manifest add(final String text) {
+            sha1.update(text.getBytes(UTF_8));
+            sha1.update((byte) 0);
+            return this;
+        }
+
+        /**
+         * Adds the path, size and modification time of {@code file}; {@code null} stands for no file.
+         */
+        Manifest add(final File file) {
+            if (file == null) {
+                return add("");
+            }
+            final long modified = file.lastModified();
+            add(file.getAbsolutePath());
+            add(file.length() + ":" + modified);
+            confirmed &= now - modified >= RACY_WINDOW;
+            return this;
+        }
+
+        /**
+         * Adds the digest of {@code manifest}, which is complete from then on.
+         */
+        Manifest add(final Manifest manifest) {
+            sha1.update(manifest.digest());
+            confirmed &= manifest.confirmed;
+            return this;
+        }
+
+        /**
+         * @return the SHA-1 of everything added; nothing can be added afterwards
+         */
+        synchronized byte[] digest() {
+            if (digest == null) {
+                digest = sha1.digest();
+            }
+            return digest;
+        }
+
+        /**
+         * @return whether no input was modified too recently for its modification time to be trusted
+         */
+        boolean isConfirmed() {
+            return confirmed;
+        }
+
+        private static MessageDigest sha1() {
+            try {
+                return MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final byte[]            digest;
+        private final Map<String, Long> counts;
+
+        Entry(final byte[] digest, final Map<String, Long> counts) {
+            this.digest = digest;
+            this.counts = counts;
+        }
+    }
+}
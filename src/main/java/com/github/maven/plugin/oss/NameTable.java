@@ -0,0 +1,174 @@
+package com.github.maven.plugin.oss;
+
+/**
+ * Append-only set of names stored in one pool, addressed by insertion index. The pool holds one byte
+ * per char while every char fits in Latin-1, and widens to chars otherwise.
+ */
+final class NameTable {
+
+    private byte[] narrow;
+    private char[] wide;
+    private int    length;
+    private int[]  starts;
+    private int    size;
+    private int[]  slots;
+
+    NameTable(final int expected) {
+        narrow = new byte[expected * 16];
+        starts = new int[expected + 1];
+        slots  = new int[Integer.highestOneBit(expected * 2 - 1) << 1];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int indexOf(final CharSequence s, final int from, final int to) {
+        final int mask = slots.length - 1;
+        for (int slot = hash(s, from, to) & mask; ; slot = (slot + 1) & mask) {
+            final int entry = slots[slot] - 1;
+            if (entry < 0) {
+                return -1;
+            }
+            if (matches(entry, s, from, to)) {
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * Replaces the contents of {@code into} with the name at {@code index}.
+     */
+    void copy(final int index, final StringBuilder into) {
+        into.setLength(0);
+        for (int i = starts[index]; i < starts[index + 1]; i++) {
+            into.append(charAt(i));
+        }
+    }
+
+    /**
+     * @return index of the name, newly added at {@link #size()} if it was absent
+     */
+    int add(final CharSequence s, final int from, final int to) {
+        final int existing = indexOf(s, from, to);
+        if (existing >= 0) {
+            return existing;
+        }
+
+        append(s, from, to);
+        if (size + 2 > starts.length) {
+            starts = grow(starts, starts.length * 2);
+        }
+        starts[size + 1] = length;
+
+        final int index = size++;
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        } else {
+            insert(index, hash(s, from, to));
+        }
+        return index;
+    }
+
+    void trimToSize() {
+        if (wide != null) {
+            final char[] trimmed = new char[length];
+            System.arraycopy(wide, 0, trimmed, 0, length);
+            wide = trimmed;
+        } else {
+            final byte[] trimmed = new byte[length];
+            System.arraycopy(narrow, 0, trimmed, 0, length);
+            narrow = trimmed;
+        }
+        starts = grow(starts, size + 1);
+        rehash(Integer.highestOneBit(Math.max(size * 2 - 1, 1)) << 1);
+    }
+
+    private void append(final CharSequence s, final int from, final int to) {
+        final int count = to - from;
+        if (wide == null) {
+            for (int i = from; i < to; i++) {
+                if (s.charAt(i) > 0xFF) {
+                    wide = new char[Math.max(narrow.length, length + count)];
+                    for (int j = 0; j < length; j++) {
+                        wide[j] = (char) (narrow[j] & 0xFF);
+                    }
+                    narrow = null;
+                    break;
+                }
+            }
+        }
+
+        if (wide != null) {
+            if (length + count > wide.length) {
+                final char[] grown = new char[Math.max(wide.length * 2, length + count)];
+                System.arraycopy(wide, 0, grown, 0, length);
+                wide = grown;
+            }
+            for (int i = from; i < to; i++) {
+                wide[length + i - from] = s.charAt(i);
+            }
+        } else {
+            if (length + count > narrow.length) {
+                final byte[] grown = new byte[Math.max(narrow.length * 2, length + count)];
+                System.arraycopy(narrow, 0, grown, 0, length);
+                narrow = grown;
+            }
+            for (int i = from; i < to; i++) {
+                narrow[length + i - from] = (byte) s.charAt(i);
+            }
+        }
+        length += count;
+    }
+
+    private char charAt(final int i) {
+        return wide != null ? wide[i] : (char) (narrow[i] & 0xFF);
+    }
+
+    private boolean matches(final int entry, final CharSequence s, final int from, final int to) {
+        final int start = starts[entry];
+        if (starts[entry + 1] - start != to - from) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (charAt(start + i - from) != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash(final int capacity) {
+        slots = new int[capacity];
+        for (int entry = 0; entry < size; entry++) {
+            int h = 0;
+            for (int i = starts[entry]; i < starts[entry + 1]; i++) {
+                h = 31 * h + charAt(i);
+            }
+            insert(entry, h ^ (h >>> 16));
+        }
+    }
+
+    private void insert(final int entry, final int hash) {
+        final int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = entry + 1;
+    }
+
+    private static int hash(final CharSequence s, final int from, final int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static int[] grow(final int[] array, final int length) {
+        final int[] copy = new int[length];
+        System.arraycopy(array, 0, copy, 0, Math.min(array.length, length));
+        return copy;
+    }
+}
@@ -0,0 +1,265 @@
+package com.github.maven.plugin.oss;
+
+import static com.github.maven.plugin.oss.Utility.readVarInt;
+import static com.github.maven.plugin.oss.Utility.resolveIssueSite;
+import static com.github.maven.plugin.oss.Utility.writeVarInt;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.shared.artifact.resolve.ArtifactResolverException;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+import java.io.BufferedInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolves the POM inheritance chain of artifacts, reading each parent POM once per run however many
+ * artifacts inherit from it, and remembers the project name and issue site found in each chain.
+ * <p>
+ * Parent chains are keyed by the parent's coordinates and shared as unmodifiable lists; the models in
+ * them are shared too and must not be modified. Resolving the same parent on several threads at once
+ * reads it once. The name and issue site of released artifacts are also kept in the cache file between
+ * runs, so their POMs are not read again; snapshots are always resolved.
+ * <p>
+ * Stored as a {@link CacheFile} (version 1): for each artifact its coordinates and its name, issue system
+ * and issue URL, each preceded by a presence flag.
+ */
+final class PomLineageCache {
+
+    static final int VERSION = 1;
+
+    private static final int MAGIC = 0x4F53534C; // "OSSL"
+
+    /**
+     * Locates the POM file of a parent.
+     */
+    interface ParentResolver {
+
+        File resolve(Parent parent) throws IOException, ArtifactResolverException;
+    }
+
+    private final CacheFile file;
+
+    private final Map<String, Lineage>              lineages  = new ConcurrentHashMap<>();
+    private final SingleFlight<String, Lineage>     resolving = new SingleFlight<>();
+    private final SingleFlight<String, List<Model>> parents   = new SingleFlight<>();
+    private final LongAdder                         hits      = new LongAdder();
+
+    /**
+     * @param cacheFile where lineages are kept between runs; {@code null} keeps them for this run only
+     */
+    PomLineageCache(final File cacheFile) {
+        this.file = new CacheFile(cacheFile, MAGIC, VERSION, null, "POM lineage cache");
+    }
+
+    /**
+     * @param coordinates {@code groupId:artifactId:version} of the artifact whose POM {@code pom} is
+     * @return the name and issue site of the artifact
+     */
+    Lineage lineage(final String coordinates, final File pom, final ParentResolver parentResolver)
+        throws IOException, XmlPullParserException, ArtifactResolverException {
+
+        final Lineage known = lineages.get(coordinates);
+        if (known != null) {
+            hits.increment();
+            return known;
+        }
+
+        final Lineage lineage = await(resolving.get(coordinates, () -> start(() -> {
+            final List<Model> models = resolve(pom, parentResolver);
+            return new Lineage(models.get(0).getName(), resolveIssueSite(models));
+        })));
+        lineages.putIfAbsent(coordinates, lineage);
+        return lineage;
+    }
+
+    /**
+     * @return the model of {@code pom} followed by the models of its parents, nearest first
+     */
+    List<Model> resolve(final File pom, final ParentResolver parentResolver)
+        throws IOException, XmlPullParserException, ArtifactResolverException {
+
+        final Model model = readModel(pom);
+        final List<Model> lineage = new ArrayList<>();
+        lineage.add(model);
+        lineage.addAll(parentChain(model.getParent(), parentResolver));
+        return unmodifiableList(lineage);
+    }
+
+    private List<Model> parentChain(final Parent parent, final ParentResolver parentResolver)
+        throws IOException, XmlPullParserException, ArtifactResolverException {
+
+        if (parent == null) {
+            return emptyList();
+        }
+        final String key = parent.getGroupId() + ":" + parent.getArtifactId() + ":" + parent.getVersion();
+        return await(parents.get(key, () -> start(() -> resolve(parentResolver.resolve(parent), parentResolver))));
+    }
+
+    /**
+     * @return number of artifacts whose lineage was resolved before, in this run or a previous one
+     */
+    long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of parent POMs read
+     */
+    long getParentsRead() {
+        return parents.getStarted();
+    }
+
+    /**
+     * @return number of times a parent chain was shared instead of read again
+     */
+    long getParentsShared() {
+        return parents.getShared();
+    }
+
+    /**
+     * Loads the lineages stored by earlier runs, if any.
+     *
+     * @throws IOException if the cache file is unreadable or corrupt; every lineage is then resolved again
+     */
+    void load() throws IOException {
+        file.read(PomLineageCache::readLineages, HashMap<String, Lineage>::new).forEach(lineages::putIfAbsent);
+    }
+
+    /**
+     * Writes the lineages of released artifacts; those of snapshots may change with their next deployment.
+     */
+    void save() throws IOException {
+        final Map<String, Lineage> saved = file.readForMerge(PomLineageCache::readLineages, HashMap::new);
+        lineages.forEach((coordinates, lineage) -> {
+            if (!coordinates.endsWith("-SNAPSHOT")) {
+                saved.put(coordinates, lineage);
+            }
+        });
+
+        file.write(out -> {
+            writeVarInt(out, saved.size());
+            for (final Map.Entry<String, Lineage> e : saved.entrySet()) {
+                final Lineage lineage = e.getValue();
+                out.writeUTF(e.getKey());
+                writeOptional(out, lineage.name);
+                writeOptional(out, lineage.issueSite == null ? null : lineage.issueSite.getLeft());
+                writeOptional(out, lineage.issueSite == null ? null : lineage.issueSite.getRight());
+            }
+        });
+    }
+
+    private static Map<String, Lineage> readLineages(final DataInputStream in) throws IOException {
+        final int count = readVarInt(in);
+        final Map<String, Lineage> loaded = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            final String coordinates = in.readUTF();
+            final String name = readOptional(in);
+            final String issueSystem = readOptional(in);
+            final String issueURL = readOptional(in);
+            loaded.put(coordinates, new Lineage(name, issueURL == null ? null : Pair.of(issueSystem, issueURL)));
+        }
+        return loaded;
+    }
+
+    private static void writeOptional(final DataOutput out, final String text) throws IOException {
+        out.writeBoolean(text != null);
+        if (text != null) {
+            out.writeUTF(text);
+        }
+    }
+
+    private static String readOptional(final DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    static Model readModel(final File pom) throws IOException, XmlPullParserException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(pom))) {
+            return new MavenXpp3Reader().read(in);
+        }
+    }
+
+    private interface Resolution<T> {
+
+        T get() throws IOException, XmlPullParserException, ArtifactResolverException;
+    }
+
+    private static <T> CompletableFuture<T> start(final Resolution<T> resolution) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            result.complete(resolution.get());
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private static <T> T await(final CompletableFuture<T> future)
+        throws IOException, XmlPullParserException, ArtifactResolverException {
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof XmlPullParserException) {
+                throw (XmlPullParserException) cause;
+            }
+            if (cause instanceof ArtifactResolverException) {
+                throw (ArtifactResolverException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * What the report needs from the POM lineage of an artifact.
+     */
+    static final class Lineage {
+
+        private final String               name;
+        private final Pair<String, String> issueSite;
+
+        Lineage(final String name, final Pair<String, String> issueSite) {
+            this.name      = name;
+            this.issueSite = issueSite;
+        }
+
+        /**
+         * @return the project name declared by the artifact's own POM, if any
+         */
+        String getName() {
+            return name;
+        }
+
+        /**
+         * @return the issue system and URL, or {@code null} if none could be inferred
+         */
+        Pair<String, String> getIssueSite() {
+            return issueSite;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.github.maven.plugin.oss;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Keeps the requests to each host within the budget the host announces in its {@code X-RateLimit-Limit},
+ * {@code X-RateLimit-Remaining} and {@code X-RateLimit-Reset} headers, as GitHub does.
+ * <p>
+ * A host whose budget is used up is not asked again before its reset. Once less than a tenth of the budget
+ * remains, requests are spread evenly over the rest of the window, so concurrent scrapes do not spend it
+ * at once. A {@code 429 Too Many Requests}, or a {@code 403} with no budget remaining, pauses the host for
+ * its {@code Retry-After} or until its reset. Requests that would have to wait longer than
+ * {@code maxWaitMillis} fail instead. Hosts that send none of these headers are never held back.
+ */
+final class RateLimiter {
+
+    // a minute, when a host says it is limited but not for how long
+    private static final long DEFAULT_PAUSE_MILLIS = 60_000L;
+    // tolerates clock skew between this machine and the host
+    private static final long CLOCK_SKEW_MILLIS    = 1_000L;
+
+    private final long maxWaitMillis;
+
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+
+    private final LongAdder waits       = new LongAdder();
+    private final LongAdder waitedNanos = new LongAdder();
+    private final LongAdder limited     = new LongAdder();
+
+    RateLimiter(final long maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * Waits until a request to {@code host} fits its budget and reserves it.
+     *
+     * @throws IOException if that is further away than the maximum wait
+     */
+    void acquire(final String host) throws IOException {
+        final Budget budget = budgets.computeIfAbsent(host, h -> new Budget());
+        while (true) {
+            final long wait = budget.reserve(System.currentTimeMillis());
+            if (wait <= 0) {
+                return;
+            }
+            if (wait > maxWaitMillis) {
+                throw new IOException("Rate limit of " + host + " exhausted for another "
+                    + TimeUnit.MILLISECONDS.toSeconds(wait) + " s");
+            }
+            waits.increment();
+            final long start = System.nanoTime();
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the rate limit of " + host);
+            } finally {
+                waitedNanos.add(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Learns the budget of {@code host} from a response.
+     *
+     * @param header the value of a response header by lower case name, or {@code null}
+     * @return whether the host refused the request for exceeding its rate limit
+     */
+    boolean update(final String host, final int status, final Function<String, String> header) {
+        final long remaining = parseLong(header.apply("x-ratelimit-remaining"), -1);
+        final boolean refused = status == 429 || (status == 403 && remaining == 0);
+        if (remaining < 0 && !refused) {
+            return false;
+        }
+
+        final long now = System.currentTimeMillis();
+        final long reset = parseLong(header.apply("x-ratelimit-reset"), -1);
+        final long resetAt = reset < 0 ? -1 : TimeUnit.SECONDS.toMillis(reset) + CLOCK_SKEW_MILLIS;
+        final long limit = parseLong(header.apply("x-ratelimit-limit"), -1);
+        final Budget budget = budgets.computeIfAbsent(host, h -> new Budget());
+        if (!refused) {
+            budget.update(limit, remaining, resetAt, now);
+            return false;
+        }
+
+        limited.increment();
+        final long retryAfter = parseLong(header.apply("retry-after"), -1);
+        final long pauseUntil;
+        if (retryAfter >= 0) {
+            pauseUntil = now + TimeUnit.SECONDS.toMillis(retryAfter);
+        } else if (resetAt > now) {
+            pauseUntil = resetAt;
+        } else {
+            pauseUntil = now + DEFAULT_PAUSE_MILLIS;
+        }
+        budget.update(limit, 0, pauseUntil, now);
+        return true;
+    }
+
+    /**
+     * @return number of requests that waited for a budget
+     */
+    long getWaits() {
+        return waits.sum();
+    }
+
+    long getWaitedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitedNanos.sum());
+    }
+
+    /**
+     * @return number of requests refused by a host for exceeding its rate limit
+     */
+    long getLimited() {
+        return limited.sum();
+    }
+
+    private static long parseLong(final String text, final long otherwise) {
+        if (text == null) {
+            return otherwise;
+        }
+        try {
+            return Long.parseLong(text.trim());
+        } catch (NumberFormatException e) {
+            return otherwise;
+        }
+    }
+
+    private static final class Budget {
+
+        private long limit     = -1;
+        private long remaining = -1; // unknown
+        private long resetAt;
+        private long nextAt;
+
+        /**
+         * @return milliseconds to wait before asking again, or {@code 0} if a request was reserved
+         */
+        synchronized long reserve(final long now) {
+            if (remaining == 0 && now < resetAt) {
+                return resetAt - now;
+            }
+            if (now < nextAt) {
+                return nextAt - now;
+            }
+            if (remaining == 0) {
+                // the window was reset; the next response tells the new budget
+                remaining = -1;
+            } else if (remaining > 0) {
+                remaining--;
+                if (limit > 0 && remaining < limit / 10 && resetAt > now) {
+                    nextAt = now + (resetAt - now) / (remaining + 1);
+                }
+            }
+            return 0;
+        }
+
+        synchronized void update(final long limit, final long remaining, final long resetAt, final long now) {
+            if (limit > 0) {
+                this.limit = limit;
+            }
+            // responses to requests in flight may arrive out of order; the lowest count is the latest
+            if (resetAt != this.resetAt || this.remaining < 0 || remaining < this.remaining || this.resetAt <= now) {
+                this.remaining = remaining;
+            }
+            if (resetAt > 0) {
+                this.resetAt = resetAt;
+            }
+        }
+    }
+}
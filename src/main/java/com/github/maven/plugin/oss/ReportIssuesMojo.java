@@ -1,40 +1,61 @@
 package com.github.maven.plugin.oss;
 
-import static com.github.maven.plugin.oss.Utility.resolveIssueSite;
-import static com.github.maven.plugin.oss.Utility.resolvePOMLineage;
+import static com.github.maven.plugin.oss.Utility.issueSiteKey;
+import static com.github.maven.plugin.oss.Utility.artifactPOM;
+import static com.github.maven.plugin.oss.Utility.coordinates;
+import static com.github.maven.plugin.oss.Utility.resolveParentPOM;
+import static java.util.Arrays.asList;
 import static java.util.Collections.reverseOrder;
 import static java.util.Map.Entry.comparingByValue;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 
-import net.steppschuh.markdowngenerator.link.Link;
-import net.steppschuh.markdowngenerator.list.UnorderedList;
-import net.steppschuh.markdowngenerator.table.Table;
-import net.steppschuh.markdowngenerator.text.Text;
-import net.steppschuh.markdowngenerator.text.emphasis.BoldText;
-import net.steppschuh.markdowngenerator.text.heading.Heading;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.execution.MavenSession;
-import org.apache.maven.model.Model;
 import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.artifact.resolve.ArtifactResolver;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Mojo(
     name = "report-issues",
     aggregator = true,
-    requiresDirectInvocation = true)
+    requiresDirectInvocation = true,
+    requiresDependencyResolution = ResolutionScope.COMPILE)
 public class ReportIssuesMojo extends AbstractMojo {
 
+    // phases of the report, as reported by Metrics
+    private static final String LINEAGE = "POM lineage";
+    private static final String SCRAPE  = "issue scraping";
+
+    /** stands for the lineage of a dependency not resolved because the time budget was spent */
+    private static final PomLineageCache.Lineage OUT_OF_TIME = new PomLineageCache.Lineage(null, null);
+
     @Parameter(
         defaultValue = "${session}",
         required = true,
@@ -52,10 +73,255 @@ public class ReportIssuesMojo extends AbstractMojo {
         required = true)
     private List<MavenProject> reactorProjects;
 
+    /**
+     * Engine used to read import declarations: {@code scanner} (header-only scan, falling back to
+     * JavaParser on sources it cannot handle) or {@code javaparser} (full parse).
+     */
+    @Parameter(
+        property = "oss.importParser",
+        defaultValue = "scanner")
+    private String importParser;
+
+    /**
+     * Number of threads used to parse sources and index dependencies; {@code 0} uses one per processor.
+     */
+    @Parameter(
+        property = "oss.threads",
+        defaultValue = "0")
+    private int threads;
+
+    /**
+     * Whether to remember the imports of unchanged source files between runs.
+     */
+    @Parameter(
+        property = "oss.importCache",
+        defaultValue = "true")
+    private boolean importCache;
+
+    /**
+     * Directory holding the plugin's persistent caches; may be shared between projects.
+     */
+    @Parameter(
+        property = "oss.cacheDirectory",
+        defaultValue = "${project.build.directory}/oss-cache")
+    private File cacheDirectory;
+
+    /**
+     * Whether to remember the name and issue site of released dependencies between runs, so their POM
+     * lineage is only resolved once.
+     */
+    @Parameter(
+        property = "oss.lineageCache",
+        defaultValue = "true")
+    private boolean lineageCache;
+
+    /**
+     * Whether to analyze every module of the reactor again instead of reusing the dependency usage stored for
+     * modules whose sources, compiled classes and reactor dependencies did not change since the last run.
+     */
+    @Parameter(
+        property = "oss.fullAnalysis",
+        defaultValue = "false")
+    private boolean fullAnalysis;
+
+    /**
+     * Whether to persist the class names of dependency JARs so each JAR is only scanned once per machine.
+     */
+    @Parameter(
+        property = "oss.classIndex",
+        defaultValue = "true")
+    private boolean classIndex;
+
+    /**
+     * Directory of the persistent class index; defaults to {@code oss-class-index} next to the local repository.
+     */
+    @Parameter(
+        property = "oss.classIndexDirectory")
+    private File classIndexDirectory;
+
+    /**
+     * Where dependency artifacts come from: {@code project} uses the compile-scope graph Maven resolved for
+     * each module (transitive dependencies included, the resolver only fills in missing artifacts);
+     * {@code resolver} resolves each declared dependency individually.
+     */
+    @Parameter(
+        property = "oss.dependencyResolution",
+        defaultValue = "project")
+    private String dependencyResolution;
+
+    /**
+     * What usage is counted from: {@code source} counts the imports of each module's sources;
+     * {@code bytecode} counts the classes referenced by its compiled classes, which also sees fully
+     * qualified references and skips unused imports. Modules that are not compiled yet use their sources.
+     */
+    @Parameter(
+        property = "oss.analysis",
+        defaultValue = "source")
+    private String analysis;
+
+    /**
+     * Maximum number of issue sites scraped at the same time.
+     */
+    @Parameter(
+        property = "oss.scrapeConcurrency",
+        defaultValue = "8")
+    private int scrapeConcurrency;
+
+    /**
+     * Maximum number of issue sites scraped at the same time on any one host, such as github.com or a single
+     * Jira. Each may read one page ahead.
+     */
+    @Parameter(
+        property = "oss.scrapeConcurrencyPerHost",
+        defaultValue = "2")
+    private int scrapeConcurrencyPerHost;
+
+    /**
+     * Maximum number of open issues read per project; issue lists are paginated up to this limit.
+     */
+    @Parameter(
+        property = "oss.maxIssuesPerProject",
+        defaultValue = "100")
+    private int maxIssuesPerProject;
+
+    /**
+     * Days since their last update after which GitHub issues are no longer read; {@code 0} reads all.
+     */
+    @Parameter(
+        property = "oss.maxIssueAge",
+        defaultValue = "0")
+    private int maxIssueAge;
+
+    /**
+     * Maximum number of pooled HTTP connections shared by all issue scrapers.
+     */
+    @Parameter(
+        property = "oss.httpConnections",
+        defaultValue = "20")
+    private int httpConnections;
+
+    /**
+     * How stored issue snapshots are used: {@code ttl} serves snapshots younger than {@code issueCacheTtl}
+     * and scrapes the rest; {@code offline} serves any stored snapshot and never scrapes; {@code refresh}
+     * scrapes every site and stores the results.
+     */
+    @Parameter(
+        property = "oss.issueCache",
+        defaultValue = "ttl")
+    private String issueCache;
+
+    /**
+     * Minutes a stored issue snapshot stays fresh in {@code ttl} mode.
+     */
+    @Parameter(
+        property = "oss.issueCacheTtl",
+        defaultValue = "60")
+    private long issueCacheTtl;
+
+    /**
+     * Days after which a site is scraped in full again. In between, stale snapshots are brought up to
+     * date with only the issues updated since they were taken; {@code 0} always scrapes in full.
+     */
+    @Parameter(
+        property = "oss.issueResync",
+        defaultValue = "7")
+    private int issueResync;
+
+    /**
+     * Seconds an issue site request may wait for a connection, connecting or for each read.
+     */
+    @Parameter(
+        property = "oss.httpTimeout",
+        defaultValue = "30")
+    private int httpTimeout;
+
+    /**
+     * Times a failed scrape is repeated, after a random delay that doubles per attempt.
+     */
+    @Parameter(
+        property = "oss.scrapeRetries",
+        defaultValue = "2")
+    private int scrapeRetries;
+
+    /**
+     * Consecutive failed scrapes after which a host is skipped for a minute; {@code 0} never skips a host.
+     */
+    @Parameter(
+        property = "oss.circuitBreakerThreshold",
+        defaultValue = "3")
+    private int circuitBreakerThreshold;
+
+    /**
+     * Minutes the report waits for issue sites; sections still being scraped then are reported as
+     * pending. {@code 0} waits for every site.
+     */
+    @Parameter(
+        property = "oss.reportTimeout",
+        defaultValue = "0")
+    private int reportTimeout;
+
+    /**
+     * Number of most imported dependencies whose issues are reported; the others are listed as skipped.
+     * {@code 0} reports all.
+     */
+    @Parameter(
+        property = "oss.topN",
+        defaultValue = "0")
+    private int topN;
+
+    /**
+     * Imports below which a dependency's issues are not reported; such dependencies are listed as skipped.
+     */
+    @Parameter(
+        property = "oss.minImports",
+        defaultValue = "1")
+    private int minImports;
+
+    /**
+     * Seconds the whole report may take. Dependencies whose POM lineage is not resolved by then are listed
+     * as skipped, and sections still being scraped are reported as pending. {@code 0} is unlimited.
+     */
+    @Parameter(
+        property = "oss.timeBudget",
+        defaultValue = "0")
+    private int timeBudget;
+
+    /**
+     * Minutes a request may wait for the rate limit of its host to reset before it fails.
+     */
+    @Parameter(
+        property = "oss.rateLimitWait",
+        defaultValue = "10")
+    private int rateLimitWait;
+
+    /**
+     * Format of the report: {@code markdown}, {@code jsonl} (a JSON object per section) or {@code csv}
+     * (a row per open issue).
+     */
+    @Parameter(
+        property = "oss.reportFormat",
+        defaultValue = "markdown")
+    private String reportFormat;
+
+    /**
+     * File the report is written to as its sections complete; the report goes to standard output if unset.
+     */
+    @Parameter(
+        property = "oss.reportFile")
+    private File reportFile;
+
+    /**
+     * File the run metrics are written to as JSON, e.g. {@code target/oss-metrics.json}; they are only logged
+     * if unset.
+     */
+    @Parameter(
+        property = "oss.metricsFile")
+    private File metricsFile;
+
     @Component
     private ArtifactResolver artifactResolver;
 
-    public void execute() {
+    public void execute() throws MojoExecutionException {
         // TODO ✔ Create mapping of [FQC name] to [Artifact]
         // TODO ✔ Compute artifact counters for used imports.
         // TODO ✔ Determine transitive dependencies, per project, so more imports match.
@@ -63,82 +329,440 @@ public class ReportIssuesMojo extends AbstractMojo {
         // TODO Infer issue management system and URL (check issueManagement, infer from SCM, infer from URL).
         // TODO Crawl issues using http-client and jsoup.
 
-        if (CollectionUtils.isNotEmpty(reactorProjects)) {
-            reactorReport(reactorProjects, project, session, artifactResolver, getLog());
+        final Log log = getLog();
+        final AnalysisContext context = openContext(log);
+        try {
+            report(reactorProjects, CollectionUtils.isNotEmpty(reactorProjects) ? project : session.getCurrentProject(), context, log);
+        } finally {
+            closeContext(context, log);
+        }
+    }
+
+    MavenSession getSession() {
+        return session;
+    }
+
+    MavenProject getProject() {
+        return project;
+    }
+
+    List<MavenProject> getReactorProjects() {
+        return reactorProjects;
+    }
+
+    /**
+     * Creates the context of a run from the parameters, loading the persistent caches.
+     */
+    AnalysisContext openContext(final Log log) {
+        final String engine = StringUtils.defaultIfEmpty(importParser, "scanner").toLowerCase();
+        ImportParser parser = importParser(engine);
+        if (importCache && cacheDirectory != null) {
+            final CachingImportParser cachingParser = new CachingImportParser(
+                new File(cacheDirectory, "imports.bin"), engine, parser);
+            try {
+                cachingParser.load();
+            } catch (IOException e) {
+                log.warn("Discarding unreadable import cache: " + e.getMessage());
+            }
+            parser = cachingParser;
+        }
+
+        final AnalysisContext context = new AnalysisContext(session, artifactResolver, Utility.newAnalysisPool(threads));
+        context.setImportParser(parser, engine);
+        context.setClassIndex(new ClassIndex(classIndex ? classIndexDirectory(classIndexDirectory, session) : null));
+        context.setProjectArtifacts(!"resolver".equalsIgnoreCase(dependencyResolution));
+        context.setBytecode(bytecodeAnalysis(analysis));
+        if (scrapeConcurrency > 0) {
+            context.setScrapeConcurrency(scrapeConcurrency);
+        }
+        if (scrapeConcurrencyPerHost > 0) {
+            context.setScrapeConcurrencyPerHost(scrapeConcurrencyPerHost);
+        }
+        if (maxIssuesPerProject > 0) {
+            context.setMaxIssuesPerProject(maxIssuesPerProject);
+        }
+        context.setMaxIssueAgeMillis(TimeUnit.DAYS.toMillis(Math.max(0, maxIssueAge)));
+        // every scrape on a host may have its next page in flight as well
+        final HttpFetcher http = new HttpFetcher(
+            httpConnections > 0 ? httpConnections : 20, 2 * context.getScrapeConcurrencyPerHost(),
+            httpTimeout > 0 ? (int) TimeUnit.SECONDS.toMillis(httpTimeout) : HttpFetcher.DEFAULT_TIMEOUT_MILLIS,
+            new RateLimiter(rateLimitWait > 0 ? TimeUnit.MINUTES.toMillis(rateLimitWait) : HttpFetcher.DEFAULT_RATE_LIMIT_WAIT_MILLIS),
+            cacheDirectory == null ? null : new File(cacheDirectory, "http"));
+        context.setHttp(http);
+        context.getMetrics().register("http", http.getLatencies());
+        final ScrapeGuard scrapeGuard = new ScrapeGuard(
+            Math.max(0, scrapeRetries), TimeUnit.SECONDS.toMillis(1), Math.max(0, circuitBreakerThreshold), TimeUnit.MINUTES.toMillis(1));
+        context.setScrapeGuard(scrapeGuard);
+        context.setReportTimeoutMillis(TimeUnit.MINUTES.toMillis(Math.max(0, reportTimeout)));
+        context.setTopN(Math.max(0, topN));
+        context.setMinImports(Math.max(1, minImports));
+        context.setTimeBudgetMillis(TimeUnit.SECONDS.toMillis(Math.max(0, timeBudget)));
+        context.setReportFormat(StringUtils.defaultIfEmpty(reportFormat, "markdown"));
+        context.setReportFile(reportFile);
+        final SnapshotStore snapshots = new SnapshotStore(
+            cacheDirectory == null ? null : new File(cacheDirectory, "issues"),
+            TimeUnit.MINUTES.toMillis(issueCacheTtl), TimeUnit.DAYS.toMillis(issueResync), snapshotMode(issueCache));
+        context.setSnapshots(snapshots);
+        final PomLineageCache lineages = new PomLineageCache(
+            lineageCache && cacheDirectory != null ? new File(cacheDirectory, "lineage.bin") : null);
+        try {
+            lineages.load();
+        } catch (IOException e) {
+            log.warn("Discarding unreadable POM lineage cache: " + e.getMessage());
+        }
+        context.setLineages(lineages);
+        final ModuleUsageCache moduleUsage = new ModuleUsageCache(
+            cacheDirectory == null ? null : new File(cacheDirectory, "modules.bin"));
+        if (!fullAnalysis) {
+            try {
+                moduleUsage.load();
+            } catch (IOException e) {
+                log.warn("Discarding unreadable module usage cache: " + e.getMessage());
+            }
+        }
+        context.setModuleUsage(moduleUsage);
+        return context;
+    }
+
+    /**
+     * Writes the report of {@code reactor}, or of {@code top} alone if there is no reactor.
+     */
+    void report(
+        final List<MavenProject> reactor, final MavenProject top, final AnalysisContext context, final Log log) {
+
+        if (CollectionUtils.isNotEmpty(reactor)) {
+            reactorReport(reactor, top, context, log);
         } else {
-            projectReport(session.getCurrentProject(), session, artifactResolver, getLog());
+            projectReport(top, context, log);
+        }
+    }
+
+    /**
+     * Stores the persistent caches and the metrics of the report just written, without logging statistics.
+     */
+    void checkpoint(final AnalysisContext context, final Log log) {
+        saveCaches(context, log);
+        if (metricsFile != null) {
+            try {
+                context.getMetrics().write(metricsFile);
+            } catch (IOException e) {
+                log.warn("Could not write run metrics: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Shuts the analysis pool and HTTP connections down, stores the persistent caches and logs what the run
+     * did.
+     */
+    void closeContext(final AnalysisContext context, final Log log) {
+        context.getPool().shutdown();
+        closeHttp(context.getHttp(), log);
+        final ScrapeGuard scrapeGuard = context.getScrapeGuard();
+        if (scrapeGuard.getRetried() + scrapeGuard.getOpened() > 0) {
+            log.info(String.format("Scrape failures: %d attempts retried, %d host circuits opened, %d scrapes skipped on open circuits",
+                scrapeGuard.getRetried(), scrapeGuard.getOpened(), scrapeGuard.getRejected()));
+        }
+        final SnapshotStore snapshots = context.getSnapshots();
+        if (snapshots.getHits() + snapshots.getStored() + snapshots.getMerged() > 0) {
+            log.info(String.format("Issue cache: %d snapshots served from cache, %d scraped in full, %d updated incrementally",
+                snapshots.getHits(), snapshots.getStored(), snapshots.getMerged()));
+        }
+        saveCaches(context, log);
+        final PomLineageCache lineages = context.getLineages();
+        if (lineages.getHits() + lineages.getParentsRead() > 0) {
+            log.info(String.format("POM lineage: %d artifacts already resolved, %d parent POMs read, %d parent reads shared",
+                lineages.getHits(), lineages.getParentsRead(), lineages.getParentsShared()));
+        }
+        final ModuleUsageCache moduleUsage = context.getModuleUsage();
+        if (moduleUsage.getHits() + moduleUsage.getMisses() > 0) {
+            log.info(String.format("Module usage: %d modules unchanged, %d analyzed",
+                moduleUsage.getHits(), moduleUsage.getMisses()));
+        }
+        if (context.getImportParser() instanceof CachingImportParser) {
+            final CachingImportParser cachingParser = (CachingImportParser) context.getImportParser();
+            final long hits = cachingParser.getHits();
+            final long lookups = hits + cachingParser.getMisses();
+            log.info(String.format("Import cache: %d of %d source files unchanged (%.1f%% hit rate)",
+                hits, lookups, lookups == 0 ? 0.0 : 100.0 * hits / lookups));
+        }
+        final ClassIndex index = context.getClassIndex();
+        log.info(String.format("Class index: %d JARs reused, %d scanned, %d read for used classes only; %d without used classes",
+            index.getReused(), index.getScanned(), index.getPartial(), index.getUnused()));
+        writeMetrics(context.getMetrics(), metricsFile, log);
+    }
+
+    private static void saveCaches(final AnalysisContext context, final Log log) {
+        try {
+            context.getLineages().save();
+        } catch (IOException e) {
+            log.warn("Could not write POM lineage cache: " + e.getMessage());
+        }
+        try {
+            context.getModuleUsage().save();
+        } catch (IOException e) {
+            log.warn("Could not write module usage cache: " + e.getMessage());
+        }
+        if (context.getImportParser() instanceof CachingImportParser) {
+            try {
+                ((CachingImportParser) context.getImportParser()).save();
+            } catch (IOException e) {
+                log.warn("Could not write import cache: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void writeMetrics(final Metrics metrics, final File metricsFile, final Log log) {
+        metrics.log(log, 10);
+        if (metricsFile == null) {
+            return;
+        }
+        try {
+            metrics.write(metricsFile);
+            log.info("Run metrics written to " + metricsFile);
+        } catch (IOException e) {
+            log.warn("Could not write run metrics: " + e.getMessage());
+        }
+    }
+
+    static File classIndexDirectory(final File configured, final MavenSession session) {
+        if (configured != null) {
+            return configured;
+        }
+        final File localRepository = new File(session.getLocalRepository().getBasedir());
+        return new File(localRepository.getAbsoluteFile().getParentFile(), "oss-class-index");
+    }
+
+    private static void closeHttp(final HttpFetcher http, final Log log) {
+        try {
+            http.close();
+        } catch (IOException e) {
+            log.warn("Could not close HTTP connections: " + e.getMessage());
+        }
+        if (http.getRequests() > 0) {
+            log.info(String.format("HTTP: %d requests, %d connections opened, %d reused, %d not modified, %,d bytes received",
+                http.getRequests(), http.getConnectionsOpened(), http.getConnectionsReused(), http.getNotModified(),
+                http.getBytesReceived()));
+        }
+        final RateLimiter rateLimiter = http.getRateLimiter();
+        if (rateLimiter.getWaits() + rateLimiter.getLimited() > 0) {
+            log.info(String.format("Rate limits: %d requests waited %d s in total, %d refused by their host",
+                rateLimiter.getWaits(), TimeUnit.MILLISECONDS.toSeconds(rateLimiter.getWaitedMillis()), rateLimiter.getLimited()));
         }
     }
 
     private static void reactorReport(
         final List<MavenProject> moduleProjects, final MavenProject topProject,
-        final MavenSession session, final ArtifactResolver artifactResolver,
-        final Log log) {
+        final AnalysisContext context, final Log log) {
 
+        final long budget = context.getTimeBudgetMillis();
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget);
         log.info("Analyzing multi-module build for: " + topProject.getName());
         final List<Entry<Pair<Artifact, MavenProject>, Long>> orderedDependencyUsage =
-            Utility.computeDependencyUsage(topProject, moduleProjects, session, artifactResolver)
+            Utility.computeDependencyUsage(topProject, moduleProjects, context)
                 .entrySet()
                 .stream()
                 .sorted(reverseOrder(comparingByValue()))
                 .collect(toList());
 
-        final StringBuilder md = new StringBuilder();
-        md.append(new Heading(topProject.getName() + " :: Open Source Issues", 1)).append("\n");
+        // only the most imported dependencies are worth a lineage and a scrape; the rest is listed as skipped
+        final Metrics metrics = context.getMetrics();
+        final int limit = context.getTopN() > 0 ? context.getTopN() : Integer.MAX_VALUE;
+        final SectionSource unresolved = SectionSource.skipped("Skipped: lineage could not be resolved", metrics, log);
+        final SectionSource outOfTime = SectionSource.skipped(
+            "Skipped: time budget of " + TimeUnit.MILLISECONDS.toSeconds(budget) + " s spent", metrics, log);
+        final SectionSource belowTop = SectionSource.skipped("Skipped: ranked below the top " + limit, metrics, log);
+        final SectionSource belowMinimum = SectionSource.skipped(
+            "Skipped: fewer than " + context.getMinImports() + " imports", metrics, log);
+        final List<Entry<Pair<Artifact, MavenProject>, Long>> rankedDependencyUsage = new ArrayList<>();
+        for (final Entry<Pair<Artifact, MavenProject>, Long> du : orderedDependencyUsage) {
+            if (du.getValue() < context.getMinImports()) {
+                belowMinimum.add(du.getKey().getLeft(), du.getValue());
+            } else if (rankedDependencyUsage.size() >= limit) {
+                belowTop.add(du.getKey().getLeft(), du.getValue());
+            } else {
+                rankedDependencyUsage.add(du);
+            }
+        }
 
-        orderedDependencyUsage.forEach(du -> {
-            final Pair<Artifact, MavenProject> art = du.getKey();
-            final Artifact artifact = art.getLeft();
+        // lineages share most parent POMs, so they are resolved together before the report is assembled in order
+        final List<PomLineageCache.Lineage> lineages;
+        final Metrics.Timing lineageResolution = metrics.phase(LINEAGE, "artifacts").start();
+        try {
+            lineages = context.getPool()
+                .submit(() -> rankedDependencyUsage.parallelStream()
+                    .map(du -> expired(budget, deadline) ? OUT_OF_TIME : lineage(du.getKey(), context, log))
+                    .collect(toList()))
+                .join();
+            metrics.phase(LINEAGE, "artifacts").add(lineages.stream().filter(lineage -> lineage != OUT_OF_TIME).count(), 0);
+        } finally {
+            lineageResolution.stop();
+        }
 
-            try {
-                final List<Model> pomLineage = resolvePOMLineage(artifact, artifactResolver, art.getRight(), session);
-                final String name;
-                if (!pomLineage.isEmpty()) {
-                    name = pomLineage.get(0).getName();
-                } else {
-                    name = artifact.getArtifactId();
+        // artifacts sharing an issue site share its scrape and are reported in one section
+        final Map<Object, SectionSource> sections = new LinkedHashMap<>();
+        int siteArtifacts = 0;
+        try (ScrapeScheduler scheduler = new ScrapeScheduler(context.getScrapeConcurrency(), context.getScrapeConcurrencyPerHost())) {
+            for (int i = 0; i < rankedDependencyUsage.size(); i++) {
+                final PomLineageCache.Lineage lineage = lineages.get(i);
+                final Artifact artifact = rankedDependencyUsage.get(i).getKey().getLeft();
+                final long imports = rankedDependencyUsage.get(i).getValue();
+                if (lineage == OUT_OF_TIME) {
+                    outOfTime.add(artifact, imports);
+                    continue;
                 }
+                if (lineage == null) {
+                    unresolved.add(artifact, imports);
+                    continue;
+                }
+                final String name = StringUtils.defaultIfEmpty(lineage.getName(), artifact.getArtifactId());
 
-                final Pair<String, String> issueSite = resolveIssueSite(pomLineage);
-
-                md.append(new Heading(name, 2)).append("\n");
-                md.append(new Text(artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getVersion())).append("\n");
-                md.append(new BoldText(du.getValue())).append(new Text(" imports declared.")).append("\n\n");
-
+                final Pair<String, String> issueSite = lineage.getIssueSite();
                 if (issueSite == null) {
-                    md.append(new Text("Issues: unknown")).append("\n");
+                    sections.computeIfAbsent(artifact, k -> new SectionSource(name, null, null, metrics, log)).add(artifact, imports);
                 } else {
-                    final IssueSnapshot snapshot = issueScraper(issueSite.getLeft()).scrape(issueSite.getRight());
-                    md.append(new Link("Issues", snapshot.getUrl())).append("\n\n");
-                    if (!snapshot.getStateCounts().isEmpty()) {
-                        md.append(new Text("State Counts")).append("\n");
-                        md.append(new UnorderedList<>(snapshot.getStateCounts())).append("\n\n");
-                    }
-
-                    if (!snapshot.getOpenIssues().isEmpty()) {
-                        Table.Builder tableBuilder = new Table.Builder()
-                            .withAlignments(Table.ALIGN_LEFT, Table.ALIGN_LEFT)
-                            .addRow("Title", "Tags");
-
-                        snapshot.getOpenIssues().forEach(i ->
-                            tableBuilder.addRow(new Link(i.getTitle(), i.getUrl()), String.join(", ", i.getTags())));
-                        md.append(tableBuilder.build()).append("\n\n");
+                    siteArtifacts++;
+                    sections.computeIfAbsent(issueSiteKey(issueSite), k -> new SectionSource(name, issueSite,
+                        () -> fetchIssues(issueSite, imports, scheduler, context, log), metrics, log)).add(artifact, imports);
+                }
+            }
+            final List<SectionSource> report = new ArrayList<>(sections.values());
+            for (final SectionSource skipped : asList(unresolved, outOfTime, belowTop, belowMinimum)) {
+                if (!skipped.artifacts.isEmpty()) {
+                    report.add(skipped);
+                    final String message = String.format("%s (%d dependencies, %d imports)",
+                        skipped.name, skipped.artifacts.size(), skipped.artifacts.stream().mapToLong(Pair::getRight).sum());
+                    if (skipped == unresolved || skipped == outOfTime) {
+                        log.warn(message);
+                    } else {
+                        log.info(message);
                     }
                 }
-            } catch (Exception e) {
-                log.warn("Error file resolving issues, skipping artifact: " + artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getVersion());
             }
-        });
 
-        System.out.println(md.toString());
+            // sections are scraped concurrently but written in usage order, each as soon as it is known
+            final long timeout = reportTimeout(context.getReportTimeoutMillis(), budget, deadline);
+            final int pending;
+            final long received = context.getHttp().getBytesReceived();
+            final Metrics.Timing scraping = metrics.phase(SCRAPE, "issue sites").start();
+            try (ReportSink sink = reportSink(context.getReportFormat(), reportWriter(context.getReportFile()))) {
+                pending = new ReportWriter(sink, Math.max(16, 2 * context.getScrapeConcurrency()), timeout)
+                    .write(topProject.getName() + " :: Open Source Issues", report);
+            } catch (IOException e) {
+                log.warn("Could not write the report: " + e.getMessage());
+                return;
+            } finally {
+                scraping.stop();
+                metrics.phase(SCRAPE, "issue sites").add(
+                    sections.values().stream().filter(section -> section.issueSite != null).count(),
+                    context.getHttp().getBytesReceived() - received);
+            }
+            if (context.getReportFile() != null) {
+                log.info("Report written to " + context.getReportFile());
+            }
+            if (pending > 0) {
+                log.warn(String.format("Report deadline of %d s reached: %d sections left pending",
+                    TimeUnit.MILLISECONDS.toSeconds(timeout), pending));
+            }
+        }
+
+        final long sites = sections.values().stream().filter(section -> section.issueSite != null).count();
+        if (siteArtifacts > sites) {
+            log.info(String.format("Issue sites: %d fetched for %d artifacts, %d fetches deduplicated",
+                sites, siteArtifacts, siteArtifacts - sites));
+        }
+    }
+
+    private static boolean expired(final long budget, final long deadline) {
+        return budget > 0 && deadline - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @return how long the report writer may wait for issue sites: the report timeout or the rest of the time
+     *         budget, whichever ends first; {@code 0} waits for every site
+     */
+    private static long reportTimeout(final long timeout, final long budget, final long deadline) {
+        if (budget <= 0) {
+            return timeout;
+        }
+        // at least a millisecond, as 0 would wait for every site
+        final long remaining = Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+        return timeout > 0 ? Math.min(timeout, remaining) : remaining;
     }
 
-    private static void projectReport(
-        final MavenProject project, final MavenSession session,
-        final ArtifactResolver artifactResolver, final Log log) {
+    private static Writer reportWriter(final File reportFile) throws IOException {
+        if (reportFile == null) {
+            return new BufferedWriter(new OutputStreamWriter(new CloseShieldOutputStream(System.out), UTF_8));
+        }
+        final File parent = reportFile.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+        return Files.newBufferedWriter(reportFile.toPath(), UTF_8);
+    }
 
+    /**
+     * @return the lineage of the artifact, or {@code null} if it could not be resolved
+     */
+    private static PomLineageCache.Lineage lineage(
+        final Pair<Artifact, MavenProject> art, final AnalysisContext context, final Log log) {
+
+        final Artifact artifact = art.getLeft();
+        final long start = System.nanoTime();
+        final long cpu = Metrics.threadCpuNanos();
+        try {
+            return context.getLineages().lineage(coordinates(artifact), artifactPOM(artifact),
+                parent -> resolveParentPOM(parent, context.getResolver(), art.getRight(), context.getSession()));
+        } catch (Exception e) {
+            log.warn("Error file resolving issues, skipping artifact: " + coordinates(artifact));
+            return null;
+        } finally {
+            context.getMetrics().dependency(coordinates(artifact))
+                .lineageResolved(System.nanoTime() - start, Metrics.threadCpuNanos() - cpu);
+        }
+    }
+
+    /**
+     * Serves the issues of a site from the snapshot store if it may, and schedules a scrape otherwise.
+     * Sites are scraped in order of {@code imports}, so a limited request budget goes to the most used
+     * dependencies first.
+     *
+     * @return the issues, or {@code null} if the site may not be scraped and has no stored snapshot
+     */
+    private static CompletableFuture<IssueSnapshot> fetchIssues(
+        final Pair<String, String> issueSite, final long imports, final ScrapeScheduler scheduler,
+        final AnalysisContext context, final Log log) {
+
+        final SnapshotStore snapshots = context.getSnapshots();
+        final IssueSnapshot cached = snapshots.cached(issueSite.getLeft(), issueSite.getRight());
+        if (cached != null || snapshots.isOffline()) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        final IssueScraper scraper = context.getScrapeGuard().guard(issueScraper(issueSite.getLeft(), context, scheduler));
+        final SnapshotStore.Entry base = snapshots.deltaBase(issueSite.getLeft(), issueSite.getRight());
+        return scheduler
+            .submit(issueSite.getRight(), imports, () -> {
+                IssueSnapshot snapshot = base == null ? null : scraper.scrapeSince(issueSite.getRight(), base.getSnapshot());
+                final long fullScrape;
+                if (snapshot != null) {
+                    fullScrape = base.getFullScrape();
+                } else {
+                    snapshot = scraper.scrape(issueSite.getRight());
+                    fullScrape = snapshot.getSnapshotDate().getTime();
+                }
+                try {
+                    snapshots.store(issueSite.getRight(), snapshot, fullScrape);
+                } catch (IOException e) {
+                    log.warn("Could not store issue snapshot of " + issueSite.getRight() + ": " + e.getMessage());
+                }
+                return snapshot;
+            });
+    }
+
+    private static void projectReport(final MavenProject project, final AnalysisContext context, final Log log) {
         log.info("Analyzing project: " + project.getName());
-        final Map<Artifact, Long> dependencyUsage = Utility.computeDependencyUsage(project, session, artifactResolver);
+        final Map<Artifact, Long> dependencyUsage = Utility.computeDependencyUsage(project, context);
 
         final List<Entry<Artifact, Long>> orderedDependencyUsage = dependencyUsage.entrySet()
             .stream()
@@ -152,18 +776,147 @@ public class ReportIssuesMojo extends AbstractMojo {
         });
     }
 
-    private static IssueScraper issueScraper(final String issueSystem) {
+    private static IssueScraper issueScraper(final String issueSystem, final AnalysisContext context, final ScrapeScheduler scheduler) {
         if (issueSystem == null) {
             return null;
         }
 
         switch(issueSystem) {
             case "github":
-                return new GitHubIssueScraper();
+                return new GitHubIssueScraper(context.getHttp(), scheduler.prefetcher(),
+                    context.getMaxIssuesPerProject(), context.getMaxIssueAgeMillis());
             case "jira":
-                return new JiraIssueScraper();
+                return new JiraIssueScraper(context.getHttp(), new JiraBrowserIssueScraper(context.getHttp().getTimeoutMillis(), context.getMetrics().latencies("browser")), context.getMaxIssuesPerProject());
             default:
                 return new NoOpIssueScraper(issueSystem);
         }
     }
+
+    private static ReportSink reportSink(final String format, final Writer out) {
+        switch(StringUtils.defaultIfEmpty(format, "markdown").toLowerCase()) {
+            case "markdown":
+                return new MarkdownReportSink(out);
+            case "jsonl":
+                return new JsonLinesReportSink(out);
+            case "csv":
+                return new CsvReportSink(out);
+            default:
+                throw new IllegalArgumentException("Unknown report format: " + format);
+        }
+    }
+
+    private static ImportParser importParser(final String engine) {
+        switch(StringUtils.defaultIfEmpty(engine, "scanner").toLowerCase()) {
+            case "javaparser":
+                return new JavaParserImportParser();
+            case "scanner":
+                return new ScanningImportParser(new JavaParserImportParser());
+            default:
+                throw new IllegalArgumentException("Unknown import parser: " + engine);
+        }
+    }
+
+    private static boolean bytecodeAnalysis(final String analysis) {
+        switch(StringUtils.defaultIfEmpty(analysis, "source").toLowerCase()) {
+            case "source":
+                return false;
+            case "bytecode":
+                return true;
+            default:
+                throw new IllegalArgumentException("Unknown analysis: " + analysis);
+        }
+    }
+
+    private static SnapshotStore.Mode snapshotMode(final String mode) {
+        switch(StringUtils.defaultIfEmpty(mode, "ttl").toLowerCase()) {
+            case "ttl":
+                return SnapshotStore.Mode.TTL;
+            case "offline":
+                return SnapshotStore.Mode.OFFLINE;
+            case "refresh":
+                return SnapshotStore.Mode.REFRESH;
+            default:
+                throw new IllegalArgumentException("Unknown issue cache mode: " + mode);
+        }
+    }
+
+    /**
+     * The artifacts reported under one issue site, or a single artifact without a known issue site. The site
+     * is scraped when the report writer starts the section.
+     */
+    private static final class SectionSource implements ReportWriter.Source {
+
+        private final String                                      name;
+        private final Pair<String, String>                        issueSite;
+        private final Supplier<CompletableFuture<IssueSnapshot>> issues;
+        private final boolean                                     skipped;
+        private final Metrics                                     metrics;
+        private final Log                                         log;
+        private final List<Pair<String, Long>>                    artifacts = new ArrayList<>();
+
+        SectionSource(
+            final String name, final Pair<String, String> issueSite,
+            final Supplier<CompletableFuture<IssueSnapshot>> issues, final Metrics metrics, final Log log) {
+
+            this(name, issueSite, issues, false, metrics, log);
+        }
+
+        private SectionSource(
+            final String name, final Pair<String, String> issueSite,
+            final Supplier<CompletableFuture<IssueSnapshot>> issues, final boolean skipped,
+            final Metrics metrics, final Log log) {
+
+            this.name      = name;
+            this.issueSite = issueSite;
+            this.issues    = issues;
+            this.skipped   = skipped;
+            this.metrics   = metrics;
+            this.log       = log;
+        }
+
+        /**
+         * @return the section listing the artifacts left out of the report for {@code reason}
+         */
+        static SectionSource skipped(final String reason, final Metrics metrics, final Log log) {
+            return new SectionSource(reason, null, null, true, metrics, log);
+        }
+
+        SectionSource add(final Artifact artifact, final long imports) {
+            artifacts.add(Pair.of(coordinates(artifact), imports));
+            return this;
+        }
+
+        @Override
+        public CompletableFuture<ReportSection> start() {
+            if (skipped) {
+                return CompletableFuture.completedFuture(pending());
+            }
+            if (issues == null) {
+                return CompletableFuture.completedFuture(section(ReportSection.Status.UNKNOWN, null));
+            }
+            final long start = System.nanoTime();
+            return issues.get().handle((snapshot, e) -> {
+                final long nanos = System.nanoTime() - start;
+                final int issueCount = snapshot == null ? 0 : snapshot.getOpenIssues().size();
+                artifacts.forEach(artifact -> metrics.dependency(artifact.getLeft()).scraped(nanos, issueCount));
+                if (e != null) {
+                    log.warn("Error scraping issues of " + issueSite.getRight() + " for artifacts: "
+                        + artifacts.stream().map(Pair::getLeft).collect(joining(", ")));
+                    return section(ReportSection.Status.FAILED, null);
+                }
+                return snapshot == null
+                    ? section(ReportSection.Status.OFFLINE, null)
+                    : section(ReportSection.Status.SCRAPED, snapshot);
+            });
+        }
+
+        @Override
+        public ReportSection pending() {
+            return section(skipped ? ReportSection.Status.SKIPPED : ReportSection.Status.PENDING, null);
+        }
+
+        private ReportSection section(final ReportSection.Status status, final IssueSnapshot snapshot) {
+            return new ReportSection(name, issueSite, artifacts, status, snapshot);
+        }
+    }
 }
@@ -0,0 +1,78 @@
+package com.github.maven.plugin.oss;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.List;
+
+/**
+ * One section of the issue report: the artifacts sharing an issue site, or a single artifact without a
+ * known issue site, and what is known about the site's issues.
+ */
+final class ReportSection {
+
+    enum Status {
+        /** the issues were scraped or served from the snapshot store */
+        SCRAPED,
+        /** no issue site is known for the artifacts */
+        UNKNOWN,
+        /** the site was not scraped in offline mode and has no stored snapshot */
+        OFFLINE,
+        /** scraping the site failed */
+        FAILED,
+        /** the site was still being scraped at the report deadline */
+        PENDING,
+        /** the artifacts were left out of the report by {@code topN}, {@code minImports} or {@code timeBudget} */
+        SKIPPED
+    }
+
+    private final String                   name;
+    private final Pair<String, String>     issueSite;
+    private final List<Pair<String, Long>> artifacts;
+    private final Status                   status;
+    private final IssueSnapshot            snapshot;
+
+    /**
+     * @param artifacts coordinates and import count of each artifact
+     * @param snapshot  the issues, if {@code status} is {@link Status#SCRAPED}
+     */
+    ReportSection(
+        final String name, final Pair<String, String> issueSite, final List<Pair<String, Long>> artifacts,
+        final Status status, final IssueSnapshot snapshot) {
+
+        this.name      = name;
+        this.issueSite = issueSite;
+        this.artifacts = artifacts;
+        this.status    = status;
+        this.snapshot  = snapshot;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * @return the issue system and URL, or {@code null} if none is known
+     */
+    Pair<String, String> getIssueSite() {
+        return issueSite;
+    }
+
+    List<Pair<String, Long>> getArtifacts() {
+        return artifacts;
+    }
+
+    long getImports() {
+        return artifacts.stream().mapToLong(Pair::getRight).sum();
+    }
+
+    Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the issues, or {@code null} unless the status is {@link Status#SCRAPED}
+     */
+    IssueSnapshot getSnapshot() {
+        return snapshot;
+    }
+}
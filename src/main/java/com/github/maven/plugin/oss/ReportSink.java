@@ -0,0 +1,15 @@
+package com.github.maven.plugin.oss;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Receives the issue report one section at a time, in report order, and writes it out as it arrives.
+ * Closing the sink flushes it and closes the underlying writer.
+ */
+interface ReportSink extends Closeable {
+
+    void begin(String title) throws IOException;
+
+    void section(ReportSection section) throws IOException;
+}
@@ -0,0 +1,106 @@
+package com.github.maven.plugin.oss;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Streams report sections to a {@link ReportSink} in report order, each as soon as it and all sections before
+ * it are complete.
+ * <p>
+ * Sections are started in report order, at most {@code window} ahead of the first one not yet written. Those
+ * that complete early wait in that window until it is their turn, so no more than {@code window} sections
+ * and their issues are held in memory however long the report is. Once the deadline has passed, every
+ * section not written yet is written as pending and no further sections are started.
+ */
+final class ReportWriter {
+
+    /**
+     * Produces one section of the report.
+     */
+    interface Source {
+
+        /**
+         * Starts producing the section.
+         *
+         * @return the section; must not complete exceptionally
+         */
+        CompletableFuture<ReportSection> start();
+
+        /**
+         * @return the section as it is written when it is not complete by the deadline
+         */
+        ReportSection pending();
+    }
+
+    private final ReportSink sink;
+    private final int        window;
+    private final long       timeoutMillis;
+
+    /**
+     * @param window        maximum number of sections started but not yet written
+     * @param timeoutMillis time the whole report may take, or {@code 0} to wait for every section
+     */
+    ReportWriter(final ReportSink sink, final int window, final long timeoutMillis) {
+        this.sink          = sink;
+        this.window        = Math.max(1, window);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Writes the sections of {@code sources} in order.
+     *
+     * @return number of sections written as pending
+     */
+    int write(final String title, final List<? extends Source> sources) throws IOException {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        final Deque<CompletableFuture<ReportSection>> started = new ArrayDeque<>(Math.min(window, sources.size()));
+        int next = 0;
+        int pending = 0;
+
+        sink.begin(title);
+        for (int i = 0; i < sources.size(); i++) {
+            if (timeoutMillis <= 0 || deadline - System.nanoTime() > 0) {
+                for (; next < sources.size() && next < i + window; next++) {
+                    started.add(sources.get(next).start());
+                }
+            }
+
+            final CompletableFuture<ReportSection> head = i < next ? started.poll() : null;
+            ReportSection section = head == null ? null : await(head, deadline);
+            if (section == null) {
+                section = sources.get(i).pending();
+            }
+            if (section.getStatus() == ReportSection.Status.PENDING) {
+                pending++;
+            }
+            sink.section(section);
+        }
+        return pending;
+    }
+
+    /**
+     * @return the section, or {@code null} if it did not complete by the deadline
+     */
+    private ReportSection await(final CompletableFuture<ReportSection> future, final long deadline) throws IOException {
+        try {
+            if (timeoutMillis <= 0) {
+                return future.get();
+            }
+            final long remaining = deadline - System.nanoTime();
+            return remaining > 0 ? future.get(remaining, TimeUnit.NANOSECONDS) : future.getNow(null);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing the report", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Report section failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.github.maven.plugin.oss;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the import declarations of a Java source file without building an AST.
+ * <p>
+ * Only the compilation unit header (package declaration, its annotations and the
+ * imports) is tokenized; scanning stops at the first token that starts a type or
+ * module declaration. Sources the scanner does not understand are handed to the
+ * fallback parser.
+ */
+final class ScanningImportParser implements ImportParser {
+
+    private final ImportParser fallback;
+
+    ScanningImportParser(final ImportParser fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public List<JavaImport> parse(final File sourceFile) throws IOException {
+        final List<JavaImport> imports;
+        try (Reader reader = new InputStreamReader(new FileInputStream(sourceFile), UTF_8)) {
+            imports = scan(reader);
+        }
+
+        return imports != null ? imports : fallback.parse(sourceFile);
+    }
+
+    /**
+     * @return the imports declared in the header, or {@code null} if the header could not be scanned
+     */
+    static List<JavaImport> scan(final Reader reader) throws IOException {
+        return new HeaderScanner(reader).scan();
+    }
+
+    private static final class HeaderScanner {
+
+        private static final int EOF  = -1;
+        private static final int NONE = -2;
+
+        private final Reader reader;
+        private final char[] buffer = new char[4096];
+        private int          position;
+        private int          limit;
+
+        private int  rawPeeked = NONE;
+        private int  backslashRun;
+        private int  peeked    = NONE;
+
+        private final StringBuilder name = new StringBuilder(64);
+
+        HeaderScanner(final Reader reader) {
+            this.reader = reader;
+        }
+
+        List<JavaImport> scan() throws IOException {
+            final List<JavaImport> imports = new ArrayList<>();
+
+            if (peek() == '\uFEFF') {
+                next();
+            }
+
+            while (true) {
+                if (!skipTrivia()) {
+                    return null;
+                }
+
+                final int c = peek();
+                if (c == EOF) {
+                    return imports;
+                } else if (c == ';') {
+                    next();
+                } else if (c == '@') {
+                    next();
+                    if (!skipTrivia() || !Character.isJavaIdentifierStart(peek())) {
+                        return null;
+                    }
+                    if ("interface".equals(identifier())) {
+                        return imports;
+                    }
+                    if (!qualifiedNameRest() || !skipTrivia()) {
+                        return null;
+                    }
+                    if (peek() == '(' && !skipParenthesized()) {
+                        return null;
+                    }
+                } else if (Character.isJavaIdentifierStart(c)) {
+                    final String keyword = identifier();
+                    if ("package".equals(keyword)) {
+                        if (!skipTrivia() || !Character.isJavaIdentifierStart(peek())) {
+                            return null;
+                        }
+                        identifier();
+                        if (!qualifiedNameRest() || next() != ';') {
+                            return null;
+                        }
+                    } else if ("import".equals(keyword)) {
+                        final JavaImport imp = importDeclaration();
+                        if (imp == null) {
+                            return null;
+                        }
+                        imports.add(imp);
+                    } else {
+                        // modifiers, class, interface, enum, module, ...
+                        return imports;
+                    }
+                } else {
+                    return null;
+                }
+            }
+        }
+
+        private JavaImport importDeclaration() throws IOException {
+            if (!skipTrivia() || !Character.isJavaIdentifierStart(peek())) {
+                return null;
+            }
+
+            boolean staticImport = false;
+            name.setLength(0);
+            String first = identifier();
+            if ("static".equals(first)) {
+                staticImport = true;
+                if (!skipTrivia() || !Character.isJavaIdentifierStart(peek())) {
+                    return null;
+                }
+                first = identifier();
+            }
+            name.append(first);
+
+            while (true) {
+                if (!skipTrivia()) {
+                    return null;
+                }
+                final int c = next();
+                if (c == ';') {
+                    return new JavaImport(name.toString(), staticImport, false);
+                } else if (c != '.' || !skipTrivia()) {
+                    return null;
+                }
+
+                if (peek() == '*') {
+                    next();
+                    if (!skipTrivia() || next() != ';') {
+                        return null;
+                    }
+                    return new JavaImport(name.toString(), staticImport, true);
+                } else if (Character.isJavaIdentifierStart(peek())) {
+                    final String part = identifier();
+                    name.append('.').append(part);
+                } else {
+                    return null;
+                }
+            }
+        }
+
+        /**
+         * Consumes {@code ("." identifier)*} following an already consumed identifier.
+         */
+        private boolean qualifiedNameRest() throws IOException {
+            while (true) {
+                if (!skipTrivia()) {
+                    return false;
+                }
+                if (peek() != '.') {
+                    return true;
+                }
+                next();
+                if (!skipTrivia() || !Character.isJavaIdentifierStart(peek())) {
+                    return false;
+                }
+                identifier();
+            }
+        }
+
+        private String identifier() throws IOException {
+            final StringBuilder id = new StringBuilder(16);
+            id.append((char) next());
+            while (peek() != EOF && Character.isJavaIdentifierPart(peek())) {
+                id.append((char) next());
+            }
+            return id.toString();
+        }
+
+        /**
+         * Skips annotation arguments, including nested parentheses, comments and literals.
+         */
+        private boolean skipParenthesized() throws IOException {
+            int depth = 0;
+            do {
+                if (!skipTrivia()) {
+                    return false;
+                }
+                final int c = next();
+                switch (c) {
+                    case EOF:
+                        return false;
+                    case '(':
+                        depth++;
+                        break;
+                    case ')':
+                        depth--;
+                        break;
+                    case '\'':
+                        if (!skipQuoted('\'')) {
+                            return false;
+                        }
+                        break;
+                    case '"':
+                        if (peek() == '"') {
+                            next();
+                            if (peek() == '"') {
+                                next();
+                                if (!skipTextBlock()) {
+                                    return false;
+                                }
+                            }
+                        } else if (!skipQuoted('"')) {
+                            return false;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            } while (depth > 0);
+            return true;
+        }
+
+        private boolean skipQuoted(final int quote) throws IOException {
+            while (true) {
+                final int c = next();
+                if (c == EOF || c == '\n' || c == '\r') {
+                    return false;
+                } else if (c == '\\') {
+                    if (next() == EOF) {
+                        return false;
+                    }
+                } else if (c == quote) {
+                    return true;
+                }
+            }
+        }
+
+        private boolean skipTextBlock() throws IOException {
+            int quotes = 0;
+            while (true) {
+                final int c = next();
+                if (c == EOF) {
+                    return false;
+                } else if (c == '\\') {
+                    quotes = 0;
+                    if (next() == EOF) {
+                        return false;
+                    }
+                } else if (c == '"') {
+                    if (++quotes == 3) {
+                        return true;
+                    }
+                } else {
+                    quotes = 0;
+                }
+            }
+        }
+
+        /**
+         * Skips whitespace and comments.
+         *
+         * @return {@code false} if the input is malformed (unterminated comment, stray {@code /})
+         */
+        private boolean skipTrivia() throws IOException {
+            while (true) {
+                final int c = peek();
+                if (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f') {
+                    next();
+                } else if (c == '/') {
+                    next();
+                    final int n = next();
+                    if (n == '/') {
+                        int e;
+                        do {
+                            e = next();
+                        } while (e != EOF && e != '\n' && e != '\r');
+                    } else if (n == '*') {
+                        int previous = 0;
+                        int e;
+                        while ((e = next()) != '/' || previous != '*') {
+                            if (e == EOF) {
+                                return false;
+                            }
+                            previous = e;
+                        }
+                    } else {
+                        return false;
+                    }
+                } else if (c == '\u001a') {
+                    // ASCII SUB, permitted as the last character of a compilation unit
+                    next();
+                } else {
+                    return true;
+                }
+            }
+        }
+
+        private int peek() throws IOException {
+            if (peeked == NONE) {
+                peeked = translated();
+            }
+            return peeked;
+        }
+
+        private int next() throws IOException {
+            final int c = peek();
+            peeked = NONE;
+            return c;
+        }
+
+        /**
+         * Reads the next character with unicode escapes ({@code \}{@code uXXXX}) translated.
+         */
+        private int translated() throws IOException {
+            final int c = raw();
+            if (c != '\\') {
+                backslashRun = 0;
+                return c;
+            }
+
+            // a backslash preceded by an odd number of backslashes cannot start an escape
+            if ((backslashRun & 1) == 1) {
+                backslashRun = 0;
+                return c;
+            }
+
+            final int n = raw();
+            if (n != 'u') {
+                rawPeeked = n;
+                backslashRun = 1;
+                return c;
+            }
+
+            int u;
+            while ((u = raw()) == 'u') {
+                // 'u' may be repeated
+            }
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                final int digit = Character.digit(i == 0 ? u : raw(), 16);
+                if (digit < 0) {
+                    throw new IOException("Malformed unicode escape");
+                }
+                value = (value << 4) | digit;
+            }
+            backslashRun = 0;
+            return value;
+        }
+
+        private int raw() throws IOException {
+            if (rawPeeked != NONE) {
+                final int c = rawPeeked;
+                rawPeeked = NONE;
+                return c;
+            }
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return EOF;
+                }
+            }
+            return buffer[position++];
+        }
+    }
+}
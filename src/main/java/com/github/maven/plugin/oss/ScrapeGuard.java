@@ -0,0 +1,172 @@
+package com.github.maven.plugin.oss;
+
+import static com.github.maven.plugin.oss.ScrapeScheduler.hostOf;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URISyntaxException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Retries and per-host circuit breakers shared by the issue scrapes of one run.
+ * <p>
+ * A scrape failing with an {@link IOException} is retried up to {@code retries} times, each after a random
+ * delay of up to {@code backoffMillis} doubled per attempt (full jitter), so scrapes failing together do
+ * not retry together. Every scrape that fails for good counts against its host: after {@code threshold}
+ * consecutive failures the host's circuit opens and its scrapes fail immediately for {@code cooldownMillis}.
+ * After that one scrape is let through; its success closes the circuit, its failure opens it again.
+ */
+final class ScrapeGuard {
+
+    private static final long MAX_BACKOFF_MILLIS = 30_000L;
+
+    private final int  retries;
+    private final long backoffMillis;
+    private final int  threshold;
+    private final long cooldownMillis;
+
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    private final LongAdder retried  = new LongAdder();
+    private final LongAdder opened   = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param retries   attempts after the first; {@code 0} does not retry
+     * @param threshold consecutive failures opening a host's circuit; {@code 0} never opens it
+     */
+    ScrapeGuard(final int retries, final long backoffMillis, final int threshold, final long cooldownMillis) {
+        this.retries        = retries;
+        this.backoffMillis  = backoffMillis;
+        this.threshold      = threshold;
+        this.cooldownMillis = cooldownMillis;
+    }
+
+    /**
+     * @return {@code scraper}, with its scrapes retried and subject to the circuit of their host
+     */
+    IssueScraper guard(final IssueScraper scraper) {
+        return new IssueScraper() {
+            @Override
+            public IssueSnapshot scrape(final String issueURL) throws IOException, URISyntaxException {
+                return call(issueURL, () -> scraper.scrape(issueURL));
+            }
+
+            @Override
+            public IssueSnapshot scrapeSince(final String issueURL, final IssueSnapshot previous) throws IOException, URISyntaxException {
+                return call(issueURL, () -> scraper.scrapeSince(issueURL, previous));
+            }
+        };
+    }
+
+    <T> T call(final String url, final Attempt<T> attempt) throws IOException, URISyntaxException {
+        final Circuit circuit = circuits.computeIfAbsent(hostOf(url), host -> new Circuit());
+        for (int failures = 0; ; failures++) {
+            if (!circuit.allow()) {
+                rejected.increment();
+                throw new IOException("Circuit open for " + hostOf(url) + ", skipping " + url);
+            }
+            try {
+                final T result = attempt.run();
+                circuit.succeeded();
+                return result;
+            } catch (IOException e) {
+                if (failures == retries) {
+                    circuit.failed();
+                    throw e;
+                }
+                // the attempt is over either way; a retry is a new trial for a half-open circuit
+                circuit.released();
+            } catch (URISyntaxException | RuntimeException e) {
+                circuit.released();
+                throw e;
+            }
+            retried.increment();
+            sleep(ThreadLocalRandom.current().nextLong(Math.min(MAX_BACKOFF_MILLIS, backoffMillis << Math.min(failures, 20)) + 1));
+        }
+    }
+
+    /**
+     * @return number of attempts repeated after a failure
+     */
+    long getRetried() {
+        return retried.sum();
+    }
+
+    /**
+     * @return number of times a host's circuit opened
+     */
+    long getOpened() {
+        return opened.sum();
+    }
+
+    /**
+     * @return number of scrapes skipped because their host's circuit was open
+     */
+    long getRejected() {
+        return rejected.sum();
+    }
+
+    private static void sleep(final long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off");
+        }
+    }
+
+    interface Attempt<T> {
+
+        T run() throws IOException, URISyntaxException;
+    }
+
+    private final class Circuit {
+
+        private int    failures;
+        private long   openUntil;
+        // the scrape let through after the cool-down, if it is running
+        private Thread trial;
+
+        synchronized boolean allow() {
+            if (threshold <= 0 || failures < threshold) {
+                return true;
+            }
+            if (trial != null || System.currentTimeMillis() < openUntil) {
+                return false;
+            }
+            trial = Thread.currentThread();
+            return true;
+        }
+
+        synchronized void succeeded() {
+            failures = 0;
+            trial = null;
+        }
+
+        synchronized void failed() {
+            final boolean reopened = released();
+            failures++;
+            if (threshold > 0 && failures >= threshold) {
+                if (failures == threshold || reopened) {
+                    opened.increment();
+                }
+                openUntil = System.currentTimeMillis() + cooldownMillis;
+            }
+        }
+
+        /**
+         * @return whether the current thread ran the trial scrape
+         */
+        synchronized boolean released() {
+            if (trial != Thread.currentThread()) {
+                return false;
+            }
+            trial = null;
+            return true;
+        }
+    }
+}
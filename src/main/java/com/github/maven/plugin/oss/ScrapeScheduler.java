@@ -0,0 +1,161 @@
+package com.github.maven.plugin.oss;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs issue site requests asynchronously with at most {@code concurrency} in flight overall and at most
+ * {@code perHost} against any one host.
+ * <p>
+ * Requests over a host's limit wait in a per-host queue rather than on a worker thread, so a slow host
+ * does not hold back requests to other hosts. Waiting requests start in order of priority, highest first,
+ * and then in submission order; a host whose rate limit allows only some requests spends it on the most
+ * important ones.
+ */
+final class ScrapeScheduler implements AutoCloseable {
+
+    private final int             perHost;
+    private final ExecutorService executor;
+    private final ExecutorService prefetcher;
+
+    private final Map<String, Host> hosts    = new HashMap<>();
+    private final AtomicLong        sequence = new AtomicLong();
+
+    ScrapeScheduler(final int concurrency, final int perHost) {
+        if (concurrency < 1 || perHost < 1) {
+            throw new IllegalArgumentException("Concurrency limits must be positive: " + concurrency + ", " + perHost);
+        }
+        this.perHost = perHost;
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        // only ever given Prioritized requests
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), runnable -> {
+            final Thread thread = new Thread(runnable, "oss-scrape-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(contextClassLoader);
+            return thread;
+        });
+        // a running request prefetches at most one page at a time, so this never waits on a thread
+        final AtomicInteger prefetchCount = new AtomicInteger();
+        this.prefetcher = Executors.newFixedThreadPool(concurrency, runnable -> {
+            final Thread thread = new Thread(runnable, "oss-prefetch-" + prefetchCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(contextClassLoader);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules {@code request} against the host of {@code url}.
+     */
+    <T> CompletableFuture<T> submit(final String url, final Callable<T> request) {
+        return submit(url, 0, request);
+    }
+
+    /**
+     * Schedules {@code request} against the host of {@code url}, ahead of waiting requests of lower
+     * {@code priority}.
+     */
+    <T> CompletableFuture<T> submit(final String url, final long priority, final Callable<T> request) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final Host host;
+        synchronized (hosts) {
+            host = hosts.computeIfAbsent(hostOf(url), h -> new Host());
+        }
+        host.submit(new Prioritized(priority, sequence.getAndIncrement(), () -> {
+            try {
+                result.complete(request.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                host.release();
+            }
+        }));
+        return result;
+    }
+
+    /**
+     * @return the executor running requests reads ahead for; outside the limits, as they are only ever
+     *         one page ahead of a running request
+     */
+    Executor prefetcher() {
+        return prefetcher;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        prefetcher.shutdownNow();
+    }
+
+    static String hostOf(final String url) {
+        try {
+            final String host = URI.create(url).getHost();
+            return host == null ? url : host.toLowerCase();
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    private final class Host {
+
+        private final Queue<Prioritized> waiting = new PriorityQueue<>();
+        private int                      running;
+
+        synchronized void submit(final Prioritized request) {
+            if (running < perHost) {
+                running++;
+                executor.execute(request);
+            } else {
+                waiting.add(request);
+            }
+        }
+
+        synchronized void release() {
+            final Prioritized next = waiting.poll();
+            if (next != null) {
+                executor.execute(next);
+            } else {
+                running--;
+            }
+        }
+    }
+
+    private static final class Prioritized implements Runnable, Comparable<Prioritized> {
+
+        private final long     priority;
+        private final long     sequence;
+        private final Runnable request;
+
+        Prioritized(final long priority, final long sequence, final Runnable request) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.request  = request;
+        }
+
+        @Override
+        public void run() {
+            request.run();
+        }
+
+        @Override
+        public int compareTo(final Prioritized other) {
+            final int byPriority = Long.compare(other.priority, priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.maven.plugin.oss;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Starts at most one asynchronous computation per key. Callers asking for a key that is in flight, or
+ * already done, share its future. A failure is shared only by the callers that asked while the computation
+ * was in flight; it is forgotten once it completes, so a later caller starts the computation again.
+ */
+final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder shared  = new LongAdder();
+
+    /**
+     * @param start starts the computation of {@code key}; only called if no caller started it before
+     */
+    CompletableFuture<V> get(final K key, final Supplier<CompletableFuture<V>> start) {
+        final CompletableFuture<V> flight = new CompletableFuture<>();
+        final CompletableFuture<V> existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            shared.increment();
+            return existing;
+        }
+
+        started.increment();
+        try {
+            start.get().whenComplete((value, e) -> {
+                if (e != null) {
+                    fail(key, flight, e);
+                } else {
+                    flight.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            fail(key, flight, e);
+        }
+        return flight;
+    }
+
+    private void fail(final K key, final CompletableFuture<V> flight, final Throwable e) {
+        // removed first, so no caller can share the failure after its waiters have seen it
+        flights.remove(key, flight);
+        flight.completeExceptionally(e);
+    }
+
+    /**
+     * @return number of computations started
+     */
+    long getStarted() {
+        return started.sum();
+    }
+
+    /**
+     * @return number of requests served by a computation another request started
+     */
+    long getShared() {
+        return shared.sum();
+    }
+}
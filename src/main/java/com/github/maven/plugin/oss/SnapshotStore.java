@@ -0,0 +1,312 @@
+package com.github.maven.plugin.oss;
+
+import static com.github.maven.plugin.oss.Utility.readVarInt;
+import static com.github.maven.plugin.oss.Utility.sha1Hex;
+import static com.github.maven.plugin.oss.Utility.writeAtomically;
+import static com.github.maven.plugin.oss.Utility.writeVarInt;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Issue snapshots kept between runs, one file per issue system and site URL.
+ * <p>
+ * In {@link Mode#TTL} a snapshot younger than the TTL is served instead of scraping the site again;
+ * {@link Mode#OFFLINE} serves any stored snapshot and never scrapes; {@link Mode#REFRESH} always scrapes
+ * in full and stores the result. A stale snapshot is the base of an incremental scrape until its last
+ * full scrape is older than the resync interval. Each entry is written atomically, so builds sharing a
+ * cache directory never read a partial entry; the last one to write an entry wins.
+ * <p>
+ * The {@value #RECENT} entries read last are kept in memory as well, so a resident watch serves them without
+ * reading their files again; storing an entry forgets it until it is read again. An entry another build
+ * writes in the meantime is not seen until the remembered one is evicted.
+ * <p>
+ * Entry layout (version 2): magic, version, issue system, site URL, snapshot URL, snapshot time, time of
+ * the last full scrape, state counts, then per open issue its title, URL, tags and optional creation and
+ * last activity times. A CRC32 of everything before it closes the entry.
+ */
+final class SnapshotStore {
+
+    static final int VERSION = 2;
+
+    private static final int MAGIC = 0x4F535353; // "OSSS"
+
+    private static final int CREATED       = 1;
+    private static final int LAST_ACTIVITY = 2;
+
+    static final int RECENT = 256;
+
+    enum Mode {
+        TTL, OFFLINE, REFRESH
+    }
+
+    private final File directory;
+    private final long ttlMillis;
+    private final long resyncMillis;
+    private final Mode mode;
+
+    private final Map<String, Entry> recent = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+            return size() > RECENT;
+        }
+    });
+
+    private final LongAdder hits   = new LongAdder();
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder merged = new LongAdder();
+
+    /**
+     * @param directory    where entries are stored; {@code null} disables the store
+     * @param resyncMillis time after a full scrape after which a site is scraped in full again rather than
+     *                     incrementally; {@code 0} always scrapes in full
+     */
+    SnapshotStore(final File directory, final long ttlMillis, final long resyncMillis, final Mode mode) {
+        this.directory    = directory;
+        this.ttlMillis    = ttlMillis;
+        this.resyncMillis = resyncMillis;
+        this.mode         = mode;
+    }
+
+    /**
+     * @return whether sites must not be scraped
+     */
+    boolean isOffline() {
+        return mode == Mode.OFFLINE;
+    }
+
+    /**
+     * @return the stored snapshot of the site if the mode allows serving it, otherwise {@code null}
+     */
+    IssueSnapshot cached(final String issueSystem, final String siteURL) {
+        if (directory == null || mode == Mode.REFRESH) {
+            return null;
+        }
+        final Entry entry = read(issueSystem, siteURL);
+        if (entry == null) {
+            return null;
+        }
+        final IssueSnapshot snapshot = entry.getSnapshot();
+        final long age = System.currentTimeMillis() - snapshot.getSnapshotDate().getTime();
+        if (mode == Mode.TTL && age >= ttlMillis) {
+            return null;
+        }
+        hits.increment();
+        return snapshot;
+    }
+
+    /**
+     * @return the stored entry an incremental scrape of the site may start from, or {@code null} if the
+     *         site is to be scraped in full
+     */
+    Entry deltaBase(final String issueSystem, final String siteURL) {
+        if (directory == null || mode == Mode.REFRESH || resyncMillis <= 0) {
+            return null;
+        }
+        final Entry entry = read(issueSystem, siteURL);
+        if (entry == null || System.currentTimeMillis() - entry.getFullScrape() >= resyncMillis) {
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Stores the snapshot scraped in full from {@code siteURL}, replacing any earlier one.
+     */
+    void store(final String siteURL, final IssueSnapshot snapshot) throws IOException {
+        store(siteURL, snapshot, snapshot.getSnapshotDate().getTime());
+    }
+
+    /**
+     * Stores the snapshot of {@code siteURL}, replacing any earlier one.
+     *
+     * @param fullScrape time of the full scrape the snapshot was incrementally derived from, or its own time
+     */
+    void store(final String siteURL, final IssueSnapshot snapshot, final long fullScrape) throws IOException {
+        if (directory == null) {
+            return;
+        }
+        writeAtomically(entryFile(snapshot.getIssueSystem(), siteURL).toPath(), stream -> {
+            final CheckedOutputStream checked = new CheckedOutputStream(stream, new CRC32());
+            final DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(snapshot.getIssueSystem());
+            out.writeUTF(siteURL);
+            out.writeUTF(snapshot.getUrl());
+            out.writeLong(snapshot.getSnapshotDate().getTime());
+            out.writeLong(fullScrape);
+
+            final List<Pair<String, Integer>> stateCounts = orEmpty(snapshot.getStateCounts());
+            writeVarInt(out, stateCounts.size());
+            for (final Pair<String, Integer> stateCount : stateCounts) {
+                out.writeUTF(stateCount.getLeft());
+                writeVarInt(out, stateCount.getRight());
+            }
+
+            final List<Issue> issues = orEmpty(snapshot.getOpenIssues());
+            writeVarInt(out, issues.size());
+            for (final Issue issue : issues) {
+                out.writeUTF(issue.getTitle());
+                out.writeUTF(issue.getUrl());
+                final Set<String> tags = issue.getTags() == null ? Collections.emptySet() : issue.getTags();
+                writeVarInt(out, tags.size());
+                for (final String tag : tags) {
+                    out.writeUTF(tag);
+                }
+                out.writeByte((issue.getCreated() != null ? CREATED : 0) | (issue.getLastActivity() != null ? LAST_ACTIVITY : 0));
+                if (issue.getCreated() != null) {
+                    out.writeLong(issue.getCreated().getTime());
+                }
+                if (issue.getLastActivity() != null) {
+                    out.writeLong(issue.getLastActivity().getTime());
+                }
+            }
+
+            out.flush();
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+        });
+        recent.remove(key(snapshot.getIssueSystem(), siteURL));
+        if (fullScrape < snapshot.getSnapshotDate().getTime()) {
+            merged.increment();
+        } else {
+            stored.increment();
+        }
+    }
+
+    /**
+     * @return number of snapshots served from the store this run
+     */
+    long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of snapshots scraped in full and written this run
+     */
+    long getStored() {
+        return stored.sum();
+    }
+
+    /**
+     * @return number of snapshots scraped incrementally and written this run
+     */
+    long getMerged() {
+        return merged.sum();
+    }
+
+    /**
+     * @return the stored entry regardless of its age, or {@code null} if there is none or it is unreadable
+     */
+    Entry read(final String issueSystem, final String siteURL) {
+        if (directory == null) {
+            return null;
+        }
+        final Entry remembered = recent.get(key(issueSystem, siteURL));
+        if (remembered != null) {
+            return remembered;
+        }
+        final File file = entryFile(issueSystem, siteURL);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try (CheckedInputStream checked =
+                 new CheckedInputStream(new BufferedInputStream(new FileInputStream(file)), new CRC32())) {
+            final DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC || in.readInt() != VERSION
+                || !issueSystem.equals(in.readUTF()) || !siteURL.equals(in.readUTF())) {
+                return null;
+            }
+            final String url = in.readUTF();
+            final Date snapshotDate = new Date(in.readLong());
+            final long fullScrape = in.readLong();
+
+            final int stateCountSize = readVarInt(in);
+            final List<Pair<String, Integer>> stateCounts = new ArrayList<>(stateCountSize);
+            for (int i = 0; i < stateCountSize; i++) {
+                stateCounts.add(Pair.of(in.readUTF(), readVarInt(in)));
+            }
+
+            final int issueCount = readVarInt(in);
+            final List<Issue> issues = new ArrayList<>(issueCount);
+            for (int i = 0; i < issueCount; i++) {
+                final String title = in.readUTF();
+                final String issueURL = in.readUTF();
+                final int tagCount = readVarInt(in);
+                final Set<String> tags = new LinkedHashSet<>();
+                for (int j = 0; j < tagCount; j++) {
+                    tags.add(in.readUTF());
+                }
+                final int flags = in.readByte();
+                final Date created = (flags & CREATED) != 0 ? new Date(in.readLong()) : null;
+                final Date lastActivity = (flags & LAST_ACTIVITY) != 0 ? new Date(in.readLong()) : null;
+                issues.add(new Issue(title, issueURL, tags, created, lastActivity));
+            }
+
+            final long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected) {
+                return null;
+            }
+            final Entry entry = new Entry(new IssueSnapshot(snapshotDate, issueSystem, url, issues, stateCounts), fullScrape);
+            recent.put(key(issueSystem, siteURL), entry);
+            return entry;
+        } catch (IOException e) {
+            // unreadable entries are scraped again and replaced
+            return null;
+        }
+    }
+
+    private File entryFile(final String issueSystem, final String siteURL) {
+        return new File(directory, sha1Hex(key(issueSystem, siteURL)) + ".bin");
+    }
+
+    private static String key(final String issueSystem, final String siteURL) {
+        return issueSystem + "\n" + siteURL;
+    }
+
+    private static <T> List<T> orEmpty(final List<T> list) {
+        return list == null ? Collections.emptyList() : list;
+    }
+
+    /**
+     * A stored snapshot and when the site was last scraped in full.
+     */
+    static final class Entry {
+
+        private final IssueSnapshot snapshot;
+        private final long          fullScrape;
+
+        Entry(final IssueSnapshot snapshot, final long fullScrape) {
+            this.snapshot   = snapshot;
+            this.fullScrape = fullScrape;
+        }
+
+        IssueSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        long getFullScrape() {
+            return fullScrape;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.maven.plugin.oss;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.stream.Collectors.toList;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Watches directories for changes to the files a report is computed from: Java sources, class files and
+ * POMs. Other files, such as the swap and backup files of editors, are ignored.
+ * <p>
+ * Changes are collected until none arrived for the quiet period, or for at most four quiet periods after
+ * the first one, so the several events an editor raises for one save come back as a single change of that
+ * file. Directories created in a watched tree are watched as well; deleted ones are forgotten.
+ */
+final class SourceWatcher implements Closeable {
+
+    private final WatchService service;
+    private final long         quietMillis;
+
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private final Set<Path>           trees       = new HashSet<>();
+
+    SourceWatcher(final long quietMillis) throws IOException {
+        this.service     = FileSystems.getDefault().newWatchService();
+        this.quietMillis = quietMillis;
+    }
+
+    /**
+     * Watches the files directly in {@code directory}, if it exists.
+     */
+    void watch(final Path directory) throws IOException {
+        if (Files.isDirectory(directory)) {
+            register(directory, false);
+        }
+    }
+
+    /**
+     * Watches {@code root} and every directory below it, if it exists.
+     */
+    void watchTree(final Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        final List<Path> subdirectories;
+        try (Stream<Path> walk = Files.walk(root)) {
+            subdirectories = walk.filter(Files::isDirectory).collect(toList());
+        }
+        for (final Path directory : subdirectories) {
+            register(directory, true);
+        }
+    }
+
+    /**
+     * @return number of directories watched
+     */
+    int getDirectories() {
+        return directories.size();
+    }
+
+    /**
+     * Waits for the next change.
+     *
+     * @return the files and directories that changed, each once; a directory whose events were lost stands
+     *         for everything in it
+     */
+    Set<Path> next() throws IOException, InterruptedException {
+        final Set<Path> changed = new LinkedHashSet<>();
+        long deadline = Long.MAX_VALUE;
+        WatchKey key = service.take();
+        while (key != null) {
+            collect(key, changed);
+            if (changed.isEmpty()) {
+                key = service.take();
+                continue;
+            }
+            if (deadline == Long.MAX_VALUE) {
+                deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(4 * quietMillis);
+            }
+            final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            key = remaining <= 0 ? null : service.poll(Math.min(quietMillis, remaining), TimeUnit.MILLISECONDS);
+        }
+        return changed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        service.close();
+    }
+
+    private void register(final Path directory, final boolean tree) throws IOException {
+        directories.put(directory.register(service, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), directory);
+        if (tree) {
+            trees.add(directory);
+        }
+    }
+
+    private void collect(final WatchKey key, final Set<Path> changed) throws IOException {
+        final Path directory = directories.get(key);
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                changed.add(directory);
+                continue;
+            }
+            final Path path = directory.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && trees.contains(directory) && Files.isDirectory(path)) {
+                // files created before it is watched are found by the next report all the same
+                watchTree(path);
+                changed.add(path);
+            } else if (event.kind() == ENTRY_DELETE && trees.contains(path) || relevant(path)) {
+                changed.add(path);
+            }
+        }
+        if (!key.reset()) {
+            // its deletion may be reported by its parent only after the directory is forgotten
+            directories.remove(key);
+            if (trees.remove(directory)) {
+                changed.add(directory);
+            }
+        }
+    }
+
+    private static boolean relevant(final Path path) {
+        final String name = path.getFileName().toString();
+        return name.endsWith(".java") || name.endsWith(".class") || "pom.xml".equals(name);
+    }
+}
@@ -1,19 +1,16 @@
 package com.github.maven.plugin.oss;
 
 import static java.lang.String.format;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static java.util.regex.Pattern.compile;
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Collectors.toSet;
 
-import com.github.javaparser.JavaParser;
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.ImportDeclaration;
-import com.github.javaparser.ast.expr.Name;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
-import org.apache.commons.lang3.tuple.Triple;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Dependency;
@@ -21,7 +18,6 @@ import org.apache.maven.model.IssueManagement;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Parent;
 import org.apache.maven.model.Scm;
-import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuildingRequest;
@@ -31,23 +27,59 @@ import org.apache.maven.shared.artifact.resolve.ArtifactResolver;
 import org.apache.maven.shared.artifact.resolve.ArtifactResolverException;
 import org.apache.maven.shared.artifact.resolve.ArtifactResult;
 import org.codehaus.plexus.util.DirectoryScanner;
-import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.jar.JarFile;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 final class Utility {
 
+    // one reader per analysis thread; readers reuse their buffers from file to file
+    private static final ThreadLocal<ClassFileReader> CLASS_FILE_READER = ThreadLocal.withInitial(ClassFileReader::new);
+
+    private static final Pattern GITHUB_URL = compile("github\\.com/(?<org>[^/]+)/(?<repo>[a-zA-Z0-9_\\-.]+)");
+    private static final Pattern GITHUB_SSH = compile("git@github\\.com:(?<org>[^/]+)/(?<repo>[a-zA-Z0-9_\\-.]+)");
+
+    // phases of the dependency usage analysis, as reported by Metrics
+    static final String SOURCES    = "sources";
+    static final String RESOLUTION = "artifact resolution";
+    static final String INDEX      = "JAR indexing";
+
+    static String coordinates(final Artifact artifact) {
+        return artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getVersion();
+    }
+
     static ArtifactCoordinate dependencyToCoordinate(final Dependency dependency) {
         final DefaultArtifactCoordinate coordinate = new DefaultArtifactCoordinate();
         coordinate.setGroupId(dependency.getGroupId());
@@ -56,6 +88,18 @@ final class Utility {
         return coordinate;
     }
 
+    static ArtifactCoordinate artifactToCoordinate(final Artifact artifact) {
+        final DefaultArtifactCoordinate coordinate = new DefaultArtifactCoordinate();
+        coordinate.setGroupId(artifact.getGroupId());
+        coordinate.setArtifactId(artifact.getArtifactId());
+        coordinate.setVersion(artifact.getVersion());
+        coordinate.setClassifier(artifact.getClassifier());
+        if (artifact.getArtifactHandler() != null) {
+            coordinate.setExtension(artifact.getArtifactHandler().getExtension());
+        }
+        return coordinate;
+    }
+
     static List<String> retrieveFullyQualifiedClasses(final Artifact artifact) {
         final File artifactFile = artifact.getFile();
         if (!artifactFile.getAbsolutePath().endsWith(".jar")) {
@@ -63,135 +107,351 @@ final class Utility {
         }
 
         try {
-            return new JarFile(artifactFile)
-                .stream()
-                .filter(e -> e.getName().endsWith(".class"))
-                .map(e -> e.getName().replaceAll("[/$]", ".").replaceAll("\\.class$", ""))
-                .collect(toList());
+            return ClassIndex.scanJar(artifactFile);
         } catch (IOException e) {
-            throw new RuntimeException("Could not read JAR file: " + artifactFile.getAbsolutePath());
+            throw new RuntimeException("Could not read JAR file: " + artifactFile.getAbsolutePath(), e);
         }
     }
 
-    static Map<Artifact, Long> computeDependencyUsage(
-        final MavenProject project, final MavenSession session, final ArtifactResolver resolver) {
+    static List<String> retrieveFullyQualifiedClasses(
+        final Artifact artifact, final ClassIndex classIndex, final ClassFilter filter) {
+        try {
+            return classIndex.classNames(artifact, filter);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not index JAR file: " + artifact.getFile().getAbsolutePath(), e);
+        }
+    }
 
-        final Map<String, Artifact> fqcDependency = project.getDependencies().stream()
-            .filter(dep -> !"system".equalsIgnoreCase(dep.getScope()))
-            .flatMap(dep -> {
-                final ProjectBuildingRequest buildingRequest =
-                    new DefaultProjectBuildingRequest(session.getProjectBuildingRequest());
-                buildingRequest.setRemoteRepositories(project.getRemoteArtifactRepositories());
-                try {
-                    final ArtifactResult result = resolver.resolveArtifact(buildingRequest, dependencyToCoordinate(dep));
-                    final Artifact artifact = result.getArtifact();
-                    return retrieveFullyQualifiedClasses(artifact)
-                        .stream()
-                        .map(fqc -> Pair.of(fqc, artifact));
-                } catch (Exception e) {
-                    throw new RuntimeException("Error resolving artifact: " + e.getMessage(), e);
-                }
-            })
-            .collect(toMap(Pair::getKey, Pair::getValue, (art1, art2) -> art1));
+    static Map<Artifact, Long> computeDependencyUsage(final MavenProject project, final AnalysisContext context) {
+        final Metrics metrics = context.getMetrics();
+        return inPool(context.getPool(), () -> {
+            final Uses uses;
+            final Metrics.Timing parsing = metrics.phase(SOURCES, "files").start();
+            try {
+                uses = retrieveUses(project, context);
+            } finally {
+                parsing.stop();
+            }
+            final List<Pair<Artifact, MavenProject>> dependencies;
+            final Metrics.Timing resolution = metrics.phase(RESOLUTION, "artifacts").start();
+            try {
+                dependencies = resolveDependencyArtifacts(singletonList(project), context);
+                metrics.phase(RESOLUTION, "artifacts").add(dependencies.size(), 0);
+            } finally {
+                resolution.stop();
+            }
+            final DependencyIndex<Artifact> fqcDependency;
+            final Metrics.Timing indexing = metrics.phase(INDEX, "JARs").start();
+            try {
+                fqcDependency = indexDependencies(dependencies, Pair::getLeft, Uses.filter(singletonList(uses)), context);
+            } finally {
+                indexing.stop();
+            }
 
-        final List<String> fqcImported = retrieveImportedClasses(project);
+            final Map<Artifact, LongAdder> counts = new ConcurrentHashMap<>();
+            uses.count(fqcDependency, counts);
 
-        final Map<Artifact, Long> counts = new HashMap<>(fqcDependency.values().size());
-        fqcImported.forEach(fqcImport -> {
-            final Artifact match = fqcDependency.get(fqcImport);
-            if (match != null) {
-                counts.merge(match, 1L, Long::sum);
-            }
+            return sumCounts(counts);
         });
-
-        return counts;
     }
 
+    /**
+     * Counts the uses of each dependency across the modules of a reactor.
+     * <p>
+     * Modules whose analysis mode, input files and reactor dependencies are unchanged since
+     * {@link AnalysisContext#getModuleUsage()} stored their counts are not analyzed again; their stored counts
+     * are merged with those of the modules that are, so the result equals that of analyzing every module.
+     * The dependencies of the whole reactor are part of each module's manifest, as a class that several
+     * dependencies declare is attributed to the first of them in the reactor.
+     */
     static Map<Pair<Artifact, MavenProject>, Long> computeDependencyUsage(
-        final MavenProject topProject, final List<MavenProject> projects,
-        final MavenSession session, final ArtifactResolver resolver) {
+        final MavenProject topProject, final List<MavenProject> projects, final AnalysisContext context) {
 
         final List<MavenProject> jarProjects = projects
             .stream()
             .filter(project -> "jar".equalsIgnoreCase(project.getPackaging()))
             .collect(toList());
 
-        final List<String> fqcImported =
-            jarProjects
-            .stream()
-            .filter(project -> !topProject.equals(project))
-            .flatMap(project -> Utility.retrieveImportedClasses(project).stream())
+        final Metrics metrics = context.getMetrics();
+        final ModuleUsageCache moduleUsage = context.getModuleUsage();
+        return inPool(context.getPool(), () -> {
+            final List<Pair<Artifact, MavenProject>> dependencies;
+            final Metrics.Timing resolution = metrics.phase(RESOLUTION, "artifacts").start();
+            try {
+                dependencies = resolveDependencyArtifacts(jarProjects, context);
+                metrics.phase(RESOLUTION, "artifacts").add(dependencies.size(), 0);
+            } finally {
+                resolution.stop();
+            }
+            final ModuleUsageCache.Manifest dependencyManifest = new ModuleUsageCache.Manifest();
+            dependencies.forEach(dep -> dependencyManifest.add(dep.getLeft().getId()).add(dep.getLeft().getFile()));
+
+            final List<ModuleInputs> changed = new ArrayList<>();
+            final Map<String, Long> reused = new HashMap<>();
+            final List<Uses> uses;
+            final Metrics.Timing parsing = metrics.phase(SOURCES, "files").start();
+            try {
+                final List<ModuleInputs> modules = jarProjects
+                    .parallelStream()
+                    .filter(project -> !topProject.equals(project))
+                    .map(project -> moduleInputs(project, dependencyManifest, context))
+                    .collect(toList());
+                for (final ModuleInputs module : modules) {
+                    final Map<String, Long> stored = moduleUsage.get(moduleKey(module.project), module.manifest);
+                    if (stored == null) {
+                        changed.add(module);
+                    } else {
+                        stored.forEach((id, count) -> reused.merge(id, count, Long::sum));
+                    }
+                }
+                uses = changed
+                    .parallelStream()
+                    .map(module -> retrieveUses(module, context))
+                    .collect(toList());
+            } finally {
+                parsing.stop();
+            }
+
+            final Map<String, Pair<Artifact, MavenProject>> byId = new HashMap<>();
+            dependencies.forEach(dep -> byId.putIfAbsent(dep.getLeft().getId(), dep));
+            final Map<Pair<Artifact, MavenProject>, Long> counts = new HashMap<>();
+            reused.forEach((id, count) -> {
+                final Pair<Artifact, MavenProject> dependency = byId.get(id);
+                if (dependency != null) {
+                    counts.merge(dependency, count, Long::sum);
+                }
+            });
+            if (changed.isEmpty()) {
+                return counts;
+            }
+
+            final DependencyIndex<Pair<Artifact, MavenProject>> fqcDependency;
+            final Metrics.Timing indexing = metrics.phase(INDEX, "JARs").start();
+            try {
+                fqcDependency = indexDependencies(dependencies, Function.identity(), Uses.filter(uses), context);
+            } finally {
+                indexing.stop();
+            }
+            for (int i = 0; i < changed.size(); i++) {
+                final Map<Pair<Artifact, MavenProject>, LongAdder> moduleCounts = new ConcurrentHashMap<>();
+                uses.get(i).count(fqcDependency, moduleCounts);
+
+                final Map<String, Long> stored = new HashMap<>();
+                sumCounts(moduleCounts).forEach((dependency, count) -> {
+                    counts.merge(dependency, count, Long::sum);
+                    stored.merge(dependency.getLeft().getId(), count, Long::sum);
+                });
+                moduleUsage.put(moduleKey(changed.get(i).project), changed.get(i).manifest, stored);
+            }
+            return counts;
+        });
+    }
+
+    private static String moduleKey(final MavenProject project) {
+        return project.getGroupId() + ":" + project.getArtifactId();
+    }
+
+    /**
+     * Indexes the classes of {@code dependencies} that {@code filter} accepts, keyed by {@code key}.
+     */
+    private static <K> DependencyIndex<K> indexDependencies(
+        final List<Pair<Artifact, MavenProject>> dependencies, final Function<Pair<Artifact, MavenProject>, K> key,
+        final ClassFilter filter, final AnalysisContext context) {
+
+        final Metrics metrics = context.getMetrics();
+        final List<Pair<K, List<String>>> dependencyClasses = dependencies
+            .parallelStream()
+            .map(dep -> {
+                final long start = System.nanoTime();
+                final long cpu = Metrics.threadCpuNanos();
+                final List<String> classes = retrieveFullyQualifiedClasses(dep.getLeft(), context.getClassIndex(), filter);
+                final long jarBytes = dep.getLeft().getFile() == null ? 0 : dep.getLeft().getFile().length();
+                metrics.dependency(coordinates(dep.getLeft()))
+                    .indexed(System.nanoTime() - start, Metrics.threadCpuNanos() - cpu, classes.size(), jarBytes);
+                metrics.phase(INDEX, "JARs").add(1, jarBytes);
+                return Pair.of(key.apply(dep), classes);
+            })
             .collect(toList());
 
-        final Map<String, Pair<Artifact, MavenProject>> fqcDependency =
-            jarProjects
-            .stream()
-            .flatMap(project -> project.getDependencies().stream().map(dep -> Pair.of(project, dep)))
-            .filter(dep -> !"system".equalsIgnoreCase(dep.getRight().getScope()))
-            .flatMap(dep -> {
+        // added in encounter order, so the first declaring dependency wins as before
+        final DependencyIndex<K> fqcDependency = new DependencyIndex<>();
+        dependencyClasses.forEach(dc -> dc.getRight().forEach(fqc -> fqcDependency.add(fqc, dc.getLeft())));
+        fqcDependency.trimToSize();
+        return fqcDependency;
+    }
+
+    /**
+     * Collects the dependency artifacts of {@code projects}, each paired with the first project that uses it.
+     * <p>
+     * With {@link AnalysisContext#isProjectArtifacts()} the compile-visible artifacts Maven already resolved
+     * for each project are used as they are, including transitive ones; the resolver is only asked for
+     * declared dependencies missing from that graph. Otherwise every declared dependency is resolved.
+     * Artifacts shared by several projects are resolved once. Resolved artifacts come first, in project
+     * and resolution order, followed by those the resolver had to fetch.
+     */
+    static List<Pair<Artifact, MavenProject>> resolveDependencyArtifacts(
+        final List<MavenProject> projects, final AnalysisContext context) {
+
+        final Map<String, Pair<Artifact, MavenProject>> resolved = new LinkedHashMap<>();
+        final Map<String, Pair<ArtifactCoordinate, MavenProject>> missing = new LinkedHashMap<>();
+        for (final MavenProject project : projects) {
+            final Set<String> present = new HashSet<>();
+            if (context.isProjectArtifacts()) {
+                for (final Artifact artifact : project.getArtifacts()) {
+                    final String scope = artifact.getScope();
+                    if (scope == null || Artifact.SCOPE_COMPILE.equals(scope) || Artifact.SCOPE_PROVIDED.equals(scope)) {
+                        present.add(artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getType() + ":" + artifact.getClassifier());
+                        if (artifact.getFile() != null) {
+                            resolved.putIfAbsent(artifact.getId(), Pair.of(artifact, project));
+                        } else {
+                            missing.putIfAbsent(artifact.getId(), Pair.of(artifactToCoordinate(artifact), project));
+                        }
+                    }
+                }
+            }
+
+            for (final Dependency dep : project.getDependencies()) {
+                if (!"system".equalsIgnoreCase(dep.getScope())
+                    && !present.contains(dep.getGroupId() + ":" + dep.getArtifactId() + ":" + dep.getType() + ":" + dep.getClassifier())) {
+                    missing.putIfAbsent(dep.getManagementKey() + ":" + dep.getVersion(), Pair.of(dependencyToCoordinate(dep), project));
+                }
+            }
+        }
+        missing.keySet().removeAll(resolved.keySet());
+
+        final List<Pair<Artifact, MavenProject>> fetched = missing.values()
+            .parallelStream()
+            .map(dep -> {
                 final ProjectBuildingRequest buildingRequest =
-                    new DefaultProjectBuildingRequest(session.getProjectBuildingRequest());
-                buildingRequest.setRemoteRepositories(dep.getLeft().getRemoteArtifactRepositories());
+                    new DefaultProjectBuildingRequest(context.getSession().getProjectBuildingRequest());
+                buildingRequest.setRemoteRepositories(dep.getRight().getRemoteArtifactRepositories());
                 try {
-                    final ArtifactResult result = resolver.resolveArtifact(buildingRequest, dependencyToCoordinate(dep.getRight()));
-                    final Artifact artifact = result.getArtifact();
-                    return retrieveFullyQualifiedClasses(artifact)
-                        .stream()
-                        .map(fqc -> Triple.of(fqc, artifact, dep.getKey()));
+                    final ArtifactResult result = context.getResolver().resolveArtifact(buildingRequest, dep.getLeft());
+                    return Pair.of(result.getArtifact(), dep.getRight());
                 } catch (Exception e) {
                     throw new RuntimeException("Error resolving artifact: " + e.getMessage(), e);
                 }
             })
-            .collect(toMap(Triple::getLeft, t -> Pair.of(t.getMiddle(), t.getRight()), (art1, art2) -> art1));
+            .collect(toList());
 
-        final Map<Pair<Artifact, MavenProject>, Long> counts = new HashMap<>(fqcDependency.values().size());
-        fqcImported.forEach(fqcImport -> {
-            final Pair<Artifact, MavenProject> match = fqcDependency.get(fqcImport);
-            if (match != null) {
-                counts.merge(match, 1L, Long::sum);
-            }
-        });
+        final List<Pair<Artifact, MavenProject>> artifacts = new ArrayList<>(resolved.values());
+        artifacts.addAll(fetched);
+        return artifacts;
+    }
 
-        return counts;
+    /**
+     * Creates the pool that source and dependency analysis runs in.
+     *
+     * @param threads parallelism; {@code 0} or less uses one thread per available processor
+     */
+    static ForkJoinPool newAnalysisPool(final int threads) {
+        final int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        final AtomicInteger threadCount = new AtomicInteger();
+        return new ForkJoinPool(parallelism, pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("oss-analysis-" + threadCount.incrementAndGet());
+            // resolver and plugin classes are loaded through the mojo's class realm
+            thread.setContextClassLoader(contextClassLoader);
+            return thread;
+        }, null, false);
     }
 
-    static List<Model> resolvePOMLineage(
-        final Artifact artifact,  final ArtifactResolver artifactResolver,
-        final MavenProject project, final MavenSession session)
-        throws IOException, XmlPullParserException, ArtifactResolverException {
+    private static <T> T inPool(final ForkJoinPool pool, final Supplier<T> task) {
+        return pool.submit(task::get).join();
+    }
 
-        final File basePOM = new File(artifact.getFile().getAbsolutePath().replaceFirst(".jar$", ".pom"));
+    private static Uses retrieveUses(final MavenProject project, final AnalysisContext context) {
+        return retrieveUses(moduleInputs(project, null, context), context);
+    }
 
-        final MavenXpp3Reader reader = new MavenXpp3Reader();
-        Model model = reader.read(new FileReader(basePOM));
+    /**
+     * Lists the files {@code project} is analyzed from: its sources, or with {@link AnalysisContext#isBytecode()}
+     * its compiled classes. A project whose output directory does not exist yet falls back to its sources.
+     *
+     * @param dependencies manifest of the reactor dependencies, to be included in the module's; {@code null}
+     *                     leaves the module's manifest out
+     */
+    private static ModuleInputs moduleInputs(
+        final MavenProject project, final ModuleUsageCache.Manifest dependencies, final AnalysisContext context) {
+
+        final String outputDirectory = project.getBuild() == null ? null : project.getBuild().getOutputDirectory();
+        final boolean bytecode = context.isBytecode() && outputDirectory != null && new File(outputDirectory).isDirectory();
+        final List<File> files = bytecode ? retrieveClassFiles(outputDirectory) : new ArrayList<>(sourceFiles(project));
+        if (dependencies == null) {
+            return new ModuleInputs(project, bytecode, files, null);
+        }
 
-        Parent pomParent = model.getParent();
+        // imports are what the configured parser extracts, so its engine is part of the inputs
+        final ModuleUsageCache.Manifest manifest = new ModuleUsageCache.Manifest()
+            .add(bytecode ? "bytecode" : "source " + context.getImportEngine())
+            .add(dependencies);
+        files.stream().sorted().forEach(manifest::add);
+        return new ModuleInputs(project, bytecode, files, manifest);
+    }
 
+    /**
+     * Lists what a module uses: its imports, or when analyzed from its compiled classes the classes each of
+     * them references.
+     */
+    private static Uses retrieveUses(final ModuleInputs module, final AnalysisContext context) {
+        context.getMetrics().phase(SOURCES, "files")
+            .add(module.files.size(), module.files.stream().mapToLong(File::length).sum());
+        if (!module.bytecode) {
+            return new Uses(parseImports(module.files, context.getImportParser()).collect(toList()), null);
+        }
 
-        final List<Model> pomLineage = new ArrayList<>();
-        pomLineage.add(model);
-        while (pomParent != null) {
-            // resolve parent POM
-            final ProjectBuildingRequest buildingRequest = new DefaultProjectBuildingRequest(session.getProjectBuildingRequest());
-            buildingRequest.setRemoteRepositories(project.getRemoteArtifactRepositories());
+        return new Uses(null, module.files
+            .parallelStream()
+            .collect(ClassReferences::new, (references, classFile) -> {
+                try {
+                    CLASS_FILE_READER.get().read(classFile.toPath(), references::add);
+                } catch (IOException e) {
+                    throw new RuntimeException("error reading " + classFile.getAbsolutePath(), e);
+                }
+            }, ClassReferences::addAll));
+    }
 
-            DefaultArtifactCoordinate parentCoordinate = new DefaultArtifactCoordinate();
-            parentCoordinate.setGroupId(pomParent.getGroupId());
-            parentCoordinate.setArtifactId(pomParent.getArtifactId());
-            parentCoordinate.setVersion(pomParent.getVersion());
-            parentCoordinate.setExtension("pom");
+    private static <K> void increment(final Map<K, LongAdder> counts, final K key) {
+        if (key != null) {
+            counts.computeIfAbsent(key, k -> new LongAdder()).increment();
+        }
+    }
 
-            ArtifactResult parentPOMResult = artifactResolver.resolveArtifact(buildingRequest, parentCoordinate);
+    private static <K> void add(final Map<K, LongAdder> counts, final K key, final long count) {
+        if (key != null) {
+            counts.computeIfAbsent(key, k -> new LongAdder()).add(count);
+        }
+    }
 
-            // read POM model
-            File parentPOMFile = parentPOMResult.getArtifact().getFile();
-            Model pomModel = reader.read(new FileReader(parentPOMFile));
+    private static <K> Map<K, Long> sumCounts(final Map<K, LongAdder> adders) {
+        final Map<K, Long> counts = new HashMap<>(adders.size());
+        adders.forEach((key, adder) -> counts.put(key, adder.sum()));
+        return counts;
+    }
 
-            pomLineage.add(pomModel);
-            pomParent = pomModel.getParent();
-        }
+    /**
+     * @return the POM file next to the JAR of {@code artifact} in the local repository
+     */
+    static File artifactPOM(final Artifact artifact) {
+        return new File(artifact.getFile().getAbsolutePath().replaceFirst(".jar$", ".pom"));
+    }
 
-        return pomLineage;
+    static File resolveParentPOM(
+        final Parent pomParent, final ArtifactResolver artifactResolver,
+        final MavenProject project, final MavenSession session) throws ArtifactResolverException {
+
+        final ProjectBuildingRequest buildingRequest = new DefaultProjectBuildingRequest(session.getProjectBuildingRequest());
+        buildingRequest.setRemoteRepositories(project.getRemoteArtifactRepositories());
+
+        final DefaultArtifactCoordinate parentCoordinate = new DefaultArtifactCoordinate();
+        parentCoordinate.setGroupId(pomParent.getGroupId());
+        parentCoordinate.setArtifactId(pomParent.getArtifactId());
+        parentCoordinate.setVersion(pomParent.getVersion());
+        parentCoordinate.setExtension("pom");
+
+        final ArtifactResult parentPOMResult = artifactResolver.resolveArtifact(buildingRequest, parentCoordinate);
+        return parentPOMResult.getArtifact().getFile();
     }
 
     static String normalizeIssueSystem(final String text) {
@@ -238,13 +498,13 @@ final class Utility {
         for (final Model pom : pomLineage) {
             final Scm scm = pom.getScm();
             if (scm != null && scm.getUrl() != null) {
-                Matcher ghMatch = compile("github\\.com/(?<org>[^/]+)/(?<repo>[a-zA-Z0-9_\\-.]+)").matcher(scm.getUrl());
+                Matcher ghMatch = GITHUB_URL.matcher(scm.getUrl());
                 if (ghMatch.find()) {
                     return Pair.of("github",
                         format("https://github.com/%s/%s/issues", ghMatch.group("org"), ghMatch.group("repo")));
                 }
 
-                ghMatch = compile("git@github\\.com:(?<org>[^/]+)/(?<repo>[a-zA-Z0-9_\\-.]+)").matcher(scm.getUrl());
+                ghMatch = GITHUB_SSH.matcher(scm.getUrl());
                 if (ghMatch.find()) {
                     return Pair.of("github",
                         format("https://github.com/%s/%s/issues", ghMatch.group("org"), ghMatch.group("repo")));
@@ -255,8 +515,8 @@ final class Utility {
         // infer from github url
         for (final Model pom : pomLineage) {
             if (pom.getUrl() != null) {
-                final Matcher ghMatch = compile(".*github\\.com/(?<org>[^/]+)/(?<repo>[a-zA-Z0-9_\\-.]+).*").matcher(pom.getUrl());
-                if (ghMatch.matches()) {
+                final Matcher ghMatch = GITHUB_URL.matcher(pom.getUrl());
+                if (ghMatch.find()) {
                     return Pair.of("github",
                         format("https://github.com/%s/%s/issues", ghMatch.group("org"), ghMatch.group("repo")));
                 }
@@ -265,6 +525,34 @@ final class Utility {
         return null;
     }
 
+    /**
+     * @return the issue system and URL of {@code issueSite} in a form that is equal for spellings of the
+     *         same site: scheme and host lower case, default port, fragment and trailing slashes left out,
+     *         and on GitHub, whose owner and repository names ignore case, the path lower case as well
+     */
+    static Pair<String, String> issueSiteKey(final Pair<String, String> issueSite) {
+        final String url = issueSite.getRight().trim();
+        try {
+            final URI uri = new URI(url);
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return Pair.of(issueSite.getLeft(), StringUtils.stripEnd(url, "/"));
+            }
+            final String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            final int port = uri.getPort();
+            final boolean defaultPort = port == -1
+                || ("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443);
+            String path = StringUtils.stripEnd(StringUtils.defaultString(uri.getRawPath()), "/");
+            if ("github".equals(issueSite.getLeft())) {
+                path = path.toLowerCase(Locale.ROOT);
+            }
+            final String query = uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery();
+            return Pair.of(issueSite.getLeft(),
+                scheme + "://" + uri.getHost().toLowerCase(Locale.ROOT) + (defaultPort ? "" : ":" + port) + path + query);
+        } catch (URISyntaxException e) {
+            return Pair.of(issueSite.getLeft(), StringUtils.stripEnd(url, "/"));
+        }
+    }
+
     private static Stream<File> recursivelyScanForFilesInDirectory(final String baseDir) {
         final DirectoryScanner scanner = new DirectoryScanner();
         scanner.setBasedir(baseDir);
@@ -273,27 +561,156 @@ final class Utility {
             .map(file -> new File(baseDir, file));
     }
 
-    private static List<String> retrieveImportedClasses(final MavenProject project) {
-        final Set<File> sourceFiles = project.getCompileSourceRoots()
+    private static List<File> retrieveClassFiles(final String outputDirectory) {
+        return recursivelyScanForFilesInDirectory(outputDirectory)
+            .filter(f -> f.getName().endsWith(".class"))
+            .collect(toList());
+    }
+
+    static Stream<JavaImport> retrieveImportedClasses(final MavenProject project, final ImportParser importParser) {
+        return parseImports(sourceFiles(project), importParser);
+    }
+
+    private static Set<File> sourceFiles(final MavenProject project) {
+        return project.getCompileSourceRoots()
             .stream()
             .flatMap(Utility::recursivelyScanForFilesInDirectory)
             .filter(f -> f.getAbsolutePath().endsWith(".java"))
             .collect(toSet());
+    }
 
+    private static Stream<JavaImport> parseImports(final Collection<File> sourceFiles, final ImportParser importParser) {
         return sourceFiles
-            .stream()
+            .parallelStream()
             .flatMap(file -> {
                 try {
-                    final CompilationUnit cUnit = JavaParser.parse(file);
-                    return cUnit.getImports()
-                        .stream()
-                        .filter(impDecl -> !impDecl.isAsterisk() && !impDecl.isStatic())
-                        .map(ImportDeclaration::getName).map(Name::asString);
-                } catch (FileNotFoundException e) {
+                    return importParser.parse(file).stream();
+                } catch (IOException e) {
                     throw new RuntimeException("error parsing " + file.getAbsolutePath(), e);
                 }
-            })
-            .collect(toList());
+            });
+    }
+
+    /**
+     * Writes {@code target} through a temporary file in the same directory that is synced and then moved
+     * over the target, so readers never observe a partially written file.
+     */
+    static void writeAtomically(final Path target, final OutputWriter writer) throws IOException {
+        final Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        final Path temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (FileOutputStream out = new FileOutputStream(temporary.toFile())) {
+                final BufferedOutputStream buffered = new BufferedOutputStream(out, 65536);
+                writer.write(buffered);
+                buffered.flush();
+                out.getChannel().force(true);
+            }
+            try {
+                Files.move(temporary, target, ATOMIC_MOVE, REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * @return the SHA-1 of {@code text} in UTF-8, as 40 lowercase hex digits; used to name cache entries
+     */
+    static String sha1Hex(final String text) {
+        final MessageDigest sha1;
+        try {
+            sha1 = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final StringBuilder hex = new StringBuilder(40);
+        for (final byte b : sha1.digest(text.getBytes(StandardCharsets.UTF_8))) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    static void writeVarInt(final DataOutput out, final int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.writeByte(remaining);
+    }
+
+    static int readVarInt(final DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    /**
+     * The files a module is analyzed from and, in a reactor, their manifest.
+     */
+    private static final class ModuleInputs {
+
+        private final MavenProject              project;
+        private final boolean                   bytecode;
+        private final List<File>                files;
+        private final ModuleUsageCache.Manifest manifest;
+
+        ModuleInputs(
+            final MavenProject project, final boolean bytecode, final List<File> files,
+            final ModuleUsageCache.Manifest manifest) {
+
+            this.project  = project;
+            this.bytecode = bytecode;
+            this.files    = files;
+            this.manifest = manifest;
+        }
+    }
+
+    /**
+     * What a module uses: the imports of its sources, or the classes its compiled classes reference.
+     */
+    private static final class Uses {
+
+        private final List<JavaImport> imports;
+        private final ClassReferences  references;
+
+        Uses(final List<JavaImport> imports, final ClassReferences references) {
+            this.imports    = imports;
+            this.references = references;
+        }
+
+        static ClassFilter filter(final List<Uses> uses) {
+            return ClassFilter.of(
+                uses.stream().filter(use -> use.imports != null).map(use -> use.imports).collect(toList()),
+                uses.stream().filter(use -> use.references != null).map(use -> use.references).collect(toList()));
+        }
+
+        /**
+         * Adds the uses of each dependency in {@code index} to {@code counts}; a referenced class counts once
+         * per class file referring to it.
+         */
+        <K> void count(final DependencyIndex<K> index, final Map<K, LongAdder> counts) {
+            if (references != null) {
+                references.forEach((name, count) -> add(counts, index.findClass(name), count));
+            } else {
+                imports.parallelStream().forEach(use -> increment(counts, index.resolve(use)));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface OutputWriter {
+
+        void write(final OutputStream out) throws IOException;
     }
 
     /**
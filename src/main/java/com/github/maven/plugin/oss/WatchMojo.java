@@ -0,0 +1,161 @@
+package com.github.maven.plugin.oss;
+
+import static java.util.Collections.singletonList;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.project.ProjectBuildingRequest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the report like {@code report-issues}, then stays resident and writes it again whenever a source
+ * file or POM of the reactor changes, until interrupted.
+ * <p>
+ * The class index, the imports of unchanged source files, the dependency usage of unchanged modules and the
+ * issue snapshots stay in memory between reports, so a report after a change only analyzes what changed.
+ * Every report counts the files as they are on disk, so a file saved several times, or through a temporary
+ * file, is counted once. Memory stays bounded: classes are only kept for current dependencies, imports only
+ * for existing files, and run metrics only for the latest report.
+ */
+@Mojo(
+    name = "watch",
+    aggregator = true,
+    requiresDirectInvocation = true,
+    requiresDependencyResolution = ResolutionScope.COMPILE)
+public class WatchMojo extends ReportIssuesMojo {
+
+    /**
+     * Milliseconds without further changes after which a change is reported; the events an editor raises for
+     * one save arrive within it.
+     */
+    @Parameter(
+        property = "oss.watchQuietPeriod",
+        defaultValue = "100")
+    private int watchQuietPeriod;
+
+    @Component
+    private ProjectBuilder projectBuilder;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        final Log log = getLog();
+        final List<MavenProject> reactor = new ArrayList<>();
+        MavenProject top = getSession().getCurrentProject();
+        if (CollectionUtils.isNotEmpty(getReactorProjects())) {
+            reactor.addAll(getReactorProjects());
+            top = getProject();
+        }
+
+        final AnalysisContext context = openContext(log);
+        try (SourceWatcher watcher = new SourceWatcher(watchQuietPeriod > 0 ? watchQuietPeriod : 100)) {
+            for (final MavenProject project : watched(reactor, top)) {
+                watch(watcher, project, context);
+            }
+            while (!Thread.currentThread().isInterrupted()) {
+                final long start = System.nanoTime();
+                final Metrics metrics = new Metrics();
+                metrics.register("http", context.getHttp().getLatencies());
+                context.setMetrics(metrics);
+                try {
+                    report(reactor, top, context, log);
+                } catch (RuntimeException e) {
+                    log.warn("Could not write the report: " + e.getMessage());
+                }
+                checkpoint(context, log);
+                context.getClassIndex().retain(jars(watched(reactor, top)));
+                log.info(String.format("Report written in %d ms; watching %d directories for changes",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), watcher.getDirectories()));
+
+                final Set<Path> changed = watcher.next();
+                log.info("Changed: " + changed.iterator().next() + (changed.size() > 1 ? " and " + (changed.size() - 1) + " more" : ""));
+                for (int i = 0; i < reactor.size(); i++) {
+                    final MavenProject project = reactor.get(i);
+                    if (changedPom(project, changed)) {
+                        final MavenProject rebuilt = rebuild(project, log);
+                        reactor.set(i, rebuilt);
+                        watch(watcher, rebuilt, context);
+                        if (project == top) {
+                            top = rebuilt;
+                        }
+                    }
+                }
+                if (reactor.isEmpty() && changedPom(top, changed)) {
+                    top = rebuild(top, log);
+                    watch(watcher, top, context);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new MojoExecutionException("Could not watch the sources: " + e.getMessage(), e);
+        } finally {
+            closeContext(context, log);
+        }
+    }
+
+    private static List<MavenProject> watched(final List<MavenProject> reactor, final MavenProject top) {
+        return reactor.isEmpty() ? singletonList(top) : reactor;
+    }
+
+    private static boolean changedPom(final MavenProject project, final Set<Path> changed) {
+        return project.getFile() != null && changed.contains(project.getFile().getAbsoluteFile().toPath());
+    }
+
+    private static void watch(final SourceWatcher watcher, final MavenProject project, final AnalysisContext context)
+        throws IOException {
+
+        if (project.getFile() != null) {
+            watcher.watch(project.getFile().getAbsoluteFile().getParentFile().toPath());
+        }
+        for (final String sourceRoot : project.getCompileSourceRoots()) {
+            watcher.watchTree(new File(sourceRoot).toPath());
+        }
+        if (context.isBytecode() && project.getBuild() != null && project.getBuild().getOutputDirectory() != null) {
+            watcher.watchTree(new File(project.getBuild().getOutputDirectory()).toPath());
+        }
+    }
+
+    /**
+     * @return the project of the changed POM with its dependencies resolved again, or {@code project} if its
+     *         POM cannot be built
+     */
+    private MavenProject rebuild(final MavenProject project, final Log log) {
+        final ProjectBuildingRequest request = new DefaultProjectBuildingRequest(getSession().getProjectBuildingRequest());
+        request.setResolveDependencies(true);
+        try {
+            return projectBuilder.build(project.getFile(), request).getProject();
+        } catch (ProjectBuildingException e) {
+            log.warn("Keeping the previous model of " + project.getId() + ": " + e.getMessage());
+            return project;
+        }
+    }
+
+    private static List<File> jars(final List<MavenProject> projects) {
+        final List<File> jars = new ArrayList<>();
+        for (final MavenProject project : projects) {
+            for (final Artifact artifact : project.getArtifacts()) {
+                if (artifact.getFile() != null) {
+                    jars.add(artifact.getFile());
+                }
+            }
+        }
+        return jars;
+    }
+}
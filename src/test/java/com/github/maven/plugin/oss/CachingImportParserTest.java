@@ -0,0 +1,101 @@
+package com.github.maven.plugin.oss;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+public class CachingImportParserTest {
+
+    private File directory;
+    private File cacheFile;
+    private File source;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("oss-import-cache").toFile();
+        cacheFile = new File(directory, "cache/imports.bin");
+        source = new File(directory, "Source.java");
+        FileUtils.writeStringToFile(source, "import java.util.List;\nimport static java.util.Collections.*;\nclass Source {}\n", UTF_8);
+        source.setLastModified(System.currentTimeMillis() - 60_000L);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testUnchangedFilesAreServedFromDisk() throws Exception {
+        final CachingImportParser first = newParser();
+        first.load();
+        final Object imports = first.parse(source);
+        first.save();
+        assertEquals(0, first.getHits());
+        assertEquals(1, first.getMisses());
+
+        final CachingImportParser second = newParser();
+        second.load();
+        assertEquals(imports, second.parse(source));
+        assertEquals(1, second.getHits());
+        assertEquals(0, second.getMisses());
+    }
+
+    @Test
+    public void testChangedFilesAreParsedAgain() throws Exception {
+        final CachingImportParser first = newParser();
+        first.parse(source);
+        first.save();
+
+        FileUtils.writeStringToFile(source, "import java.util.Map;\nclass Source {}\n", UTF_8);
+        final CachingImportParser second = newParser();
+        second.load();
+        assertEquals(singletonList(new JavaImport("java.util.Map", false, false)), second.parse(source));
+        assertEquals(1, second.getMisses());
+    }
+
+    @Test
+    public void testCorruptCacheIsRejected() throws Exception {
+        final CachingImportParser first = newParser();
+        first.parse(source);
+        first.save();
+
+        try (RandomAccessFile file = new RandomAccessFile(cacheFile, "rw")) {
+            file.seek(file.length() - 12);
+            file.write(0x5A);
+        }
+
+        try {
+            newParser().load();
+            fail("corrupt cache was accepted");
+        } catch (IOException expected) {
+            // caller starts with an empty cache
+        }
+    }
+
+    @Test
+    public void testOtherEngineCacheIsIgnored() throws Exception {
+        final CachingImportParser first = newParser();
+        first.parse(source);
+        first.save();
+
+        final CachingImportParser other = new CachingImportParser(cacheFile, "javaparser", new JavaParserImportParser());
+        other.load();
+        other.parse(source);
+        assertEquals(1, other.getMisses());
+    }
+
+    private CachingImportParser newParser() {
+        return new CachingImportParser(cacheFile, "scanner", new ScanningImportParser(new JavaParserImportParser()));
+    }
+}
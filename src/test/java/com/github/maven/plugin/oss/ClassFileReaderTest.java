@@ -0,0 +1,99 @@
+package com.github.maven.plugin.oss;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.github.maven.plugin.oss.fixtures.BytecodeSample;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+public class ClassFileReaderTest {
+
+    @Test
+    public void testReferencesFromConstantPool() throws Exception {
+        final List<String> references = read(new ClassFileReader(), BytecodeSample.class);
+
+        assertEquals("each class is reported once", new HashSet<>(references).size(), references.size());
+        assertFalse(references.contains(BytecodeSample.class.getName()));
+        // instantiated, field and method descriptors, generic arguments, nested classes, annotations
+        assertTrue(references.contains("java.util.ArrayList"));
+        assertTrue(references.contains("java.util.HashMap"));
+        assertTrue(references.contains("java.util.zip.CRC32"));
+        assertTrue(references.contains("java.util.concurrent.atomic.AtomicLong"));
+        assertTrue(references.contains("java.util.regex.Matcher"));
+        assertTrue(references.contains("java.util.Optional"));
+        assertTrue(references.contains("java.time.Duration"));
+        assertTrue(references.contains("java.util.Map.Entry"));
+        assertTrue(references.contains("java.lang.Deprecated"));
+        // string literals are not references
+        assertFalse(references.contains("java.util.regex.Pattern"));
+    }
+
+    @Test
+    public void testReaderIsReusable() throws Exception {
+        final ClassFileReader reader = new ClassFileReader();
+        final List<String> first = read(reader, BytecodeSample.class);
+        read(reader, ClassFileReader.class);
+        assertEquals(first, read(reader, BytecodeSample.class));
+    }
+
+    @Test
+    public void testReferencesAreCountedPerClassFile() throws Exception {
+        final ClassFileReader reader = new ClassFileReader();
+        final ClassReferences first = new ClassReferences();
+        final ClassReferences second = new ClassReferences();
+        try (InputStream in = resource(BytecodeSample.class)) {
+            reader.read(in, first::add);
+        }
+        try (InputStream in = resource(BytecodeSample.class)) {
+            reader.read(in, second::add);
+        }
+        try (InputStream in = resource(ClassFileReader.class)) {
+            reader.read(in, second::add);
+        }
+
+        final Map<String, Integer> counts = new HashMap<>();
+        first.addAll(second).forEach((name, count) -> assertNull(counts.put(name.toString(), count)));
+        assertEquals(first.size(), counts.size());
+        assertEquals(Integer.valueOf(2), counts.get("java.util.zip.CRC32"));
+        assertEquals(Integer.valueOf(3), counts.get("java.lang.Object"));
+        assertEquals(Integer.valueOf(1), counts.get("java.nio.file.Path"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsNonClassFile() throws Exception {
+        new ClassFileReader().read(new ByteArrayInputStream("package a;".getBytes("UTF-8")), name -> { });
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsTruncatedClassFile() throws Exception {
+        final byte[] bytes;
+        try (InputStream in = resource(BytecodeSample.class)) {
+            bytes = new byte[200];
+            in.read(bytes);
+        }
+        new ClassFileReader().read(new ByteArrayInputStream(bytes), name -> { });
+    }
+
+    private static List<String> read(final ClassFileReader reader, final Class<?> type) throws IOException {
+        final List<String> references = new ArrayList<>();
+        try (InputStream in = resource(type)) {
+            reader.read(in, name -> references.add(name.toString()));
+        }
+        return references;
+    }
+
+    private static InputStream resource(final Class<?> type) {
+        return type.getResourceAsStream(type.getSimpleName() + ".class");
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.maven.plugin.oss;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.github.maven.plugin.oss.fixtures.Workspace;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.artifact.Artifact;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+public class ClassIndexTest {
+
+    private Workspace workspace;
+    private File indexDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        workspace = new Workspace();
+        indexDirectory = new File(workspace.getRoot(), "index");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        workspace.close();
+    }
+
+    @Test
+    public void testIndexIsPersistedAndReused() throws Exception {
+        workspace.jar("lib-a", "com.acme.a.B", "com.acme.a.A", "com.acme.a.A$Inner");
+        final Artifact artifact = workspace.getArtifacts().get(0);
+
+        final ClassIndex first = new ClassIndex(indexDirectory);
+        assertEquals(Arrays.asList("com.acme.a.A", "com.acme.a.A.Inner", "com.acme.a.B"), first.classes(artifact).classNames());
+        assertEquals(1, first.getScanned());
+
+        final ClassIndex second = new ClassIndex(indexDirectory);
+        final ClassIndex.Entry entry = second.classes(artifact);
+        assertEquals(0, second.getScanned());
+        assertEquals(1, second.getReused());
+        assertEquals(3, entry.size());
+        assertTrue(entry.contains("com.acme.a.A.Inner"));
+        assertFalse(entry.contains("com.acme.a.C"));
+    }
+
+    @Test
+    public void testChangedJarIsScannedAgain() throws Exception {
+        workspace.jar("lib-a", "com.acme.a.A");
+        new ClassIndex(indexDirectory).classes(workspace.getArtifacts().get(0));
+
+        workspace.jar("lib-a", "com.acme.a.A", "com.acme.a.Z");
+        final Artifact changed = workspace.getArtifacts().get(0);
+        changed.getFile().setLastModified(System.currentTimeMillis() + 10_000L);
+
+        final ClassIndex index = new ClassIndex(indexDirectory);
+        assertTrue(index.classes(changed).contains("com.acme.a.Z"));
+        assertEquals(1, index.getScanned());
+    }
+
+    @Test
+    public void testCentralDirectoryScanMatchesJarFile() throws Exception {
+        final File jar = new File(StringUtils.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        final Set<String> expected = new HashSet<>();
+        try (JarFile jarFile = new JarFile(jar)) {
+            jarFile.stream()
+                .map(JarEntry::getName)
+                .filter(name -> name.endsWith(".class"))
+                .forEach(name -> expected.add(ClassIndex.toClassName(name, 0, name.length() - 6)));
+        }
+
+        final List<String> scanned = ClassIndex.scanJar(jar);
+        assertEquals(expected.size(), scanned.size());
+        assertEquals(expected, new HashSet<>(scanned));
+    }
+
+    @Test
+    public void testOnlyClassesUsesCanMatchAreRead() throws Exception {
+        workspace.jar("lib-a", "com.acme.a.A", "com.acme.a.B", "com.acme.b.C", "com.acme.b.C$Inner",
+            "com.acme.c.D", "com.acme.c.E", "com.acme.c.sub.F");
+        workspace.jar("lib-z", "org.z.Z");
+        final ClassFilter filter = ClassFilter.of(Collections.singletonList(Arrays.asList(
+            new JavaImport("com.acme.a.A", false, false),
+            new JavaImport("com.acme.b.C.Inner.CONSTANT", true, false),
+            new JavaImport("com.acme.c", false, true))));
+        final List<String> expected = Arrays.asList("com.acme.a.A", "com.acme.b.C.Inner", "com.acme.c.D", "com.acme.c.E");
+
+        final ClassIndex inMemory = new ClassIndex(null);
+        assertEquals(expected, sorted(inMemory.classNames(workspace.artifact("lib-a"), filter)));
+        assertTrue(inMemory.classNames(workspace.artifact("lib-z"), filter).isEmpty());
+        assertEquals(0, inMemory.getScanned());
+        assertEquals(2, inMemory.getPartial());
+        assertEquals(1, inMemory.getUnused());
+
+        final ClassIndex cold = new ClassIndex(indexDirectory);
+        assertEquals(expected, sorted(cold.classNames(workspace.artifact("lib-a"), filter)));
+        assertTrue(cold.classNames(workspace.artifact("lib-z"), filter).isEmpty());
+        assertEquals(0, cold.getScanned());
+        assertEquals(2, cold.getPartial());
+        assertFalse(indexDirectory.exists());
+
+        new ClassIndex(indexDirectory).classes(workspace.artifact("lib-a"));
+        final ClassIndex warm = new ClassIndex(indexDirectory);
+        assertEquals(expected, sorted(warm.classNames(workspace.artifact("lib-a"), filter)));
+        assertEquals(1, warm.getReused());
+        assertEquals(0, warm.getPartial());
+        assertEquals(7, warm.classes(workspace.artifact("lib-a")).size());
+        assertEquals(1, warm.getReused());
+    }
+
+    private static List<String> sorted(final List<String> names) {
+        final List<String> copy = new ArrayList<>(names);
+        Collections.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.maven.plugin.oss;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DependencyIndexTest {
+
+    private DependencyIndex<String> index;
+
+    @Before
+    public void setUp() {
+        index = new DependencyIndex<>();
+        index.add("com.google.common.collect.ImmutableList", "guava");
+        index.add("com.google.common.collect.Maps", "guava");
+        index.add("com.google.common.collect.Maps.EntryTransformer", "guava");
+        index.add("org.junit.Assert", "junit");
+        index.add("com.google.common.collect.ImmutableList", "shaded");
+        index.add("DefaultPackageClass", "legacy");
+    }
+
+    @Test
+    public void testExactClassLookupKeepsFirstDeclaringDependency() {
+        assertEquals("guava", index.findClass("com.google.common.collect.ImmutableList"));
+        assertEquals("legacy", index.findClass("DefaultPackageClass"));
+        assertNull(index.findClass("com.google.common.collect.ImmutableSet"));
+        assertNull(index.findClass("com.google.common"));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    public void testImportsResolveByKind() {
+        assertEquals("guava", index.resolve(new JavaImport("com.google.common.collect.Maps", false, false)));
+        assertEquals("guava", index.resolve(new JavaImport("com.google.common.collect", false, true)));
+        assertEquals("guava", index.resolve(new JavaImport("com.google.common.collect.Maps", false, true)));
+        assertEquals("guava", index.resolve(new JavaImport("com.google.common.collect.Maps.EntryTransformer", true, false)));
+        assertEquals("junit", index.resolve(new JavaImport("org.junit.Assert.assertEquals", true, false)));
+        assertEquals("junit", index.resolve(new JavaImport("org.junit.Assert", true, true)));
+        assertNull(index.resolve(new JavaImport("java.util", false, true)));
+        assertNull(index.resolve(new JavaImport("java.util.Collections.emptyList", true, false)));
+    }
+
+    @Test
+    public void testGrowsPastInitialCapacity() {
+        final DependencyIndex<Integer> large = new DependencyIndex<>();
+        for (int i = 0; i < 100_000; i++) {
+            large.add("pkg" + (i % 500) + ".Class" + i, i % 7);
+        }
+        assertEquals(100_000, large.size());
+        for (int i = 0; i < 100_000; i += 997) {
+            assertEquals(Integer.valueOf(i % 7), large.findClass("pkg" + (i % 500) + ".Class" + i));
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.github.maven.plugin.oss;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.github.maven.plugin.oss.fixtures.BytecodeSample;
+import com.github.maven.plugin.oss.fixtures.Workspace;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public class DependencyUsageTest {
+
+    private Workspace workspace;
+    private MavenProject top;
+    private List<MavenProject> modules;
+
+    @Before
+    public void setUp() throws Exception {
+        workspace = new Workspace();
+        final Dependency a = workspace.jar("lib-a", "com.acme.a.A", "com.acme.a.B", "com.acme.a.B$Inner");
+        final Dependency b = workspace.jar("lib-b", "org.b.C");
+
+        for (int i = 0; i < 200; i++) {
+            workspace.source("module1", "com/acme/m1/Source" + i + ".java",
+                "package com.acme.m1;\n\nimport com.acme.a.A;\nimport java.util.List;\n"
+                    + (i % 3 == 0 ? "import org.b.C;\n" : "")
+                    + (i % 5 == 0 ? "import com.acme.a.B.Inner;\n" : "")
+                    + "\nclass Source" + i + " {}\n");
+        }
+        for (int i = 0; i < 50; i++) {
+            workspace.source("module2", "com/acme/m2/Source" + i + ".java",
+                "package com.acme.m2;\n\nimport com.acme.a.B;\nimport static org.b.C.*;\n\nclass Source" + i + " {}\n");
+        }
+
+        top = workspace.project("top");
+        top.setPackaging("pom");
+        modules = Arrays.asList(top, workspace.project("module1", a, b), workspace.project("module2", a));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        workspace.close();
+    }
+
+    @Test
+    public void testParallelReactorUsageMatchesSequential() {
+        final Map<Pair<Artifact, MavenProject>, Long> sequential = reactorUsage(1);
+        final Map<Pair<Artifact, MavenProject>, Long> parallel = reactorUsage(8);
+
+        assertEquals(sequential, parallel);
+        final Map<String, Long> byArtifact = byArtifactId(sequential, p -> p.getLeft());
+        assertEquals(Long.valueOf(200 + 50 + 40), byArtifact.get("lib-a"));
+        // 67 single-type imports in module1, 50 static wildcard imports in module2
+        assertEquals(Long.valueOf(117), byArtifact.get("lib-b"));
+    }
+
+    @Test
+    public void testParallelProjectUsageMatchesSequential() {
+        final MavenProject module1 = modules.get(1);
+        final Map<Artifact, Long> sequential = projectUsage(module1, 1);
+        final Map<Artifact, Long> parallel = projectUsage(module1, 8);
+
+        assertEquals(sequential, parallel);
+        final Map<String, Long> byArtifact = byArtifactId(sequential, Function.identity());
+        assertEquals(Long.valueOf(240), byArtifact.get("lib-a"));
+        assertEquals(Long.valueOf(67), byArtifact.get("lib-b"));
+    }
+
+    @Test
+    public void testResolvedGraphIncludesTransitivesAndResolvesSharedArtifactsOnce() throws Exception {
+        workspace.jar("lib-t", "org.t.T");
+        workspace.source("module2", "com/acme/m2/UsesTransitive.java", "package com.acme.m2;\nimport org.t.T;\nclass UsesTransitive {}\n");
+        modules.get(1).setArtifacts(new LinkedHashSet<>(Arrays.asList(workspace.artifact("lib-a"), workspace.artifact("lib-t"))));
+
+        final Map<String, Long> byArtifact = byArtifactId(reactorUsage(4), p -> p.getLeft());
+        assertEquals(Long.valueOf(1), byArtifact.get("lib-t"));
+        assertEquals(Long.valueOf(290), byArtifact.get("lib-a"));
+        // lib-a comes from module1's graph; only lib-b, declared but unresolved, goes to the resolver
+        assertEquals(1, workspace.getResolutions());
+    }
+
+    @Test
+    public void testResolverModeOnlySeesDeclaredDependencies() throws Exception {
+        workspace.jar("lib-t", "org.t.T");
+        workspace.source("module2", "com/acme/m2/UsesTransitive.java", "package com.acme.m2;\nimport org.t.T;\nclass UsesTransitive {}\n");
+        modules.get(1).setArtifacts(new LinkedHashSet<>(Arrays.asList(workspace.artifact("lib-a"), workspace.artifact("lib-t"))));
+
+        final ForkJoinPool pool = Utility.newAnalysisPool(4);
+        try {
+            final AnalysisContext context = new AnalysisContext(workspace.session(top), workspace.resolver(), pool);
+            context.setProjectArtifacts(false);
+            final Map<String, Long> byArtifact = byArtifactId(Utility.computeDependencyUsage(top, modules, context), p -> p.getLeft());
+            assertNull(byArtifact.get("lib-t"));
+            assertEquals(2, workspace.getResolutions());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testBytecodeAnalysisCountsReferencedClasses() throws Exception {
+        final Dependency time = workspace.jar("lib-time", "java.time.Duration", "java.time.Instant");
+        workspace.source("module3", "com/acme/m3/Unused.java",
+            "package com.acme.m3;\n\nimport java.time.Duration;\nimport java.time.Instant;\n\nclass Unused {}\n");
+        workspace.classes("module3", BytecodeSample.class);
+        final MavenProject module3 = workspace.project("module3", time);
+
+        final ForkJoinPool pool = Utility.newAnalysisPool(4);
+        try {
+            final AnalysisContext context = new AnalysisContext(workspace.session(module3), workspace.resolver(), pool);
+            assertEquals(Long.valueOf(2), byArtifactId(Utility.computeDependencyUsage(module3, context), Function.identity()).get("lib-time"));
+
+            // only Duration is referenced from the compiled class; module1 is not compiled and uses its sources
+            context.setBytecode(true);
+            assertEquals(Long.valueOf(1), byArtifactId(Utility.computeDependencyUsage(module3, context), Function.identity()).get("lib-time"));
+            final List<MavenProject> reactor = Arrays.asList(top, modules.get(1), module3);
+            final Map<String, Long> byArtifact = byArtifactId(Utility.computeDependencyUsage(top, reactor, context), p -> p.getLeft());
+            assertEquals(Long.valueOf(1), byArtifact.get("lib-time"));
+            assertEquals(Long.valueOf(240), byArtifact.get("lib-a"));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testIncrementalReactorUsageOnlyAnalyzesChangedModules() throws Exception {
+        final File cacheFile = new File(workspace.getRoot(), "cache/modules.bin");
+        final Map<Pair<Artifact, MavenProject>, Long> full = reactorUsage(4);
+
+        // inputs modified just now cannot be told from a later edit, so their counts are not kept
+        assertEquals(full, incrementalUsage(cacheFile, 2, 0));
+        assertEquals(full, incrementalUsage(cacheFile, 2, 0));
+
+        backdate(workspace.getRoot());
+        assertEquals(full, incrementalUsage(cacheFile, 2, 0));
+        assertEquals(full, incrementalUsage(cacheFile, 0, 2));
+
+        workspace.source("module2", "com/acme/m2/Extra.java", "package com.acme.m2;\nimport org.b.C;\nclass Extra {}\n");
+        final File extra = new File(workspace.getRoot(), "module2/src/main/java/com/acme/m2/Extra.java");
+        assertTrue(extra.setLastModified(System.currentTimeMillis() - 10_000));
+        final Map<Pair<Artifact, MavenProject>, Long> changed = incrementalUsage(cacheFile, 1, 1);
+        assertEquals(reactorUsage(4), changed);
+        assertEquals(Long.valueOf(118), byArtifactId(changed, p -> p.getLeft()).get("lib-b"));
+
+        // a changed dependency changes the manifest of every module
+        final File jar = workspace.artifact("lib-a").getFile();
+        assertTrue(jar.setLastModified(jar.lastModified() - 60_000));
+        assertEquals(changed, incrementalUsage(cacheFile, 2, 0));
+        assertEquals(changed, incrementalUsage(cacheFile, 0, 2));
+    }
+
+    @Test
+    public void testAnotherImportParserAnalyzesModulesAgain() throws Exception {
+        final File cacheFile = new File(workspace.getRoot(), "cache/modules.bin");
+        backdate(workspace.getRoot());
+        final Map<Pair<Artifact, MavenProject>, Long> full = reactorUsage(4);
+
+        assertEquals(full, incrementalUsage(cacheFile, 2, 0));
+        assertEquals(full, incrementalUsage(cacheFile, 0, 2));
+        assertEquals(full, incrementalUsage(cacheFile, new JavaParserImportParser(), "javaparser", 2, 0));
+        assertEquals(full, incrementalUsage(cacheFile, new JavaParserImportParser(), "javaparser", 0, 2));
+    }
+
+    private Map<Pair<Artifact, MavenProject>, Long> incrementalUsage(
+        final File cacheFile, final int analyzed, final int unchanged) throws IOException {
+
+        return incrementalUsage(cacheFile, new ScanningImportParser(new JavaParserImportParser()), "scanner", analyzed, unchanged);
+    }
+
+    private Map<Pair<Artifact, MavenProject>, Long> incrementalUsage(
+        final File cacheFile, final ImportParser parser, final String engine, final int analyzed, final int unchanged)
+        throws IOException {
+
+        final ModuleUsageCache moduleUsage = new ModuleUsageCache(cacheFile);
+        moduleUsage.load();
+        final ForkJoinPool pool = Utility.newAnalysisPool(4);
+        try {
+            final AnalysisContext context = new AnalysisContext(workspace.session(top), workspace.resolver(), pool);
+            context.setModuleUsage(moduleUsage);
+            context.setImportParser(parser, engine);
+            final Map<Pair<Artifact, MavenProject>, Long> usage = Utility.computeDependencyUsage(top, modules, context);
+            moduleUsage.save();
+            assertEquals(analyzed, moduleUsage.getMisses());
+            assertEquals(unchanged, moduleUsage.getHits());
+            return usage;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void backdate(final File root) throws IOException {
+        final long past = System.currentTimeMillis() - 10_000;
+        try (Stream<Path> files = Files.walk(root.toPath())) {
+            files.forEach(file -> file.toFile().setLastModified(past));
+        }
+    }
+
+    private Map<Pair<Artifact, MavenProject>, Long> reactorUsage(final int threads) {
+        final ForkJoinPool pool = Utility.newAnalysisPool(threads);
+        try {
+            return Utility.computeDependencyUsage(top, modules, new AnalysisContext(workspace.session(top), workspace.resolver(), pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Map<Artifact, Long> projectUsage(final MavenProject project, final int threads) {
+        final ForkJoinPool pool = Utility.newAnalysisPool(threads);
+        try {
+            return Utility.computeDependencyUsage(project, new AnalysisContext(workspace.session(project), workspace.resolver(), pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static <K> Map<String, Long> byArtifactId(final Map<K, Long> counts, final Function<K, Artifact> artifact) {
+        final Map<String, Long> byArtifact = new HashMap<>();
+        counts.forEach((key, count) -> byArtifact.merge(artifact.apply(key).getArtifactId(), count, Long::sum));
+        return byArtifact;
+    }
+}
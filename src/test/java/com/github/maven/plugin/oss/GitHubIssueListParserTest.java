@@ -0,0 +1,113 @@
+package com.github.maven.plugin.oss;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class GitHubIssueListParserTest {
+
+    private static final String BASE = "https://github.com";
+
+    @Test
+    public void testRecordedPagesMatchTheirDocument() throws IOException {
+        final GitHubIssueListParser parser = new GitHubIssueListParser();
+        for (final String page : Arrays.asList("1", "2", "3", "updated-open", "updated-closed")) {
+            final String html = recorded(page);
+            final Document document = Jsoup.parse(html);
+            final List<Element> rows = document.select("li.js-issue-row");
+
+            // one character at a time, so every token is split across reads
+            final GitHubIssueListParser.Page parsed = parser.parse(new OneCharReader(html), BASE);
+
+            assertEquals(page, rows.size(), parsed.getIssues().size());
+            assertEquals(page, !document.select("a.next_page, a[rel=next]").isEmpty(), parsed.hasNextPage());
+            for (int i = 0; i < rows.size(); i++) {
+                final Element row = rows.get(i);
+                final Issue issue = parsed.getIssues().get(i);
+                final Element title = row.selectFirst("a.js-navigation-open");
+                assertEquals(title.text(), issue.getTitle());
+                assertEquals(BASE + title.attr("href"), issue.getUrl());
+                assertEquals(row.select("a.IssueLabel").stream().map(Element::text).collect(Collectors.toSet()), issue.getTags());
+            }
+        }
+        assertEquals(Arrays.asList(Pair.of("Open", 1060), Pair.of("Closed", 2345)),
+            parser.parse(new StringReader(recorded("1")), BASE).getStateCounts());
+    }
+
+    @Test
+    public void testMarkupOutsideRowsIsIgnored() throws IOException {
+        final String html = "<!DOCTYPE html><html><head>"
+            + "<script>if (a < b) document.write('<li class=\"js-issue-row\"><a class=js-navigation-open href=/x>no</a></li>');</script>"
+            + "<style>li > a { color: red }</style></head><body>"
+            + "<!-- <li class=\"js-issue-row\"> commented out --->"
+            + "<div class=\"table-list-header-toggle states\"><a>\n  <svg></svg> 3 Open </a><div><a>7\nClosed</a></div></div>"
+            + "<ul><li class='Box-row js-issue-row' data-id=1><div><a href=\"/o/r/issues/1\" class=\"h4 js-navigation-open\">"
+            + "  Fix  <code>a &lt; b</code>\n &amp; &quot;more&quot;  </a>"
+            + "<ul><li>nested</li></ul>"
+            + "<a class=\"IssueLabel\" title=x>good first issue</a><a class=IssueLabel>bug</a>"
+            + "<relative-time datetime=\"not a date\">today</relative-time></div></li>"
+            + "<li class=js-issue-row><a class=js-navigation-open href=/o/r/issues/2>Second</a></li></ul>"
+            + "<a href=/o/r/issues/3 class=js-navigation-open>outside</a>"
+            + "</body></html>";
+
+        final GitHubIssueListParser.Page page = new GitHubIssueListParser().parse(new StringReader(html), BASE);
+
+        assertEquals(Arrays.asList(Pair.of("Open", 3), Pair.of("Closed", 7)), page.getStateCounts());
+        assertEquals(2, page.getIssues().size());
+        final Issue first = page.getIssues().get(0);
+        assertEquals("Fix a < b & \"more\"", first.getTitle());
+        assertEquals(BASE + "/o/r/issues/1", first.getUrl());
+        assertEquals(new HashSet<>(Arrays.asList("good first issue", "bug")), first.getTags());
+        assertNull(first.getCreated());
+        assertEquals("Second", page.getIssues().get(1).getTitle());
+        assertEquals(Collections.emptySet(), page.getIssues().get(1).getTags());
+        assertFalse(page.hasNextPage());
+    }
+
+    private String recorded(final String page) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/github/issues-" + page + ".html")) {
+            return IOUtils.toString(in, UTF_8);
+        }
+    }
+
+    private static final class OneCharReader extends Reader {
+
+        private final String text;
+        private int          position;
+
+        OneCharReader(final String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read(final char[] buffer, final int offset, final int length) {
+            if (position == text.length()) {
+                return -1;
+            }
+            buffer[offset] = text.charAt(position++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.github.maven.plugin.oss;
+
+import static com.github.maven.plugin.oss.fixtures.StubServer.resource;
+import static com.github.maven.plugin.oss.fixtures.StubServer.respond;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.github.maven.plugin.oss.fixtures.StubServer;
+import com.sun.net.httpserver.HttpExchange;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Crawls issue list pages recorded from GitHub, served from {@code src/test/resources/github}.
+ */
+public class GitHubIssueScraperTest {
+
+    private StubServer      server;
+    private String          site;
+    private ExecutorService prefetcher;
+    private final List<String>  queries    = new CopyOnWriteArrayList<>();
+    private final AtomicInteger prefetches = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubServer("/octo/lib/issues", this::serve);
+        site = server.getUrl();
+        prefetcher = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+        prefetcher.shutdownNow();
+    }
+
+    @Test
+    public void testAllPagesAreCrawledUntilTheListEnds() throws Exception {
+        final IssueSnapshot snapshot = scrape(1000, 0);
+
+        assertEquals(60, snapshot.getOpenIssues().size());
+        assertEquals(Arrays.asList(Pair.of("Open", 1060), Pair.of("Closed", 2345)), snapshot.getStateCounts());
+        assertEquals(3, queries.size());
+        assertEquals(2, prefetches.get());
+
+        final Issue first = snapshot.getOpenIssues().get(0);
+        assertEquals("Issue number 1000 & friends", first.getTitle());
+        assertEquals(site + "/1000", first.getUrl());
+        assertEquals(Collections.singleton("bug"), first.getTags());
+        assertEquals(Date.from(Instant.parse("2019-01-10T08:30:00Z")), first.getCreated());
+        assertNull(first.getLastActivity());
+        assertEquals("Issue number 941 & friends", snapshot.getOpenIssues().get(59).getTitle());
+    }
+
+    @Test
+    public void testCrawlingStopsAtTheLimit() throws Exception {
+        final IssueSnapshot snapshot = scrape(30, 0);
+
+        assertEquals(30, snapshot.getOpenIssues().size());
+        assertEquals(2, queries.size());
+        assertEquals("the second page alone reaches the limit", 1, prefetches.get());
+
+        scrape(25, 0);
+        assertEquals(3, queries.size());
+        assertEquals(1, prefetches.get());
+    }
+
+    @Test
+    public void testStaleIssuesAreNotRequested() throws Exception {
+        scrape(1000, TimeUnit.DAYS.toMillis(30));
+
+        final String query = queries.get(0);
+        assertTrue(query, query.startsWith("is:issue is:open sort:updated-desc updated:>="));
+        for (final String page : queries.subList(0, queries.size() - 1)) {
+            assertTrue(page, page.contains("updated:>="));
+        }
+        // the state counts are those of the whole repository
+        assertEquals("is:issue is:open sort:updated-desc page 1", queries.get(queries.size() - 1));
+    }
+
+    @Test
+    public void testChangesAreMergedIntoThePreviousSnapshot() throws Exception {
+        final IssueSnapshot full = scrape(1000, 0);
+        final Date taken = Date.from(Instant.parse("2019-06-01T00:00:00Z"));
+        final IssueSnapshot stale = new IssueSnapshot(taken, "github", full.getUrl(), full.getOpenIssues(),
+            Arrays.asList(Pair.of("Open", 1), Pair.of("Closed", 2)));
+        queries.clear();
+
+        final IssueSnapshot merged = scrapeSince(1000, stale);
+
+        assertEquals(Arrays.asList(
+            "is:issue is:open sort:updated-desc updated:>=2019-05-31T23:55:00Z page 1",
+            "is:issue is:closed sort:updated-desc updated:>=2019-05-31T23:55:00Z page 1",
+            "is:issue is:open sort:updated-desc page 1"), queries);
+        assertEquals(59, merged.getOpenIssues().size());
+        assertEquals("Issue number 1001 & friends", merged.getOpenIssues().get(0).getTitle());
+        assertEquals(Collections.singleton("regression"), merged.getOpenIssues().get(1).getTags());
+        assertEquals("Issue number 1000 & friends", merged.getOpenIssues().get(2).getTitle());
+        for (final Issue issue : merged.getOpenIssues()) {
+            assertFalse(issue.getUrl(), issue.getUrl().endsWith("/995") || issue.getUrl().endsWith("/980"));
+        }
+        // read again rather than derived from the changes, which include issues closed long before
+        assertEquals(Arrays.asList(Pair.of("Open", 1060), Pair.of("Closed", 2345)), merged.getStateCounts());
+        assertEquals(full.getUrl(), merged.getUrl());
+        assertTrue(merged.getSnapshotDate().after(taken));
+    }
+
+    @Test
+    public void testTooManyChangesAreNotMerged() throws Exception {
+        final IssueSnapshot previous = new IssueSnapshot(
+            Date.from(Instant.parse("2019-06-01T00:00:00Z")), "github", site, Collections.emptyList(), Collections.emptyList());
+        assertNull(scrapeSince(1, previous));
+    }
+
+    @Test
+    public void testChangesAreNotMergedWithAMaximumAge() throws Exception {
+        final IssueSnapshot previous = scrape(1000, 0);
+        queries.clear();
+
+        try (HttpFetcher http = new HttpFetcher(4, 4, null)) {
+            assertNull(scraper(http, 1000, TimeUnit.DAYS.toMillis(30)).scrapeSince(site, previous));
+        }
+        assertEquals(Collections.emptyList(), queries);
+    }
+
+    private IssueSnapshot scrape(final int maxIssues, final long maxAgeMillis) throws Exception {
+        try (HttpFetcher http = new HttpFetcher(4, 4, null)) {
+            return scraper(http, maxIssues, maxAgeMillis).scrape(site);
+        }
+    }
+
+    private IssueSnapshot scrapeSince(final int maxIssues, final IssueSnapshot previous) throws Exception {
+        try (HttpFetcher http = new HttpFetcher(4, 4, null)) {
+            return scraper(http, maxIssues, 0).scrapeSince(site, previous);
+        }
+    }
+
+    private GitHubIssueScraper scraper(final HttpFetcher http, final int maxIssues, final long maxAgeMillis) {
+        return new GitHubIssueScraper(http, task -> {
+            prefetches.incrementAndGet();
+            prefetcher.execute(task);
+        }, maxIssues, maxAgeMillis);
+    }
+
+    private void serve(final HttpExchange exchange) throws IOException {
+        String q = null;
+        int page = 1;
+        for (final String parameter : exchange.getRequestURI().getRawQuery().split("&")) {
+            final String[] pair = parameter.split("=", 2);
+            if ("q".equals(pair[0])) {
+                q = URLDecoder.decode(pair[1], "UTF-8");
+            } else if ("page".equals(pair[0])) {
+                page = Integer.parseInt(pair[1]);
+            }
+        }
+        queries.add(q + " page " + page);
+
+        final String recorded;
+        if (q.contains("updated:>=2019")) {
+            recorded = q.contains("is:closed") ? "updated-closed" : "updated-open";
+        } else {
+            recorded = String.valueOf(page);
+        }
+        final byte[] body = resource("/github/issues-" + recorded + ".html");
+        if (body == null) {
+            respond(exchange, 404);
+            return;
+        }
+        respond(exchange, "text/html; charset=utf-8", body);
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.maven.plugin.oss;
+
+import static com.github.maven.plugin.oss.fixtures.StubServer.respond;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.github.maven.plugin.oss.fixtures.StubServer;
+import com.github.maven.plugin.oss.fixtures.Workspace;
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+public class HttpFetcherTest {
+
+    private static final String PAGE = repeat("<li class=\"js-issue-row\">issue</li>\n", 500);
+
+    private Workspace     workspace;
+    private StubServer    server;
+    private String        url;
+    private final AtomicInteger fullResponses = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        workspace = new Workspace();
+        server = new StubServer("/issues", this::serve);
+        url = server.getUrl();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.close();
+        workspace.close();
+    }
+
+    @Test
+    public void testKeepAliveGzipAndRevalidation() throws Exception {
+        try (HttpFetcher http = new HttpFetcher(4, 2, null)) {
+            final HttpFetcher.Response<String> first = http.get(url);
+            assertEquals(200, first.getStatus());
+            assertEquals(PAGE, first.getBody());
+            assertFalse(first.isNotModified());
+
+            final HttpFetcher.Response<String> second = http.get(url);
+            assertEquals(200, second.getStatus());
+            assertEquals(PAGE, second.getBody());
+            assertTrue(second.isNotModified());
+
+            assertEquals(1, fullResponses.get());
+            assertEquals(2, http.getRequests());
+            assertEquals(1, http.getConnectionsOpened());
+            assertEquals(1, http.getConnectionsReused());
+            assertEquals(1, http.getNotModified());
+            assertTrue("compressed bytes expected, got " + http.getBytesReceived(),
+                http.getBytesReceived() > 0 && http.getBytesReceived() < PAGE.length() / 10);
+        }
+    }
+
+    @Test
+    public void testBodiesAreReadWhileTheyArrive() throws Exception {
+        try (HttpFetcher http = new HttpFetcher(4, 2, null)) {
+            final HttpFetcher.Response<String> first =
+                http.get(url, Collections.emptyMap(), true, body -> new BufferedReader(body).readLine());
+            assertEquals("<li class=\"js-issue-row\">issue</li>", first.getBody());
+
+            // the rest of the page was still remembered, and the connection reused
+            final HttpFetcher.Response<String> second = http.get(url);
+            assertTrue(second.isNotModified());
+            assertEquals(PAGE, second.getBody());
+            assertEquals(1, http.getConnectionsOpened());
+        }
+    }
+
+    @Test
+    public void testValidatorsArePersisted() throws Exception {
+        final File directory = new File(workspace.getRoot(), "http");
+        try (HttpFetcher http = new HttpFetcher(4, 2, directory)) {
+            http.get(url);
+        }
+        try (HttpFetcher http = new HttpFetcher(4, 2, directory)) {
+            final HttpFetcher.Response<String> response = http.get(url);
+            assertTrue(response.isNotModified());
+            assertEquals(PAGE, response.getBody());
+        }
+        assertEquals(1, fullResponses.get());
+    }
+
+    @Test
+    public void testStoredBodiesAreReadFromDisk() throws Exception {
+        final File directory = new File(workspace.getRoot(), "http");
+        try (HttpFetcher http = new HttpFetcher(4, 2, directory)) {
+            http.get(url);
+            assertEquals(PAGE, http.get(url).getBody());
+            assertEquals(1, fullResponses.get());
+
+            // only the validators are in memory: a lost body is fetched again in full
+            for (final File stored : directory.listFiles()) {
+                assertTrue(stored.delete());
+            }
+            final HttpFetcher.Response<String> refetched = http.get(url);
+            assertFalse(refetched.isNotModified());
+            assertEquals(PAGE, refetched.getBody());
+            assertEquals(2, fullResponses.get());
+            assertTrue(http.get(url).isNotModified());
+        }
+    }
+
+    @Test
+    public void testUnstoredPagesAreNotRemembered() throws Exception {
+        final File directory = new File(workspace.getRoot(), "http");
+        try (HttpFetcher http = new HttpFetcher(4, 2, directory)) {
+            assertEquals(PAGE, http.get(url, Collections.emptyMap(), false).getBody());
+            assertFalse(http.get(url, Collections.emptyMap(), false).isNotModified());
+        }
+        assertEquals(2, fullResponses.get());
+        assertFalse(directory.exists() && directory.list().length > 0);
+    }
+
+    private void serve(final HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().add("ETag", "\"v1\"");
+        if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            respond(exchange, 304);
+            return;
+        }
+
+        byte[] body = PAGE.getBytes(UTF_8);
+        final String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body);
+            }
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        respond(exchange, "text/html; charset=utf-8", body);
+        fullResponses.incrementAndGet();
+    }
+
+    private static String repeat(final String text, final int times) {
+        final StringBuilder repeated = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            repeated.append(text);
+        }
+        return repeated.toString();
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.maven.plugin.oss;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ImportParserTest {
+
+    private final ImportParser javaParser = new JavaParserImportParser();
+
+    @Test
+    public void testScannerMatchesJavaParserOnFixtures() throws Exception {
+        final File fixtures = new File(ImportParserTest.class.getResource("/imports").getPath());
+        final File[] files = fixtures.listFiles();
+        assertNotNull(files);
+        assertTrue(files.length > 0);
+        for (final File file : files) {
+            assertParity(file);
+        }
+    }
+
+    @Test
+    public void testScannerMatchesJavaParserOnProjectSources() throws Exception {
+        final List<Path> sources;
+        try (Stream<Path> paths = Stream.concat(Files.walk(Paths.get("src/main/java")), Files.walk(Paths.get("src/test/java")))) {
+            sources = paths.filter(p -> p.toString().endsWith(".java")).collect(Collectors.toList());
+        }
+        assertTrue(!sources.isEmpty());
+        for (final Path source : sources) {
+            assertParity(source.toFile());
+        }
+    }
+
+    /**
+     * JavaParser keeps unicode escapes verbatim in names; the scanner translates them as javac does.
+     */
+    @Test
+    public void testScannerTranslatesUnicodeEscapes() throws Exception {
+        final List<JavaImport> imports = scan(new File(ImportParserTest.class.getResource("/imports-unicode/UnicodeEscapes.java").getPath()));
+        assertEquals("java.util.List", imports.get(0).getName());
+        assertEquals("java.util.Set", imports.get(1).getName());
+        assertEquals(3, imports.size());
+    }
+
+    private void assertParity(final File file) throws IOException {
+        final List<JavaImport> scanned = scan(file);
+        assertNotNull("scanner fell back on " + file, scanned);
+        assertEquals(file.toString(), javaParser.parse(file), scanned);
+    }
+
+    private static List<JavaImport> scan(final File file) throws IOException {
+        try (Reader reader = new InputStreamReader(Files.newInputStream(file.toPath()), UTF_8)) {
+            return ScanningImportParser.scan(reader);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.maven.plugin.oss;
+
+import static com.github.maven.plugin.oss.fixtures.StubServer.respond;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.github.maven.plugin.oss.fixtures.StubServer;
+import com.sun.net.httpserver.HttpExchange;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class JiraIssueScraperTest {
+
+    private static final int OPEN     = 250;
+    private static final int RESOLVED = 42;
+
+    private StubServer   server;
+    private String       base;
+    private final List<Map<String, String>> searches = new CopyOnWriteArrayList<>();
+    private volatile int status = 200;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubServer("/jira", this::search);
+        base = server.getUrl();
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void testOpenIssuesArePaginatedWithOnlyNeededFields() throws Exception {
+        final IssueScraper unexpected = url -> {
+            throw new AssertionError("fallback used for " + url);
+        };
+        try (HttpFetcher http = new HttpFetcher(4, 2, null)) {
+            final IssueSnapshot snapshot = new JiraIssueScraper(http, unexpected, 1000).scrape(base + "/browse/LANG");
+
+            assertEquals("jira", snapshot.getIssueSystem());
+            assertEquals(base + "/browse/LANG?filter=allopenissues", snapshot.getUrl());
+            assertEquals(Arrays.asList(Pair.of("Open", OPEN), Pair.of("Closed", RESOLVED)), snapshot.getStateCounts());
+            assertEquals(OPEN, snapshot.getOpenIssues().size());
+
+            final Issue first = snapshot.getOpenIssues().get(0);
+            assertEquals("Issue \"0\" \u00e9\n", first.getTitle());
+            assertEquals(base + "/browse/LANG-0", first.getUrl());
+            assertEquals(new LinkedHashSet<>(Arrays.asList("label-0", "lang.time")), first.getTags());
+            assertEquals(new Date(1546336800000L), first.getCreated());
+            assertEquals(new Date(1546340400000L), first.getLastActivity());
+            assertEquals(base + "/browse/LANG-249", snapshot.getOpenIssues().get(OPEN - 1).getUrl());
+            assertNull(snapshot.getOpenIssues().get(1).getCreated());
+
+            assertEquals(4, searches.size());
+            for (final Map<String, String> search : searches) {
+                assertEquals("summary,created,updated,labels,components", search.get("fields"));
+            }
+            assertEquals("0", searches.get(0).get("startAt"));
+            assertEquals("100", searches.get(1).get("startAt"));
+            assertEquals("200", searches.get(2).get("startAt"));
+            assertEquals("0", searches.get(3).get("maxResults"));
+            assertTrue(searches.get(3).get("jql").contains("resolution IS NOT EMPTY"));
+        }
+    }
+
+    @Test
+    public void testPaginationStopsAtTheLimit() throws Exception {
+        try (HttpFetcher http = new HttpFetcher(4, 2, null)) {
+            final IssueSnapshot snapshot = new JiraIssueScraper(http, null, 150).scrape(base + "/browse/LANG");
+
+            assertEquals(150, snapshot.getOpenIssues().size());
+            assertEquals(Pair.of("Open", OPEN), snapshot.getStateCounts().get(0));
+        }
+        assertEquals(3, searches.size());
+        assertEquals("100", searches.get(1).get("startAt"));
+        assertEquals("50", searches.get(1).get("maxResults"));
+    }
+
+    @Test
+    public void testFallbackWhenSearchIsUnavailable() throws Exception {
+        status = 404;
+        final IssueSnapshot fallbackSnapshot = new IssueSnapshot(new Date(), "jira", base, null, null);
+        final List<String> fallbackURLs = new CopyOnWriteArrayList<>();
+        final IssueScraper fallback = url -> {
+            fallbackURLs.add(url);
+            return fallbackSnapshot;
+        };
+        try (HttpFetcher http = new HttpFetcher(4, 2, null)) {
+            final JiraIssueScraper scraper = new JiraIssueScraper(http, fallback, 1000);
+            assertSame(fallbackSnapshot, scraper.scrape(base + "/browse/LANG"));
+            assertSame(fallbackSnapshot, scraper.scrape("https://jira.example.org/secure/Dashboard.jspa"));
+        }
+        assertEquals(Arrays.asList(base + "/browse/LANG", "https://jira.example.org/secure/Dashboard.jspa"), fallbackURLs);
+        assertEquals(1, searches.size());
+    }
+
+    private void search(final HttpExchange exchange) throws IOException {
+        final Map<String, String> query = new HashMap<>();
+        for (final String parameter : exchange.getRequestURI().getRawQuery().split("&")) {
+            final int eq = parameter.indexOf('=');
+            query.put(parameter.substring(0, eq), URLDecoder.decode(parameter.substring(eq + 1), "UTF-8"));
+        }
+        searches.add(query);
+
+        if (status != 200) {
+            respond(exchange, status);
+            return;
+        }
+
+        final StringBuilder json = new StringBuilder();
+        if (query.get("jql").contains("Unresolved")) {
+            final int startAt = Integer.parseInt(query.get("startAt"));
+            final int end = Math.min(OPEN, startAt + Integer.parseInt(query.get("maxResults")));
+            json.append("{\"expand\":\"schema,names\",\"startAt\":").append(startAt)
+                .append(",\"maxResults\":100,\"total\":").append(OPEN).append(",\"issues\":[");
+            for (int i = startAt; i < end; i++) {
+                json.append(i > startAt ? ",\n" : "\n").append(issue(i));
+            }
+            json.append("]}");
+        } else {
+            json.append("{\"startAt\":0,\"maxResults\":0,\"total\":").append(RESOLVED).append(",\"issues\":[]}");
+        }
+
+        respond(exchange, "application/json;charset=UTF-8", json.toString().getBytes(UTF_8));
+    }
+
+    private static String issue(final int i) {
+        final String dates = i % 2 == 0
+            ? "\"created\":\"2019-01-01T10:00:00.000+0000\",\"updated\":\"2019-01-01T12:00:00.000+0100\""
+            : "\"created\":null,\"updated\":null";
+        return "{\"expand\":\"operations\",\"id\":\"" + (1000 + i) + "\",\"self\":\"https://jira/rest/api/2/issue/" + i + "\","
+            + "\"key\":\"LANG-" + i + "\",\"fields\":{"
+            + "\"summary\":\"Issue \\\"" + i + "\\\" \\u00e9\\n\","
+            + "\"components\":[{\"self\":\"x\",\"id\":\"1\",\"name\":\"lang.time\",\"description\":{\"nested\":[1,2.5e3,true]}}],"
+            + dates + ","
+            + "\"labels\":[\"label-" + i + "\"]}}";
+    }
+}
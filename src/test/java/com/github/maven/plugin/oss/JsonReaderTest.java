@@ -0,0 +1,68 @@
+package com.github.maven.plugin.oss;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+public class JsonReaderTest {
+
+    @Test
+    public void testReadAndSkip() throws IOException {
+        final JsonReader json = new JsonReader(new StringReader(
+            "{ \"skipped\": {\"a\": [1, {\"b\": \"}]\"}, null], \"c\": false},\n"
+                + "  \"text\": \"tab\\there \\\"quoted\\\" \\u0041\\/\",\n"
+                + "  \"count\": -12, \"big\": 1.5e3, \"none\": null, \"list\": [\"x\", []] }"));
+
+        json.beginObject();
+        assertEquals("skipped", json.nextName());
+        json.skipValue();
+        assertEquals("text", json.nextName());
+        assertEquals("tab\there \"quoted\" A/", json.nextString());
+        assertEquals("count", json.nextName());
+        assertEquals(-12, json.nextLong());
+        assertEquals("big", json.nextName());
+        assertEquals(1500, json.nextLong());
+        assertEquals(JsonReader.Token.NAME, json.peek());
+        json.skipValue();
+        assertEquals("list", json.nextName());
+        json.beginArray();
+        assertEquals(JsonReader.Token.STRING, json.peek());
+        assertEquals("x", json.nextString());
+        assertEquals(JsonReader.Token.BEGIN_ARRAY, json.peek());
+        json.skipValue();
+        assertFalse(json.hasNext());
+        json.endArray();
+        assertFalse(json.hasNext());
+        json.endObject();
+        assertEquals(JsonReader.Token.END_DOCUMENT, json.peek());
+    }
+
+    @Test
+    public void testDouble() throws IOException {
+        final JsonReader json = new JsonReader(new StringReader("[1.25, -3e-2, 7]"));
+        json.beginArray();
+        assertEquals(1.25, json.nextDouble(), 0.0);
+        assertEquals(-0.03, json.nextDouble(), 1e-12);
+        assertEquals(7.0, json.nextDouble(), 0.0);
+        json.endArray();
+    }
+
+    @Test
+    public void testNullString() throws IOException {
+        final JsonReader json = new JsonReader(new StringReader("[null, \"a\"]"));
+        json.beginArray();
+        assertNull(json.nextString());
+        assertEquals("a", json.nextString());
+        json.endArray();
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnterminatedString() throws IOException {
+        new JsonReader(new StringReader("{\"name\": \"value")).skipValue();
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.maven.plugin.oss;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+public class MetricsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testBucketsCoverEveryLatencyWithinAQuarter() {
+        int previous = -1;
+        for (long micros = 0; micros < 1_000_000; micros += 1 + micros / 100) {
+            final int bucket = LatencyHistogram.bucket(micros);
+            assertTrue(micros + " in " + bucket, bucket >= previous);
+            assertTrue(micros + " above bound of " + bucket, micros <= LatencyHistogram.upperBound(bucket));
+            assertTrue(micros + " far below bound of " + bucket, LatencyHistogram.upperBound(bucket) <= micros * 1.25 + 1);
+            previous = bucket;
+        }
+        assertTrue(LatencyHistogram.bucket(Long.MAX_VALUE) < 4 * 64);
+    }
+
+    @Test
+    public void testQuantiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(50.5, histogram.getMeanMillis(), 0.001);
+        assertEquals(100.0, histogram.getMaxMillis(), 0.001);
+        assertEquals(50.0, histogram.getQuantileMillis(0.5), 50.0 * 0.25);
+        assertEquals(90.0, histogram.getQuantileMillis(0.9), 90.0 * 0.25);
+        assertEquals(100.0, histogram.getQuantileMillis(1.0), 0.001);
+        assertEquals(0.0, new LatencyHistogram().getQuantileMillis(0.5), 0.0);
+    }
+
+    @Test
+    public void testJson() throws Exception {
+        final Metrics metrics = new Metrics();
+        final Metrics.Timing timing = metrics.phase(Utility.SOURCES, "files").start();
+        metrics.phase(Utility.SOURCES, "files").add(3, 1024);
+        timing.stop();
+        metrics.phase(Utility.SOURCES, "files").add(2, 512);
+        metrics.latencies("http").record(TimeUnit.MILLISECONDS.toNanos(20));
+        metrics.dependency("g:fast:1").indexed(TimeUnit.MILLISECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(1), 10, 2048);
+        metrics.dependency("g:slow:1").indexed(TimeUnit.MILLISECONDS.toNanos(5), TimeUnit.MILLISECONDS.toNanos(3), 200, 4096);
+        metrics.dependency("g:slow:1").scraped(TimeUnit.MILLISECONDS.toNanos(30), 4);
+
+        final File file = new File(folder.getRoot(), "target/oss-metrics.json");
+        metrics.write(file);
+
+        final JsonReader json = new JsonReader(Files.newBufferedReader(file.toPath(), UTF_8));
+        json.beginObject();
+        assertEquals("wallMillis", json.nextName());
+        assertTrue(json.nextLong() >= 0);
+        assertEquals("cpuMillis", json.nextName());
+        json.skipValue();
+        assertEquals("phases", json.nextName());
+        json.beginArray();
+        json.beginObject();
+        assertEquals("name", json.nextName());
+        assertEquals("sources", json.nextString());
+        json.skipValue();
+        json.skipValue();
+        assertEquals("items", json.nextName());
+        assertEquals(5, json.nextLong());
+        assertEquals("unit", json.nextName());
+        assertEquals("files", json.nextString());
+        assertEquals("bytes", json.nextName());
+        assertEquals(1536, json.nextLong());
+        json.endObject();
+        json.endArray();
+
+        assertEquals("latencies", json.nextName());
+        json.beginArray();
+        json.beginObject();
+        assertEquals("name", json.nextName());
+        assertEquals("http", json.nextString());
+        assertEquals("count", json.nextName());
+        assertEquals(1, json.nextLong());
+        assertEquals("meanMillis", json.nextName());
+        assertEquals(20.0, json.nextDouble(), 0.001);
+        json.skipValue();
+        json.skipValue();
+        json.skipValue();
+        assertEquals("maxMillis", json.nextName());
+        assertEquals(20.0, json.nextDouble(), 0.001);
+        json.endObject();
+        json.endArray();
+
+        // slowest first
+        assertEquals("dependencies", json.nextName());
+        json.beginArray();
+        json.beginObject();
+        assertEquals("coordinates", json.nextName());
+        assertEquals("g:slow:1", json.nextString());
+        assertEquals("indexMillis", json.nextName());
+        assertEquals(5, json.nextLong());
+        assertEquals("classes", json.nextName());
+        assertEquals(200, json.nextLong());
+        assertEquals("jarBytes", json.nextName());
+        assertEquals(4096, json.nextLong());
+        assertEquals("lineageMillis", json.nextName());
+        assertEquals(0, json.nextLong());
+        assertEquals("cpuMillis", json.nextName());
+        assertEquals(Metrics.threadCpuNanos() >= 0 ? 3 : -1, json.nextLong());
+        assertEquals("scrapeMillis", json.nextName());
+        assertEquals(30, json.nextLong());
+        assertEquals("issues", json.nextName());
+        assertEquals(4, json.nextLong());
+        json.endObject();
+        json.beginObject();
+        assertEquals("coordinates", json.nextName());
+        assertEquals("g:fast:1", json.nextString());
+        while (json.hasNext()) {
+            json.skipValue();
+        }
+        json.endObject();
+        json.endArray();
+        json.endObject();
+    }
+
+    @Test
+    public void testJsonWriterEscapes() throws Exception {
+        final StringWriter out = new StringWriter();
+        new JsonWriter(out).beginObject()
+            .name("text").value("\"a\\b\"\n\t\u0001\u2028")
+            .name("list").beginArray().value(1).value(2.5).beginObject().endObject().endArray()
+            .endObject();
+
+        assertEquals("{\"text\":\"\\\"a\\\\b\\\"\\n\\t\\u0001\\u2028\",\"list\":[1,2.5,{}]}", out.toString());
+    }
+}
@@ -0,0 +1,153 @@
+package com.github.maven.plugin.oss;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PomLineageCacheTest {
+
+    private File directory;
+    private File cacheFile;
+    private AtomicInteger parentResolutions;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("oss-lineage").toFile();
+        cacheFile = new File(directory, "cache/lineage.bin");
+        parentResolutions = new AtomicInteger();
+        pom("oss-parent", null, "<scm><url>https://github.com/acme/oss-parent</url></scm>");
+        pom("parent", "oss-parent", "");
+        for (int i = 0; i < 20; i++) {
+            pom("lib-" + i, "parent", "<name>Lib " + i + "</name>");
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testSharedParentsAreReadOnce() throws Exception {
+        final PomLineageCache cache = new PomLineageCache(null);
+        final List<Model> first = cache.resolve(new File(directory, "lib-0.pom"), this::resolveParent);
+        final List<Model> second = cache.resolve(new File(directory, "lib-1.pom"), this::resolveParent);
+
+        assertEquals(3, first.size());
+        assertEquals("oss-parent", first.get(2).getArtifactId());
+        assertEquals(first.get(1), second.get(1));
+        assertEquals(2, parentResolutions.get());
+        assertEquals(2, cache.getParentsRead());
+        assertEquals(1, cache.getParentsShared());
+        try {
+            first.clear();
+            fail("lineages are shared");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testConcurrentLineagesReadEachParentOnce() throws Exception {
+        final PomLineageCache cache = new PomLineageCache(null);
+        final ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            final List<Callable<PomLineageCache.Lineage>> lineages = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                final int lib = i;
+                lineages.add(() -> cache.lineage("com.acme:lib-" + lib + ":1.0", new File(directory, "lib-" + lib + ".pom"), this::resolveParent));
+            }
+            final List<Future<PomLineageCache.Lineage>> resolved = pool.invokeAll(lineages);
+            for (int i = 0; i < 20; i++) {
+                assertEquals("Lib " + i, resolved.get(i).get().getName());
+                assertEquals(Pair.of("github", "https://github.com/acme/oss-parent/issues"), resolved.get(i).get().getIssueSite());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(2, parentResolutions.get());
+    }
+
+    @Test
+    public void testReleasedLineagesAreServedFromDisk() throws Exception {
+        final PomLineageCache first = new PomLineageCache(cacheFile);
+        first.load();
+        first.lineage("com.acme:lib-0:1.0", new File(directory, "lib-0.pom"), this::resolveParent);
+        first.lineage("com.acme:lib-1:1.1-SNAPSHOT", new File(directory, "lib-1.pom"), this::resolveParent);
+        first.save();
+
+        final PomLineageCache second = new PomLineageCache(cacheFile);
+        second.load();
+        final PomLineageCache.Lineage served = second.lineage("com.acme:lib-0:1.0", new File(directory, "missing.pom"), this::resolveParent);
+        assertEquals("Lib 0", served.getName());
+        assertEquals(Pair.of("github", "https://github.com/acme/oss-parent/issues"), served.getIssueSite());
+        assertEquals(1, second.getHits());
+        try {
+            second.lineage("com.acme:lib-1:1.1-SNAPSHOT", new File(directory, "missing.pom"), this::resolveParent);
+            fail("snapshots are resolved again");
+        } catch (FileNotFoundException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFailedLineageIsResolvedAgain() throws Exception {
+        final PomLineageCache cache = new PomLineageCache(null);
+        final File pom = new File(directory, "lib-0.pom");
+        try {
+            cache.lineage("com.acme:lib-0:1", pom, parent -> {
+                throw new FileNotFoundException("repository offline");
+            });
+            fail("expected the parent resolution to fail");
+        } catch (FileNotFoundException e) {
+            // expected
+        }
+
+        final PomLineageCache.Lineage lineage = cache.lineage("com.acme:lib-0:1", pom, this::resolveParent);
+        assertEquals("Lib 0", lineage.getName());
+        assertEquals("https://github.com/acme/oss-parent/issues", lineage.getIssueSite().getRight());
+    }
+
+    @Test
+    public void testLineageWithoutIssueSite() throws Exception {
+        pom("plain", null, "");
+        final PomLineageCache.Lineage lineage = new PomLineageCache(null)
+            .lineage("com.acme:plain:1.0", new File(directory, "plain.pom"), this::resolveParent);
+        assertNull(lineage.getName());
+        assertNull(lineage.getIssueSite());
+    }
+
+    private File resolveParent(final Parent parent) {
+        parentResolutions.incrementAndGet();
+        return new File(directory, parent.getArtifactId() + ".pom");
+    }
+
+    private void pom(final String artifactId, final String parent, final String content) throws IOException {
+        FileUtils.writeStringToFile(new File(directory, artifactId + ".pom"),
+            "<project>\n  <modelVersion>4.0.0</modelVersion>\n"
+                + (parent == null ? "" : "  <parent><groupId>com.acme</groupId><artifactId>" + parent + "</artifactId><version>1</version></parent>\n")
+                + "  <groupId>com.acme</groupId>\n  <artifactId>" + artifactId + "</artifactId>\n  <version>1</version>\n"
+                + "  " + content + "\n</project>\n", UTF_8);
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.maven.plugin.oss;
+
+import static com.github.maven.plugin.oss.fixtures.StubServer.resource;
+import static com.github.maven.plugin.oss.fixtures.StubServer.respond;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.github.maven.plugin.oss.fixtures.StubServer;
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Talks to a stub GitHub that grants a small budget per window and announces it in rate-limit headers.
+ */
+public class RateLimiterTest {
+
+    private StubServer server;
+    private String     site;
+
+    private final AtomicInteger requests       = new AtomicInteger();
+    private final AtomicInteger refused        = new AtomicInteger();
+    private final List<String>  authorizations = new CopyOnWriteArrayList<>();
+
+    // budget per window; requests over it are refused with a 429 if retryAfter is set, a 403 otherwise
+    private volatile int  limit        = 3;
+    private volatile long windowMillis = 1_500;
+    private volatile int  retryAfter   = -1;
+    private long          windowEnd;
+    private int           used;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubServer("/octo/lib/issues", this::serve);
+        site = server.getUrl();
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void testRequestsWaitForTheResetInsteadOfBeingRefused() throws Exception {
+        final RateLimiter rateLimiter = new RateLimiter(10_000);
+        try (HttpFetcher http = new HttpFetcher(4, 4, 5_000, rateLimiter, null)) {
+            for (int i = 0; i < 5; i++) {
+                assertEquals(200, http.get(site + "?q=" + i).getStatus());
+            }
+        }
+        assertEquals(5, requests.get());
+        assertEquals(0, refused.get());
+        assertEquals(0, rateLimiter.getLimited());
+        assertTrue(rateLimiter.getWaits() > 0);
+    }
+
+    @Test
+    public void testRefusedRequestsAreRetriedAfterRetryAfter() throws Exception {
+        limit = 0;
+        retryAfter = 1;
+        final RateLimiter rateLimiter = new RateLimiter(10_000);
+        try (HttpFetcher http = new HttpFetcher(4, 4, 5_000, rateLimiter, null)) {
+            final Thread grant = new Thread(() -> {
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                limit = 10;
+                retryAfter = -1;
+            });
+            grant.start();
+            final long start = System.nanoTime();
+            assertEquals(200, http.get(site).getStatus());
+            assertTrue((System.nanoTime() - start) / 1_000_000 >= 900);
+            grant.join();
+        }
+        assertEquals(1, refused.get());
+        assertEquals(1, rateLimiter.getLimited());
+    }
+
+    @Test
+    public void testWaitBeyondTheMaximumFails() throws Exception {
+        windowMillis = 60_000;
+        final RateLimiter rateLimiter = new RateLimiter(1_000);
+        try (HttpFetcher http = new HttpFetcher(4, 4, 5_000, rateLimiter, null)) {
+            for (int i = 0; i < 3; i++) {
+                http.get(site + "?q=" + i);
+            }
+            try {
+                http.get(site + "?q=3");
+                fail("exhausted rate limit expected");
+            } catch (IOException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Rate limit of 127.0.0.1 exhausted"));
+            }
+        }
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void testNoCredentialsAreSentToIssueSites() throws Exception {
+        limit = 100;
+        try (HttpFetcher http = new HttpFetcher(4, 4, null)) {
+            new GitHubIssueScraper(http, Runnable::run, 100, 0).scrape(site);
+        }
+        assertEquals(singletonList("none"), authorizations);
+    }
+
+    private synchronized void serve(final HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        final String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        authorizations.add(authorization == null ? "none" : authorization);
+
+        final long now = System.currentTimeMillis();
+        if (now >= windowEnd) {
+            windowEnd = now + windowMillis;
+            used = 0;
+        }
+        final boolean allowed = used < limit;
+        if (allowed) {
+            used++;
+        }
+        exchange.getResponseHeaders().add("X-RateLimit-Limit", String.valueOf(limit));
+        exchange.getResponseHeaders().add("X-RateLimit-Remaining", String.valueOf(limit - used));
+        exchange.getResponseHeaders().add("X-RateLimit-Reset", String.valueOf((windowEnd + 999) / 1000));
+        if (!allowed) {
+            refused.incrementAndGet();
+            if (retryAfter >= 0) {
+                exchange.getResponseHeaders().add("Retry-After", String.valueOf(retryAfter));
+            }
+            respond(exchange, retryAfter >= 0 ? 429 : 403);
+            return;
+        }
+
+        respond(exchange, "text/html; charset=utf-8", resource("/github/issues-3.html"));
+    }
+}
@@ -0,0 +1,282 @@
+package com.github.maven.plugin.oss;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReportWriterTest {
+
+    @Test
+    public void testSectionsAreWrittenInOrderAsSoonAsTheyAreDue() throws Exception {
+        final List<String> written = new CopyOnWriteArrayList<>();
+        final CountDownLatch firstWritten = new CountDownLatch(1);
+        final ReportSink sink = new RecordingSink(written, firstWritten);
+
+        final List<Source> sources = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            sources.add(new Source("s" + i));
+        }
+        final List<String> beforeLast = new CopyOnWriteArrayList<>();
+        final ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
+        try {
+            // the later sections are done first and wait for the first one
+            sources.get(3).complete();
+            sources.get(1).complete();
+            executor.schedule(() -> sources.get(0).complete(), 200, TimeUnit.MILLISECONDS);
+            executor.schedule(() -> {
+                try {
+                    // the first sections are written before the last one completes
+                    firstWritten.await();
+                    Thread.sleep(200);
+                    beforeLast.addAll(written);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                sources.get(2).complete();
+            }, 0, TimeUnit.MILLISECONDS);
+
+            assertEquals(0, new ReportWriter(sink, 4, 0).write("Report", sources));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(asList("s0", "s1"), beforeLast);
+        assertEquals(asList("s0", "s1", "s2", "s3"), written);
+    }
+
+    @Test
+    public void testNoMoreThanTheWindowIsStartedAhead() throws Exception {
+        final AtomicInteger started = new AtomicInteger();
+        final List<Integer> ahead = new ArrayList<>();
+        final List<String> written = new ArrayList<>();
+        final ReportSink sink = new RecordingSink(written, new CountDownLatch(1)) {
+            @Override
+            public void section(final ReportSection section) throws IOException {
+                super.section(section);
+                ahead.add(started.get() - written.size());
+            }
+        };
+
+        final List<Source> sources = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            sources.add(new Source("s" + i) {
+                @Override
+                public CompletableFuture<ReportSection> start() {
+                    started.incrementAndGet();
+                    complete();
+                    return super.start();
+                }
+            });
+        }
+        new ReportWriter(sink, 3, 0).write("Report", sources);
+
+        assertEquals(20, written.size());
+        assertEquals(20, started.get());
+        assertTrue(ahead.toString(), Collections.max(ahead) <= 2);
+    }
+
+    @Test
+    public void testSectionsNotDoneByTheDeadlineArePending() throws Exception {
+        final List<String> written = new ArrayList<>();
+        final List<Source> sources = asList(new Source("done"), new Source("slow"), new Source("never started"));
+        sources.get(0).complete();
+
+        final long start = System.nanoTime();
+        assertEquals(2, new ReportWriter(new RecordingSink(written, new CountDownLatch(1)), 1, 300).write("Report", sources));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5_000);
+        assertEquals(asList("done", "slow (pending)", "never started (pending)"), written);
+        assertFalse(sources.get(2).started);
+    }
+
+    @Test
+    public void testSkippedSectionsAreListedButNotPending() throws Exception {
+        final List<String> written = new ArrayList<>();
+        final Source skipped = new Source("Skipped: ranked below the top 1") {
+            @Override
+            public ReportSection pending() {
+                return new ReportSection("Skipped: ranked below the top 1", null,
+                    singletonList(Pair.of("g:b:2", 1L)), ReportSection.Status.SKIPPED, null);
+            }
+        };
+        final List<Source> sources = asList(new Source("slow"), skipped);
+
+        assertEquals(1, new ReportWriter(new RecordingSink(written, new CountDownLatch(1)), 1, 200).write("Report", sources));
+        assertEquals(asList("slow (pending)", "Skipped: ranked below the top 1"), written);
+
+        final StringWriter out = new StringWriter();
+        try (ReportSink sink = new MarkdownReportSink(out)) {
+            sink.section(skipped.pending());
+        }
+        assertTrue(out.toString(), out.toString().contains("g:b:2"));
+        assertTrue(out.toString(), out.toString().contains("Issues: not scraped"));
+    }
+
+    @Test
+    public void testJsonLines() throws Exception {
+        final StringWriter out = new StringWriter();
+        try (ReportSink sink = new JsonLinesReportSink(out)) {
+            sink.begin("My \"Project\"");
+            sink.section(scraped());
+            sink.section(new ReportSection("none", null,
+                singletonList(Pair.of("g:b:2", 1L)), ReportSection.Status.UNKNOWN, null));
+        }
+
+        final String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+
+        final JsonReader json = new JsonReader(new StringReader(lines[0]));
+        json.beginObject();
+        assertEquals("report", json.nextName());
+        assertEquals("My \"Project\"", json.nextString());
+        assertEquals("name", json.nextName());
+        assertEquals("Lib", json.nextString());
+        assertEquals("imports", json.nextName());
+        assertEquals(7, json.nextLong());
+        assertEquals("artifacts", json.nextName());
+        json.skipValue();
+        assertEquals("issueSystem", json.nextName());
+        assertEquals("github", json.nextString());
+        assertEquals("issueSite", json.nextName());
+        assertEquals("https://github.com/o/lib/issues", json.nextString());
+        assertEquals("status", json.nextName());
+        assertEquals("scraped", json.nextString());
+        assertEquals("snapshotDate", json.nextName());
+        assertEquals("1970-01-01T00:00:01Z", json.nextString());
+        assertEquals("issuesUrl", json.nextName());
+        json.skipValue();
+        assertEquals("stateCounts", json.nextName());
+        json.beginObject();
+        assertEquals("Open", json.nextName());
+        assertEquals(2, json.nextLong());
+        json.endObject();
+        assertEquals("openIssues", json.nextName());
+        json.beginArray();
+        json.beginObject();
+        assertEquals("title", json.nextName());
+        assertEquals("Fails, \"badly\"\non Windows", json.nextString());
+        json.skipValue();
+        assertEquals("tags", json.nextName());
+        json.beginArray();
+        assertEquals("bug", json.nextString());
+        assertEquals("windows", json.nextString());
+        json.endArray();
+        assertEquals("created", json.nextName());
+        assertEquals("1970-01-01T00:00:02Z", json.nextString());
+        assertEquals("lastActivity", json.nextName());
+        assertEquals(null, json.nextString());
+        json.endObject();
+        json.skipValue();
+        json.endArray();
+        json.endObject();
+
+        assertTrue(lines[1], lines[1].contains("\"issueSite\":null,\"status\":\"unknown\"}"));
+    }
+
+    @Test
+    public void testCsv() throws Exception {
+        final StringWriter out = new StringWriter();
+        try (ReportSink sink = new CsvReportSink(out)) {
+            sink.begin("Report");
+            sink.section(scraped());
+            sink.section(new ReportSection("none", null,
+                singletonList(Pair.of("g:b:2", 1L)), ReportSection.Status.PENDING, null));
+        }
+
+        final String[] rows = out.toString().split("\r\n");
+        assertEquals(4, rows.length);
+        assertEquals("section,artifacts,imports,issue_system,issue_site,status,title,url,tags,created,last_activity", rows[0]);
+        assertEquals("Lib,g:a:1 g:a-extra:1,7,github,https://github.com/o/lib/issues,scraped,"
+            + "\"Fails, \"\"badly\"\"\non Windows\",https://github.com/o/lib/issues/1,\"bug, windows\",1970-01-01T00:00:02Z,", rows[1]);
+        assertTrue(rows[2], rows[2].startsWith("Lib,g:a:1 g:a-extra:1,7,github,https://github.com/o/lib/issues,scraped,Slow,"));
+        assertEquals("none,g:b:2,1,,,pending,,,,,", rows[3]);
+    }
+
+    private static ReportSection scraped() {
+        final List<Issue> issues = asList(
+            new Issue("Fails, \"badly\"\non Windows", "https://github.com/o/lib/issues/1",
+                new LinkedHashSet<>(asList("bug", "windows")), new Date(2_000), null),
+            new Issue("Slow", "https://github.com/o/lib/issues/2",
+                Collections.<String>emptySet(), new Date(3_000), new Date(4_000)));
+        final IssueSnapshot snapshot = new IssueSnapshot(new Date(1_000), "github",
+            "https://github.com/o/lib/issues", issues, singletonList(Pair.of("Open", 2)));
+        return new ReportSection("Lib", Pair.of("github", "https://github.com/o/lib/issues"),
+            asList(Pair.of("g:a:1", 5L), Pair.of("g:a-extra:1", 2L)), ReportSection.Status.SCRAPED, snapshot);
+    }
+
+    private static class Source implements ReportWriter.Source {
+
+        private final String                           name;
+        private final CompletableFuture<ReportSection> section = new CompletableFuture<>();
+        private volatile boolean                       started;
+
+        Source(final String name) {
+            this.name = name;
+        }
+
+        void complete() {
+            section.complete(section(ReportSection.Status.SCRAPED));
+        }
+
+        @Override
+        public CompletableFuture<ReportSection> start() {
+            started = true;
+            return section;
+        }
+
+        @Override
+        public ReportSection pending() {
+            return section(ReportSection.Status.PENDING);
+        }
+
+        private ReportSection section(final ReportSection.Status status) {
+            return new ReportSection(name, null, Collections.<Pair<String, Long>>emptyList(), status, null);
+        }
+    }
+
+    private static class RecordingSink implements ReportSink {
+
+        private final List<String>   written;
+        private final CountDownLatch firstWritten;
+
+        RecordingSink(final List<String> written, final CountDownLatch firstWritten) {
+            this.written      = written;
+            this.firstWritten = firstWritten;
+        }
+
+        @Override
+        public void begin(final String title) {
+        }
+
+        @Override
+        public void section(final ReportSection section) throws IOException {
+            written.add(section.getStatus() == ReportSection.Status.PENDING
+                ? section.getName() + " (pending)" : section.getName());
+            firstWritten.countDown();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
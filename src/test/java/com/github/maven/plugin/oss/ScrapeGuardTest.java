@@ -0,0 +1,134 @@
+package com.github.maven.plugin.oss;
+
+import static com.github.maven.plugin.oss.fixtures.StubServer.resource;
+import static com.github.maven.plugin.oss.fixtures.StubServer.respond;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.github.maven.plugin.oss.fixtures.StubServer;
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scrapes a stub GitHub that answers slowly or with server errors on demand.
+ */
+public class ScrapeGuardTest {
+
+    private StubServer          server;
+    private String              site;
+    private final AtomicInteger requests = new AtomicInteger();
+    // number of requests still to fail, and delay before answering each
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile long       delayMillis;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubServer("/octo/lib/issues", this::serve);
+        site = server.getUrl();
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void testRetriesRecoverFromServerErrors() throws Exception {
+        failures.set(2);
+        final ScrapeGuard guard = new ScrapeGuard(2, 10, 3, 60_000);
+        try (HttpFetcher http = new HttpFetcher(4, 4, null)) {
+            final IssueSnapshot snapshot = guard.guard(scraper(http)).scrape(site);
+            assertEquals(10, snapshot.getOpenIssues().size());
+        }
+        assertEquals(3, requests.get());
+        assertEquals(2, guard.getRetried());
+        assertEquals(0, guard.getOpened());
+    }
+
+    @Test
+    public void testSlowHostTimesOut() throws Exception {
+        delayMillis = 1_000;
+        final ScrapeGuard guard = new ScrapeGuard(0, 10, 0, 60_000);
+        final long start = System.nanoTime();
+        try (HttpFetcher http = new HttpFetcher(4, 4, 200, null)) {
+            guard.guard(scraper(http)).scrape(site);
+            fail("read timeout expected");
+        } catch (SocketTimeoutException e) {
+            // expected
+        }
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 800);
+    }
+
+    @Test
+    public void testCircuitOpensAfterConsecutiveFailures() throws Exception {
+        failures.set(Integer.MAX_VALUE);
+        final ScrapeGuard guard = new ScrapeGuard(0, 10, 2, 60_000);
+        try (HttpFetcher http = new HttpFetcher(4, 4, null)) {
+            final IssueScraper scraper = guard.guard(scraper(http));
+            for (int i = 0; i < 4; i++) {
+                try {
+                    scraper.scrape(site);
+                    fail("server error expected");
+                } catch (IOException e) {
+                    // expected
+                }
+            }
+        }
+        assertEquals(2, requests.get());
+        assertEquals(1, guard.getOpened());
+        assertEquals(2, guard.getRejected());
+    }
+
+    @Test
+    public void testTrialAfterCooldownClosesCircuit() throws Exception {
+        failures.set(1);
+        final ScrapeGuard guard = new ScrapeGuard(0, 10, 1, 100);
+        try (HttpFetcher http = new HttpFetcher(4, 4, null)) {
+            final IssueScraper scraper = guard.guard(scraper(http));
+            try {
+                scraper.scrape(site);
+                fail("server error expected");
+            } catch (IOException e) {
+                // expected
+            }
+            try {
+                scraper.scrape(site);
+                fail("open circuit expected");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().startsWith("Circuit open"));
+            }
+
+            Thread.sleep(150);
+            assertEquals(10, scraper.scrape(site).getOpenIssues().size());
+            assertEquals(10, scraper.scrape(site).getOpenIssues().size());
+        }
+        assertEquals(3, requests.get());
+        assertEquals(1, guard.getRejected());
+    }
+
+    private GitHubIssueScraper scraper(final HttpFetcher http) {
+        return new GitHubIssueScraper(http, Runnable::run, 100, 0);
+    }
+
+    private void serve(final HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failures.getAndDecrement() > 0) {
+            respond(exchange, 503);
+            return;
+        }
+
+        respond(exchange, "text/html; charset=utf-8", resource("/github/issues-3.html"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.maven.plugin.oss;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ScrapeSchedulerTest {
+
+    @Test
+    public void testGlobalAndPerHostLimits() {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final Map<String, AtomicInteger> perHost = new ConcurrentHashMap<>();
+        final Map<String, AtomicInteger> maxPerHost = new ConcurrentHashMap<>();
+
+        final List<CompletableFuture<Integer>> results = new ArrayList<>();
+        try (ScrapeScheduler scheduler = new ScrapeScheduler(4, 2)) {
+            for (int i = 0; i < 60; i++) {
+                final String host = "host" + (i % 3) + ".example.org";
+                final int value = i;
+                results.add(scheduler.submit("https://" + host + "/issues/" + i, () -> {
+                    final int global = inFlight.incrementAndGet();
+                    final int local = perHost.computeIfAbsent(host, h -> new AtomicInteger()).incrementAndGet();
+                    maxInFlight.accumulateAndGet(global, Math::max);
+                    maxPerHost.computeIfAbsent(host, h -> new AtomicInteger()).accumulateAndGet(local, Math::max);
+                    Thread.sleep(5);
+                    perHost.get(host).decrementAndGet();
+                    inFlight.decrementAndGet();
+                    return value;
+                }));
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(Integer.valueOf(i), results.get(i).join());
+            }
+        }
+
+        assertTrue("global limit exceeded: " + maxInFlight, maxInFlight.get() <= 4);
+        maxPerHost.forEach((host, max) -> assertTrue("limit exceeded for " + host + ": " + max, max.get() <= 2));
+    }
+
+    @Test
+    public void testFailureCompletesExceptionallyAndFreesHost() {
+        try (ScrapeScheduler scheduler = new ScrapeScheduler(2, 1)) {
+            final CompletableFuture<String> failed = scheduler.submit("https://github.com/a/b/issues", () -> {
+                throw new IOException("connection reset");
+            });
+            final CompletableFuture<String> next = scheduler.submit("https://github.com/c/d/issues", () -> "ok");
+
+            try {
+                failed.join();
+                fail("expected the request to fail");
+            } catch (CompletionException e) {
+                assertTrue(e.getCause() instanceof IOException);
+            }
+            assertEquals("ok", next.join());
+        }
+    }
+
+    @Test
+    public void testWaitingRequestsStartByPriority() throws Exception {
+        final List<Long> started = new CopyOnWriteArrayList<>();
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final List<CompletableFuture<Long>> results = new ArrayList<>();
+        try (ScrapeScheduler scheduler = new ScrapeScheduler(1, 1)) {
+            results.add(scheduler.submit("https://github.com/a/a/issues", 1_000, () -> {
+                blocked.await();
+                return 1_000L;
+            }));
+            for (final long priority : new long[] {3, 50, 7, 50, 12}) {
+                results.add(scheduler.submit("https://github.com/a/" + priority + "/issues", priority, () -> {
+                    started.add(priority);
+                    return priority;
+                }));
+            }
+            blocked.countDown();
+            results.forEach(CompletableFuture::join);
+        }
+        assertEquals(Arrays.asList(50L, 50L, 12L, 7L, 3L), started);
+    }
+
+    @Test
+    public void testHostOf() {
+        assertEquals("github.com", ScrapeScheduler.hostOf("https://GitHub.com/a/b/issues"));
+        assertEquals("issues.apache.org", ScrapeScheduler.hostOf("https://issues.apache.org/jira/browse/LANG"));
+        assertEquals("not a url", ScrapeScheduler.hostOf("not a url"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.maven.plugin.oss;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingleFlightTest {
+
+    @Test
+    public void testConcurrentRequestsShareOneComputation() throws Exception {
+        final SingleFlight<String, Integer> flights = new SingleFlight<>();
+        final AtomicInteger computations = new AtomicInteger();
+        final CompletableFuture<Integer> slow = new CompletableFuture<>();
+        final CountDownLatch ready = new CountDownLatch(1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<CompletableFuture<Integer>>> requests = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                requests.add(executor.submit(() -> {
+                    ready.await();
+                    return flights.get("https://github.com/octo/lib/issues", () -> {
+                        computations.incrementAndGet();
+                        return slow;
+                    });
+                }));
+            }
+            ready.countDown();
+            final List<CompletableFuture<Integer>> results = new ArrayList<>();
+            for (final Future<CompletableFuture<Integer>> request : requests) {
+                results.add(request.get());
+            }
+            slow.complete(42);
+            for (final CompletableFuture<Integer> result : results) {
+                assertEquals(Integer.valueOf(42), result.join());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, computations.get());
+        assertEquals(1, flights.getStarted());
+        assertEquals(31, flights.getShared());
+
+        final CompletableFuture<Integer> other = flights.get("https://issues.apache.org/jira/browse/LANG", () -> CompletableFuture.completedFuture(7));
+        assertEquals(Integer.valueOf(7), other.join());
+        assertEquals(2, flights.getStarted());
+    }
+
+    @Test
+    public void testFailuresAreSharedWhileInFlightOnly() {
+        final SingleFlight<String, Integer> flights = new SingleFlight<>();
+        final CompletableFuture<Integer> failing = new CompletableFuture<>();
+
+        final CompletableFuture<Integer> first = flights.get("site", () -> failing);
+        final CompletableFuture<Integer> second = flights.get("site", () -> {
+            throw new AssertionError("started twice");
+        });
+        assertSame(first, second);
+        failing.completeExceptionally(new IOException("connection reset"));
+        try {
+            second.join();
+            fail("expected the shared failure");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+
+        final CompletableFuture<Integer> retried = flights.get("site", () -> CompletableFuture.completedFuture(3));
+        assertEquals(Integer.valueOf(3), retried.join());
+        assertEquals(2, flights.getStarted());
+
+        final CompletableFuture<Integer> thrown = flights.get("other", () -> {
+            throw new IllegalStateException("scheduler closed");
+        });
+        assertTrue(thrown.isCompletedExceptionally());
+        assertEquals(Integer.valueOf(4), flights.get("other", () -> CompletableFuture.completedFuture(4)).join());
+    }
+
+    @Test
+    public void testIssueSiteKey() {
+        final Pair<String, String> github = Utility.issueSiteKey(Pair.of("github", "https://github.com/Octo/Lib/issues"));
+        assertEquals(github, Utility.issueSiteKey(Pair.of("github", " HTTPS://GitHub.com:443/octo/lib/issues/ ")));
+        assertEquals(github, Utility.issueSiteKey(Pair.of("github", "https://github.com/octo/lib/issues#top")));
+        assertEquals("https://github.com/octo/lib/issues", github.getRight());
+
+        final Pair<String, String> jira = Utility.issueSiteKey(Pair.of("jira", "https://issues.apache.org/jira/browse/LANG"));
+        assertEquals(jira, Utility.issueSiteKey(Pair.of("jira", "https://ISSUES.apache.org/jira/browse/LANG/")));
+        assertNotEquals(jira, Utility.issueSiteKey(Pair.of("jira", "https://issues.apache.org/jira/browse/lang")));
+        assertNotEquals(jira, Utility.issueSiteKey(Pair.of("github", "https://issues.apache.org/jira/browse/LANG")));
+        assertEquals("not a url", Utility.issueSiteKey(Pair.of("jira", "not a url/")).getRight());
+    }
+}
@@ -0,0 +1,148 @@
+package com.github.maven.plugin.oss;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class SnapshotStoreTest {
+
+    private static final String SITE = "https://github.com/octo/lib/issues";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final SnapshotStore store = new SnapshotStore(folder.getRoot(), TimeUnit.HOURS.toMillis(1), 0, SnapshotStore.Mode.TTL);
+        final IssueSnapshot snapshot = snapshot(System.currentTimeMillis());
+        store.store(SITE, snapshot);
+
+        final IssueSnapshot read = store.cached("github", SITE);
+        assertNotNull(read);
+        assertEquals(snapshot.getSnapshotDate(), read.getSnapshotDate());
+        assertEquals("github", read.getIssueSystem());
+        assertEquals(snapshot.getUrl(), read.getUrl());
+        assertEquals(snapshot.getStateCounts(), read.getStateCounts());
+        assertEquals(2, read.getOpenIssues().size());
+
+        final Issue first = read.getOpenIssues().get(0);
+        assertEquals("Crash on start", first.getTitle());
+        assertEquals(SITE + "/1", first.getUrl());
+        assertEquals(new LinkedHashSet<>(asList("bug", "help wanted")), first.getTags());
+        assertEquals(new Date(1000L), first.getCreated());
+        assertEquals(new Date(2000L), first.getLastActivity());
+
+        final Issue second = read.getOpenIssues().get(1);
+        assertEquals(Collections.emptySet(), second.getTags());
+        assertNull(second.getCreated());
+        assertNull(second.getLastActivity());
+
+        assertEquals(1, store.getHits());
+        assertEquals(1, store.getStored());
+        assertNull("entries are per issue system", store.cached("jira", SITE));
+    }
+
+    @Test
+    public void testModes() throws IOException {
+        final long twoHoursAgo = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2);
+        new SnapshotStore(folder.getRoot(), 0, 0, SnapshotStore.Mode.REFRESH).store(SITE, snapshot(twoHoursAgo));
+
+        assertNull(new SnapshotStore(folder.getRoot(), TimeUnit.HOURS.toMillis(1), 0, SnapshotStore.Mode.TTL).cached("github", SITE));
+        assertNotNull(new SnapshotStore(folder.getRoot(), TimeUnit.HOURS.toMillis(3), 0, SnapshotStore.Mode.TTL).cached("github", SITE));
+        assertNotNull(new SnapshotStore(folder.getRoot(), 0, 0, SnapshotStore.Mode.OFFLINE).cached("github", SITE));
+        assertNull(new SnapshotStore(folder.getRoot(), TimeUnit.HOURS.toMillis(3), 0, SnapshotStore.Mode.REFRESH).cached("github", SITE));
+        assertNull(new SnapshotStore(null, TimeUnit.HOURS.toMillis(3), 0, SnapshotStore.Mode.OFFLINE).cached("github", SITE));
+    }
+
+    @Test
+    public void testDeltaBaseUntilResync() throws IOException {
+        final long day = TimeUnit.DAYS.toMillis(1);
+        final long now = System.currentTimeMillis();
+        final SnapshotStore store = new SnapshotStore(folder.getRoot(), 0, 7 * day, SnapshotStore.Mode.TTL);
+        assertNull(store.deltaBase("github", SITE));
+
+        store.store(SITE, snapshot(now - 2 * day), now - 6 * day);
+        final SnapshotStore.Entry base = store.deltaBase("github", SITE);
+        assertNotNull(base);
+        assertEquals(now - 6 * day, base.getFullScrape());
+        assertEquals(now - 2 * day, base.getSnapshot().getSnapshotDate().getTime());
+        assertEquals(1, store.getMerged());
+        assertEquals(0, store.getStored());
+
+        store.store(SITE, snapshot(now - day), now - 8 * day);
+        assertNull("resync due", store.deltaBase("github", SITE));
+        assertNull(new SnapshotStore(folder.getRoot(), 0, 30 * day, SnapshotStore.Mode.REFRESH).deltaBase("github", SITE));
+        assertNull(new SnapshotStore(folder.getRoot(), 0, 0, SnapshotStore.Mode.TTL).deltaBase("github", SITE));
+    }
+
+    @Test
+    public void testCorruptEntryIsIgnored() throws IOException {
+        final SnapshotStore store = new SnapshotStore(folder.getRoot(), 0, 0, SnapshotStore.Mode.OFFLINE);
+        store.store(SITE, snapshot(System.currentTimeMillis()));
+
+        final File[] entries = folder.getRoot().listFiles();
+        assertEquals(1, entries.length);
+        try (RandomAccessFile file = new RandomAccessFile(entries[0], "rw")) {
+            file.seek(file.length() / 2);
+            final int b = file.read();
+            file.seek(file.length() / 2);
+            file.write(b ^ 0xFF);
+        }
+        assertNull(store.cached("github", SITE));
+
+        try (RandomAccessFile file = new RandomAccessFile(entries[0], "rw")) {
+            file.setLength(file.length() / 2);
+        }
+        assertNull(store.cached("github", SITE));
+    }
+
+    @Test
+    public void testConcurrentWritersLeaveAReadableEntry() throws Exception {
+        final SnapshotStore store = new SnapshotStore(folder.getRoot(), 0, 0, SnapshotStore.Mode.OFFLINE);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> writes = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                final long time = 1_000_000L + i;
+                writes.add(executor.submit(() -> {
+                    store.store(SITE, snapshot(time));
+                    return null;
+                }));
+            }
+            for (final Future<?> write : writes) {
+                write.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertNotNull(store.cached("github", SITE));
+        assertEquals(1, folder.getRoot().listFiles().length);
+    }
+
+    private static IssueSnapshot snapshot(final long time) {
+        final List<Issue> issues = asList(
+            new Issue("Crash on start", SITE + "/1", new LinkedHashSet<>(asList("bug", "help wanted")), new Date(1000L), new Date(2000L)),
+            new Issue("Document the \u00e9l\u00e8ve API", SITE + "/2", null, null, null));
+        final List<Pair<String, Integer>> stateCounts = asList(Pair.of("Open", 2), Pair.of("Closed", 130));
+        return new IssueSnapshot(new Date(time), "github", SITE, issues, stateCounts);
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.maven.plugin.oss;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class SourceWatcherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testOneSaveIsOneChange() throws Exception {
+        final Path root = folder.getRoot().toPath();
+        final Path sources = Files.createDirectories(root.resolve("src/main/java/com/acme"));
+        final Path source = sources.resolve("A.java");
+        Files.write(source, "class A {}".getBytes(UTF_8));
+
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try (SourceWatcher watcher = new SourceWatcher(200)) {
+            watcher.watch(root);
+            watcher.watchTree(root.resolve("src/main/java"));
+            assertEquals(4, watcher.getDirectories());
+
+            // an editor writing a swap file, then the source through a temporary file, then touching it again
+            executor.schedule(() -> {
+                Files.write(sources.resolve(".A.java.swp"), "swap".getBytes(UTF_8));
+                Thread.sleep(300);
+                final Path temporary = sources.resolve("A.java.tmp");
+                Files.write(temporary, "class A { int a; }".getBytes(UTF_8));
+                Files.move(temporary, source, REPLACE_EXISTING, ATOMIC_MOVE);
+                Files.write(source, "class A { int b; }".getBytes(UTF_8));
+                return null;
+            }, 100, TimeUnit.MILLISECONDS);
+            assertEquals(singleton(source), watcher.next());
+
+            executor.schedule(() -> Files.write(root.resolve("pom.xml"), "<project/>".getBytes(UTF_8)), 100, TimeUnit.MILLISECONDS);
+            assertEquals(singleton(root.resolve("pom.xml")), watcher.next());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNewDirectoriesAreWatched() throws Exception {
+        final Path root = Files.createDirectories(folder.getRoot().toPath().resolve("src/main/java"));
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try (SourceWatcher watcher = new SourceWatcher(100)) {
+            watcher.watchTree(root);
+
+            final Path created = root.resolve("com");
+            executor.schedule(() -> Files.createDirectories(created), 50, TimeUnit.MILLISECONDS);
+            assertEquals(singleton(created), watcher.next());
+            assertEquals(2, watcher.getDirectories());
+
+            final Path source = created.resolve("B.java");
+            executor.schedule(() -> Files.write(source, "class B {}".getBytes(UTF_8)), 50, TimeUnit.MILLISECONDS);
+            final Set<Path> changed = watcher.next();
+            assertEquals(singleton(source), changed);
+
+            executor.schedule(() -> {
+                Files.delete(source);
+                Files.delete(created);
+                return null;
+            }, 50, TimeUnit.MILLISECONDS);
+            assertEquals(new HashSet<>(asList(source, created)), watcher.next());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
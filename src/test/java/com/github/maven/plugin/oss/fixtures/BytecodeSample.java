@@ -0,0 +1,39 @@
+package com.github.maven.plugin.oss.fixtures;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+
+/**
+ * Compiled class referring to other classes in each of the ways the constant pool records them.
+ */
+@Deprecated
+public class BytecodeSample {
+
+    static final long LARGE = 1L << 40;
+
+    private AtomicLong            counter;
+    private final List<Duration>  durations = new ArrayList<>();
+    private Map.Entry<String, ?>  entry;
+
+    public String literal() {
+        return "java.util.regex.Pattern";
+    }
+
+    public Object create() {
+        return new HashMap<String, Object>();
+    }
+
+    public Optional<?>[] array(final Matcher matcher) {
+        return null;
+    }
+
+    public Object qualified() {
+        return new java.util.zip.CRC32();
+    }
+}
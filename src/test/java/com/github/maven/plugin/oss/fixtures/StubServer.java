@@ -0,0 +1,67 @@
+package com.github.maven.plugin.oss.fixtures;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+
+/**
+ * HTTP server on an ephemeral loopback port that hands every request below one path to a stub handler.
+ */
+public final class StubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final String     url;
+
+    public StubServer(final String path, final HttpHandler handler) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(path, handler);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    /**
+     * @return the absolute URL of the stubbed path
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    /**
+     * Answers with {@code status} and no body.
+     */
+    public static void respond(final HttpExchange exchange, final int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    /**
+     * Answers 200 with {@code body}; headers set on the exchange beforehand are sent along.
+     */
+    public static void respond(final HttpExchange exchange, final String contentType, final byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * @return the contents of a test resource, or {@code null} if there is none
+     */
+    public static byte[] resource(final String name) throws IOException {
+        try (InputStream in = StubServer.class.getResourceAsStream(name)) {
+            return in == null ? null : IOUtils.toByteArray(in);
+        }
+    }
+}
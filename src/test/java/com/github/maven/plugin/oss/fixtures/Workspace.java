@@ -0,0 +1,156 @@
+package com.github.maven.plugin.oss.fixtures;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.shared.artifact.ArtifactCoordinate;
+import org.apache.maven.shared.artifact.resolve.ArtifactResolver;
+import org.apache.maven.shared.artifact.resolve.ArtifactResolverException;
+import org.apache.maven.shared.artifact.resolve.ArtifactResult;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Temporary directory holding generated sources, dependency JARs and a resolver that serves them.
+ */
+public final class Workspace implements AutoCloseable {
+
+    private final File                  root;
+    private final Map<String, Artifact> artifacts = new ConcurrentHashMap<>();
+    private final AtomicInteger         resolutions = new AtomicInteger();
+
+    public Workspace() throws IOException {
+        root = Files.createTempDirectory("oss-workspace").toFile();
+    }
+
+    public File getRoot() {
+        return root;
+    }
+
+    /**
+     * Writes a JAR with an (empty) entry for each class name and registers it as {@code com.acme:<artifactId>:1.0}.
+     */
+    public Dependency jar(final String artifactId, final String... classNames) throws IOException {
+        final File jar = new File(root, "repo/" + artifactId + "-1.0.jar");
+        jar.getParentFile().mkdirs();
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            for (final String className : classNames) {
+                out.putNextEntry(new JarEntry(className.replace('.', '/') + ".class"));
+                out.closeEntry();
+            }
+        }
+
+        final DefaultArtifact artifact = new DefaultArtifact("com.acme", artifactId,
+            VersionRange.createFromVersion("1.0"), "compile", "jar", null, new DefaultArtifactHandler("jar"));
+        artifact.setFile(jar);
+        artifacts.put(artifactId, artifact);
+
+        final Dependency dependency = new Dependency();
+        dependency.setGroupId("com.acme");
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion("1.0");
+        return dependency;
+    }
+
+    public void source(final String module, final String path, final String content) throws IOException {
+        FileUtils.writeStringToFile(new File(root, module + "/src/main/java/" + path), content, UTF_8);
+    }
+
+    /**
+     * Copies the compiled {@code classes} into the module's output directory.
+     */
+    public void classes(final String module, final Class<?>... classes) throws IOException {
+        for (final Class<?> type : classes) {
+            final File target = new File(root, module + "/target/classes/" + type.getName().replace('.', '/') + ".class");
+            try (InputStream in = type.getResourceAsStream(type.getSimpleName() + ".class")) {
+                FileUtils.copyInputStreamToFile(in, target);
+            }
+        }
+    }
+
+    public MavenProject project(final String module, final Dependency... dependencies) {
+        final MavenProject project = new MavenProject();
+        project.setGroupId("com.acme");
+        project.setArtifactId(module);
+        project.setVersion("1.0");
+        project.setPackaging("jar");
+        project.setFile(new File(root, module + "/pom.xml"));
+        project.addCompileSourceRoot(new File(root, module + "/src/main/java").getAbsolutePath());
+        project.getBuild().setOutputDirectory(new File(root, module + "/target/classes").getAbsolutePath());
+        project.setDependencies(new ArrayList<>(Arrays.asList(dependencies)));
+        project.setRemoteArtifactRepositories(Collections.emptyList());
+        return project;
+    }
+
+    public MavenSession session(final MavenProject project) {
+        return new MavenSession(null, new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult(), project);
+    }
+
+    public ArtifactResolver resolver() {
+        return new ArtifactResolver() {
+            @Override
+            public ArtifactResult resolveArtifact(final ProjectBuildingRequest request, final Artifact artifact)
+                throws ArtifactResolverException {
+                return resolve(artifact.getArtifactId());
+            }
+
+            @Override
+            public ArtifactResult resolveArtifact(final ProjectBuildingRequest request, final ArtifactCoordinate coordinate)
+                throws ArtifactResolverException {
+                return resolve(coordinate.getArtifactId());
+            }
+        };
+    }
+
+    /**
+     * @return number of resolver calls made so far
+     */
+    public int getResolutions() {
+        return resolutions.get();
+    }
+
+    public Artifact artifact(final String artifactId) {
+        return artifacts.get(artifactId);
+    }
+
+    public List<Artifact> getArtifacts() {
+        return new ArrayList<>(artifacts.values());
+    }
+
+    private ArtifactResult resolve(final String artifactId) throws ArtifactResolverException {
+        resolutions.incrementAndGet();
+        final Artifact artifact = artifacts.get(artifactId);
+        if (artifact == null) {
+            throw new ArtifactResolverException("Unknown artifact: " + artifactId, new IOException(artifactId));
+        }
+        return () -> artifact;
+    }
+
+    @Override
+    public void close() throws IOException {
+        FileUtils.deleteDirectory(root);
+    }
+}
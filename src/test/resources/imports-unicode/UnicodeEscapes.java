@@ -0,0 +1,9 @@
+package com.acme.imports;
+
+import java.util.List;
+import java.util.\u0053et;
+import java.util.Collection; // \\u000a import java.util.NotAnImport;
+
+class UnicodeEscapes {
+    String text = "\\u0041";
+}
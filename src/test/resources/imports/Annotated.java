@@ -0,0 +1,18 @@
+/*
+ * License header with a stray "quote and an import java.util.Fake; inside.
+ */
+// import java.util.AlsoFake;
+@Deprecated
+@SuppressWarnings(value = {"unchecked", /* ) */ "rawtypes"}, other = ')')
+package com.acme.imports;
+
+import java.util.List;
+import java .  util/* comment */. Map ;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.*;
+import java.util.concurrent.*;;
+
+@FunctionalInterface
+public interface Annotated {
+    List<Map<String, String>> values();
+}
@@ -0,0 +1,6 @@
+import java.io.File;
+import java.io.IOException;
+
+enum NoPackage {
+    ONE
+}
@@ -0,0 +1,7 @@
+/**
+ * Package documentation.
+ */
+@javax.annotation.Generated(value = "generator", comments = "(nested (parens) and \"quotes\")")
+package com.acme.imports;
+
+import javax.annotation.Generated;